@@ -1,11 +1,17 @@
 package com.Gestion_Note.Note.Controllers;
 
+import com.Gestion_Note.Note.DTO.AssignmentFile;
+import com.Gestion_Note.Note.DTO.AssignmentSummary;
 import com.Gestion_Note.Note.Entities.Assignment;
 import com.Gestion_Note.Note.Services.AssignmentService;
+import com.Gestion_Note.Note.Services.UploadTooLargeException;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockMultipartFile;
@@ -56,6 +62,17 @@ public class AssignmentControllerTest {
         assertTrue(response.getBody().contains("Error uploading assignment"));
     }
 
+    @Test
+    public void testUploadAssignment_TooLarge() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "big.pdf", MediaType.APPLICATION_PDF_VALUE, "Dummy content".getBytes());
+
+        doThrow(new UploadTooLargeException(8L)).when(assignmentService).uploadAssignment(anyString(), anyString(), anyString(), any(MultipartFile.class), any());
+
+        ResponseEntity<String> response = assignmentController.uploadAssignment("Test Title", "Desc", "teacher1", file, new Date());
+
+        assertEquals(413, response.getStatusCodeValue());
+    }
+
     @Test
     public void testUpdateAssignment_Success() throws IOException {
         MockMultipartFile file = new MockMultipartFile("file", "test.pdf", MediaType.APPLICATION_PDF_VALUE, "Dummy content".getBytes());
@@ -81,32 +98,97 @@ public class AssignmentControllerTest {
 
     @Test
     public void testGetAllAssignments() {
-        List<Assignment> assignments = Arrays.asList(new Assignment(), new Assignment());
+        List<AssignmentSummary> assignments = Arrays.asList(summary(1L), summary(2L));
         when(assignmentService.getAllAssignments()).thenReturn(assignments);
 
-        List<Assignment> result = assignmentController.getAllAssignments();
+        List<AssignmentSummary> result = assignmentController.getAllAssignments();
 
         assertEquals(2, result.size());
         verify(assignmentService, times(1)).getAllAssignments();
     }
 
+    @Test
+    public void testDownloadAssignmentFile_SendsStoredNameAndType() throws IOException {
+        byte[] content = "statement".getBytes();
+        AssignmentFile file = new AssignmentFile("tp1.docx", "application/msword", "a".repeat(64), (long) content.length);
+        when(assignmentService.getAssignmentFile(1L)).thenReturn(file);
+        when(assignmentService.openFile(file)).thenReturn(new ByteArrayResource(content));
+
+        ResponseEntity<?> response = assignmentController.downloadAssignmentFile(1L, new HttpHeaders());
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertArrayEquals(content, ((Resource) response.getBody()).getContentAsByteArray());
+        assertEquals(MediaType.parseMediaType("application/msword"), response.getHeaders().getContentType());
+        assertEquals("tp1.docx", response.getHeaders().getContentDisposition().getFilename());
+        assertEquals(content.length, response.getHeaders().getContentLength());
+    }
+
+    @Test
+    public void testDownloadAssignmentFile_NoFile() {
+        when(assignmentService.getAssignmentFile(1L)).thenThrow(new EntityNotFoundException("No file"));
+
+        ResponseEntity<?> response = assignmentController.downloadAssignmentFile(1L, new HttpHeaders());
+
+        assertEquals(404, response.getStatusCodeValue());
+    }
+
+    @Test
+    public void testDownloadSubmittedFile_UnknownTypeFallsBackToOctetStream() throws IOException {
+        AssignmentFile file = new AssignmentFile(null, "not a type", "b".repeat(64), 2L);
+        when(assignmentService.getSubmittedFile(2L)).thenReturn(file);
+        when(assignmentService.openFile(file)).thenReturn(new ByteArrayResource(new byte[]{1, 2}));
+
+        ResponseEntity<?> response = assignmentController.downloadSubmittedFile(2L, new HttpHeaders());
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(MediaType.APPLICATION_OCTET_STREAM, response.getHeaders().getContentType());
+        assertEquals("submission_2", response.getHeaders().getContentDisposition().getFilename());
+    }
+
     @Test
     public void testGetAssignmentById_Found() {
         Assignment assignment = new Assignment();
         assignment.setId(1L);
         when(assignmentService.getAssignmentById(1L)).thenReturn(Optional.of(assignment));
 
-        ResponseEntity<Assignment> response = assignmentController.getAssignmentById(1L);
+        ResponseEntity<Assignment> response = assignmentController.getAssignmentById(1L, null);
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(assignment, response.getBody());
+        assertEquals("\"assignment-1-0-0-0\"", response.getHeaders().getETag());
+        verify(assignmentService, never()).getAssignmentVersionTag(anyLong());
+    }
+
+    @Test
+    public void testGetAssignmentById_NotModified() {
+        when(assignmentService.getAssignmentVersionTag(1L)).thenReturn(Optional.of("3-1-2"));
+
+        ResponseEntity<Assignment> response = assignmentController.getAssignmentById(1L, "\"assignment-1-3-1-2\"");
+
+        assertEquals(304, response.getStatusCodeValue());
+        assertNull(response.getBody());
+        verify(assignmentService, never()).getAssignmentById(anyLong());
+    }
+
+    @Test
+    public void testGetAssignmentById_StaleTag_ReturnsBody() {
+        Assignment assignment = new Assignment();
+        assignment.setId(1L);
+        assignment.setVersion(4L);
+        when(assignmentService.getAssignmentVersionTag(1L)).thenReturn(Optional.of("4-0-0"));
+        when(assignmentService.getAssignmentById(1L)).thenReturn(Optional.of(assignment));
+
+        ResponseEntity<Assignment> response = assignmentController.getAssignmentById(1L, "\"assignment-1-3-0-0\"");
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals("\"assignment-1-4-0-0\"", response.getHeaders().getETag());
     }
 
     @Test
     public void testGetAssignmentById_NotFound() {
         when(assignmentService.getAssignmentById(1L)).thenReturn(Optional.empty());
 
-        ResponseEntity<Assignment> response = assignmentController.getAssignmentById(1L);
+        ResponseEntity<Assignment> response = assignmentController.getAssignmentById(1L, null);
 
         assertEquals(404, response.getStatusCodeValue());
         assertNull(response.getBody());
@@ -130,4 +212,9 @@ public class AssignmentControllerTest {
 
         assertEquals(404, response.getStatusCodeValue());
     }
+
+    private static AssignmentSummary summary(Long id) {
+        return new AssignmentSummary(id, "Title " + id, null, null, "teacher1", null,
+                "file.pdf", "application/pdf", null, null, new Date(), null, null);
+    }
 }
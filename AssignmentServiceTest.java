@@ -1,5 +1,8 @@
 package com.Gestion_Note.Note.Services;
 
+import com.Gestion_Note.Note.DTO.AssignmentFile;
+import com.Gestion_Note.Note.DTO.AssignmentSummary;
+import com.Gestion_Note.Note.DTO.BlobDescriptor;
 import com.Gestion_Note.Note.Entities.*;
 import com.Gestion_Note.Note.Repository.AssignmentRepository;
 import com.Gestion_Note.Note.Repository.UserRepository;
@@ -8,9 +11,13 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -23,12 +30,31 @@ class AssignmentServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private BlobService blobService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private UploadLimits uploadLimits;
+
     @InjectMocks
     private AssignmentService assignmentService;
 
+    private static final String OLD_HASH = "0".repeat(64);
+    private static final String NEW_HASH = "f".repeat(64);
+
     @BeforeEach
-    void setup() {
+    @SuppressWarnings("unchecked")
+    void setup() throws IOException {
         MockitoAnnotations.openMocks(this);
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(uploadLimits.checkedLimit(any())).thenReturn(1024L);
+        when(blobService.store(any(MultipartFile.class), anyLong())).thenReturn(new BlobDescriptor(NEW_HASH, 12L, false));
     }
 
     @Test
@@ -56,7 +82,28 @@ class AssignmentServiceTest {
         );
 
         // Verify save called once
-        verify(assignmentRepository, times(1)).save(any(Assignment.class));
+        ArgumentCaptor<Assignment> saved = ArgumentCaptor.forClass(Assignment.class);
+        verify(assignmentRepository, times(1)).save(saved.capture());
+        assertEquals(NEW_HASH, saved.getValue().getFileHash());
+        assertEquals(12L, saved.getValue().getFileSize());
+        verify(blobService).store(file, 1024L);
+        verify(blobService).retain(NEW_HASH);
+    }
+
+    @Test
+    void testUploadAssignment_tooLarge_savesNothing() throws IOException {
+        Teacher teacher = new Teacher();
+        teacher.setUsername("teacher1");
+        when(userRepository.findByUsername("teacher1")).thenReturn(Optional.of(teacher));
+        when(uploadLimits.checkedLimit(any())).thenThrow(new UploadTooLargeException(4L));
+
+        MockMultipartFile file = new MockMultipartFile("file", "big.pdf", "application/pdf", "too big".getBytes());
+
+        assertThrows(UploadTooLargeException.class, () ->
+                assignmentService.uploadAssignment("Title", "Description", "teacher1", file, new Date()));
+
+        verify(blobService, never()).store(any(MultipartFile.class), anyLong());
+        verify(assignmentRepository, never()).save(any());
     }
 
     @Test
@@ -102,13 +149,31 @@ class AssignmentServiceTest {
 
     @Test
     void testGetAllAssignments() {
-        List<Assignment> assignments = List.of(new Assignment(), new Assignment());
-        when(assignmentRepository.findAll()).thenReturn(assignments);
+        List<AssignmentSummary> assignments = List.of(
+                new AssignmentSummary(1L, "A", null, Status.TO_DO, "teacher1", null, "a.pdf", "application/pdf", null, null, null, null, null),
+                new AssignmentSummary(2L, "B", null, Status.TO_DO, "teacher1", null, "b.pdf", "application/pdf", null, null, null, null, null));
+        when(assignmentRepository.findSummaries()).thenReturn(assignments);
 
-        List<Assignment> result = assignmentService.getAllAssignments();
+        List<AssignmentSummary> result = assignmentService.getAllAssignments();
 
         assertEquals(2, result.size());
-        verify(assignmentRepository, times(1)).findAll();
+        verify(assignmentRepository, times(1)).findSummaries();
+        verify(assignmentRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetAssignmentFile_found() {
+        AssignmentFile file = new AssignmentFile("a.pdf", "application/pdf", NEW_HASH, 1L);
+        when(assignmentRepository.findFile(1L)).thenReturn(Optional.of(file));
+
+        assertSame(file, assignmentService.getAssignmentFile(1L));
+    }
+
+    @Test
+    void testGetSubmittedFile_missing_throws() {
+        when(assignmentRepository.findSubmittedFile(1L)).thenReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> assignmentService.getSubmittedFile(1L));
     }
 
     @Test
@@ -138,6 +203,7 @@ class AssignmentServiceTest {
         Assignment assignment = new Assignment();
         assignment.setTitle("Old Title");
         assignment.setTeacherUsername("oldTeacher");
+        assignment.setFileHash(OLD_HASH);
 
         when(assignmentRepository.findById(1L)).thenReturn(Optional.of(assignment));
 
@@ -153,8 +219,27 @@ class AssignmentServiceTest {
         assertEquals("New Title", assignment.getTitle());
         assertEquals("newTeacher", assignment.getTeacherUsername());
         assertEquals("newfile.txt", assignment.getFileName());
+        assertEquals(NEW_HASH, assignment.getFileHash());
 
         verify(assignmentRepository, times(1)).save(assignment);
+        verify(blobService).retain(NEW_HASH);
+        verify(blobService).release(OLD_HASH);
+    }
+
+    @Test
+    void testUpdateAssignment_withoutFile_keepsReference() throws IOException {
+        Assignment assignment = new Assignment();
+        assignment.setFileHash(OLD_HASH);
+
+        when(assignmentRepository.findById(1L)).thenReturn(Optional.of(assignment));
+
+        assignmentService.updateAssignment(1L, "New Title", null, null, null, null);
+
+        assertEquals(OLD_HASH, assignment.getFileHash());
+        verify(assignmentRepository).save(assignment);
+        verify(blobService, never()).store(any(MultipartFile.class), anyLong());
+        verify(blobService, never()).retain(anyString());
+        verify(blobService, never()).release(anyString());
     }
 
     @Test
@@ -178,6 +263,21 @@ class AssignmentServiceTest {
         assignmentService.deleteAssignment(1L);
 
         verify(assignmentRepository, times(1)).delete(assignment);
+        verify(blobService, times(2)).release(null);
+    }
+
+    @Test
+    void testDeleteAssignment_releasesBothFiles() {
+        Assignment assignment = new Assignment();
+        assignment.setFileHash(OLD_HASH);
+        assignment.setSubmittedFileHash(NEW_HASH);
+
+        when(assignmentRepository.findById(1L)).thenReturn(Optional.of(assignment));
+
+        assignmentService.deleteAssignment(1L);
+
+        verify(blobService).release(OLD_HASH);
+        verify(blobService).release(NEW_HASH);
     }
 
     @Test
@@ -15,7 +15,8 @@ public class AssignmentTest {
         Long id = 1L;
         String title = "Assignment Title";
         String description = "Assignment Description";
-        byte[] fileData = "example".getBytes();
+        String fileHash = "a".repeat(64);
+        Long fileSize = 7L;
         String fileName = "file.pdf";
         String fileType = "application/pdf";
         Status status = Status.COMPLETED;
@@ -25,14 +26,16 @@ public class AssignmentTest {
         Date submittedAt = new Date();
         Date dueDate = new Date();
         String teacherUsername = "teacher1";
-        byte[] submittedFileData = "submitted".getBytes();
+        String submittedFileHash = "b".repeat(64);
+        Long submittedFileSize = 9L;
         String submittedFileName = "submitted.pdf";
         String submittedFileType = "application/pdf";
 
         assignment.setId(id);
         assignment.setTitle(title);
         assignment.setDescription(description);
-        assignment.setFileData(fileData);
+        assignment.setFileHash(fileHash);
+        assignment.setFileSize(fileSize);
         assignment.setFileName(fileName);
         assignment.setFileType(fileType);
         assignment.setStatus(status);
@@ -42,14 +45,16 @@ public class AssignmentTest {
         assignment.setSubmittedAt(submittedAt);
         assignment.setDueDate(dueDate);
         assignment.setTeacherUsername(teacherUsername);
-        assignment.setSubmittedFileData(submittedFileData);
+        assignment.setSubmittedFileHash(submittedFileHash);
+        assignment.setSubmittedFileSize(submittedFileSize);
         assignment.setSubmittedFileName(submittedFileName);
         assignment.setSubmittedFileType(submittedFileType);
 
         assertEquals(id, assignment.getId());
         assertEquals(title, assignment.getTitle());
         assertEquals(description, assignment.getDescription());
-        assertArrayEquals(fileData, assignment.getFileData());
+        assertEquals(fileHash, assignment.getFileHash());
+        assertEquals(fileSize, assignment.getFileSize());
         assertEquals(fileName, assignment.getFileName());
         assertEquals(fileType, assignment.getFileType());
         assertEquals(status, assignment.getStatus());
@@ -59,7 +64,8 @@ public class AssignmentTest {
         assertEquals(submittedAt, assignment.getSubmittedAt());
         assertEquals(dueDate, assignment.getDueDate());
         assertEquals(teacherUsername, assignment.getTeacherUsername());
-        assertArrayEquals(submittedFileData, assignment.getSubmittedFileData());
+        assertEquals(submittedFileHash, assignment.getSubmittedFileHash());
+        assertEquals(submittedFileSize, assignment.getSubmittedFileSize());
         assertEquals(submittedFileName, assignment.getSubmittedFileName());
         assertEquals(submittedFileType, assignment.getSubmittedFileType());
     }
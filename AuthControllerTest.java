@@ -2,14 +2,20 @@ package com.Gestion_Note.Note.Controllers;
 
 import com.Gestion_Note.Note.DTO.AuthRequestDTO;
 import com.Gestion_Note.Note.DTO.AuthResponseDTO;
+import com.Gestion_Note.Note.DTO.RefreshTokenRequest;
 import com.Gestion_Note.Note.DTO.RegisterUserDTO;
+import com.Gestion_Note.Note.Security.AuthRateLimiter;
+import com.Gestion_Note.Note.Security.ClientAddressResolver;
+import com.Gestion_Note.Note.Security.TooManyRequestsException;
 import com.Gestion_Note.Note.Services.AuthenticationService;
+import com.Gestion_Note.Note.Services.RefreshTokenService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -18,6 +24,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(AuthController.class)
+@Import(ClientAddressResolver.class)
 public class AuthControllerTest {
 
     @Autowired
@@ -26,6 +33,12 @@ public class AuthControllerTest {
     @MockBean
     private AuthenticationService authenticationService;
 
+    @MockBean
+    private RefreshTokenService refreshTokenService;
+
+    @MockBean
+    private AuthRateLimiter authRateLimiter;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -67,4 +80,68 @@ public class AuthControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.token").value("dummy.jwt.token"));
     }
+
+    @Test
+    void testRefresh_success() throws Exception {
+        RefreshTokenRequest refreshRequest = new RefreshTokenRequest();
+        refreshRequest.setRefreshToken("refresh-1");
+
+        Mockito.when(refreshTokenService.refresh("refresh-1"))
+                .thenReturn(new AuthResponseDTO("new.jwt.token", "refresh-2"));
+
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(refreshRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").value("new.jwt.token"))
+                .andExpect(jsonPath("$.refreshToken").value("refresh-2"));
+    }
+
+    @Test
+    void testRefresh_invalidToken_returns401() throws Exception {
+        RefreshTokenRequest refreshRequest = new RefreshTokenRequest();
+        refreshRequest.setRefreshToken("unknown");
+
+        Mockito.when(refreshTokenService.refresh("unknown"))
+                .thenThrow(new IllegalArgumentException("Invalid refresh token"));
+
+        mockMvc.perform(post("/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(refreshRequest)))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void testLogin_rateLimited_returns429() throws Exception {
+        AuthRequestDTO loginRequest = new AuthRequestDTO();
+        loginRequest.setEmail("user@example.com");
+        loginRequest.setPassword("password123");
+
+        Mockito.doThrow(new TooManyRequestsException("Too many attempts, please retry later", 30))
+                .when(authRateLimiter).checkLogin(Mockito.anyString(), Mockito.eq("user@example.com"));
+
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "30"));
+
+        Mockito.verify(authenticationService, Mockito.never()).authenticate(any(AuthRequestDTO.class));
+    }
+
+    @Test
+    void testLogin_hashingLaneFull_returns429() throws Exception {
+        AuthRequestDTO loginRequest = new AuthRequestDTO();
+        loginRequest.setEmail("user@example.com");
+        loginRequest.setPassword("password123");
+
+        Mockito.when(authenticationService.authenticate(any(AuthRequestDTO.class)))
+                .thenThrow(new TooManyRequestsException("Too many login attempts in progress, please retry", 2));
+
+        mockMvc.perform(post("/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"));
+    }
 }
@@ -0,0 +1,42 @@
+package com.Gestion_Note.Note.Security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthRateLimiterTest {
+
+    // Login: 3 attempts per address, 1 per email; register: 2 per address, 1 per email
+    private final AuthRateLimiter limiter = new AuthRateLimiter(true, 3, 1, 1, 1, 2, 1, 1, 1, 100, 600);
+
+    @Test
+    void checkLogin_addressAllowsMoreAttemptsThanEmail() {
+        limiter.checkLogin("10.0.0.1", "a@example.com");
+        limiter.checkLogin("10.0.0.1", "b@example.com");
+
+        assertThrows(TooManyRequestsException.class, () -> limiter.checkLogin("10.0.0.1", "A@example.com"));
+    }
+
+    @Test
+    void checkLogin_rejectedByEmail_doesNotUseAddressToken() {
+        limiter.checkLogin("10.0.0.1", "a@example.com");
+        for (int i = 0; i < 5; i++) {
+            assertThrows(TooManyRequestsException.class, () -> limiter.checkLogin("10.0.0.1", "a@example.com"));
+        }
+
+        // Only the first attempt went through, so the address still has two tokens
+        limiter.checkLogin("10.0.0.1", "b@example.com");
+        limiter.checkLogin("10.0.0.1", "c@example.com");
+        assertThrows(TooManyRequestsException.class, () -> limiter.checkLogin("10.0.0.1", "d@example.com"));
+        assertEquals(1L, limiter.stats().get("loginIpRejected"));
+        assertEquals(5L, limiter.stats().get("loginEmailRejected"));
+    }
+
+    @Test
+    void disabled_neverRejects() {
+        AuthRateLimiter disabled = new AuthRateLimiter(false, 1, 1, 1, 1, 1, 1, 1, 1, 100, 600);
+
+        disabled.checkRegister("10.0.0.1", "a@example.com");
+        disabled.checkRegister("10.0.0.1", "a@example.com");
+    }
+}
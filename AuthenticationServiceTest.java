@@ -6,12 +6,19 @@ import com.Gestion_Note.Note.DTO.RegisterUserDTO;
 import com.Gestion_Note.Note.Entities.*;
 import com.Gestion_Note.Note.Repository.*;
 import com.Gestion_Note.Note.Security.CustomUserDetails;
+import com.Gestion_Note.Note.Security.ParsedToken;
+import com.Gestion_Note.Note.Security.TokenRevocationStore;
+import com.Gestion_Note.Note.Security.TooManyRequestsException;
+import io.jsonwebtoken.Jwts;
+import com.Gestion_Note.Note.Security.PasswordHashingExecutor;
+import com.Gestion_Note.Note.Security.UserDetailsCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.Date;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -43,6 +50,21 @@ class AuthenticationServiceTest {
     @Mock
     private ParentRopository parentRopository;
 
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
+    @Mock
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private TokenRevocationStore tokenRevocationStore;
+
+    @Mock
+    private UserSearchIndex userSearchIndex;
+
     @InjectMocks
     private AuthenticationService authenticationService;
 
@@ -69,6 +91,8 @@ class AuthenticationServiceTest {
         assertNotNull(response);
         assertEquals("jwt-token", response.getToken());
         verify(studentRepository, times(1)).save(any(Student.class));
+        verify(userDetailsCache, times(1)).evict("student@example.com");
+        verify(userSearchIndex, times(1)).index(any(User.class));
     }
 
     @Test
@@ -116,13 +140,15 @@ class AuthenticationServiceTest {
         user.setPassword("encodedPass");
 
         when(userRepository.findByEmail(request.getEmail())).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches(request.getPassword(), user.getPassword())).thenReturn(true);
+        when(passwordHashingExecutor.matches(request.getPassword(), user.getPassword())).thenReturn(true);
         when(jwtService.generateToken(any(CustomUserDetails.class))).thenReturn("jwt-token");
+        when(refreshTokenService.issue(user)).thenReturn("refresh-token");
 
         AuthResponseDTO response = authenticationService.authenticate(request);
 
         assertNotNull(response);
         assertEquals("jwt-token", response.getToken());
+        assertEquals("refresh-token", response.getRefreshToken());
     }
 
     @Test
@@ -150,11 +176,69 @@ class AuthenticationServiceTest {
         user.setPassword("encodedPass");
 
         when(userRepository.findByEmail(request.getEmail())).thenReturn(Optional.of(user));
-        when(passwordEncoder.matches(request.getPassword(), user.getPassword())).thenReturn(false);
+        when(passwordHashingExecutor.matches(request.getPassword(), user.getPassword())).thenReturn(false);
 
         IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
                 () -> authenticationService.authenticate(request));
 
         assertEquals("Invalid password", exception.getMessage());
     }
+
+    @Test
+    void logout_revokesAccessAndRefreshTokens() {
+        Date expiry = new Date(System.currentTimeMillis() + 60000);
+        ParsedToken parsed = new ParsedToken(Jwts.claims().setId("jti-1").setExpiration(expiry));
+        when(jwtService.parseToken("access")).thenReturn(parsed);
+
+        authenticationService.logout("access", "refresh");
+
+        verify(tokenRevocationStore).revoke("jti-1", expiry);
+        verify(refreshTokenService).revoke("refresh");
+    }
+
+    @Test
+    void authenticate_weakerHash_isRehashed() {
+        AuthRequestDTO request = new AuthRequestDTO();
+        request.setEmail("user@example.com");
+        request.setPassword("rawPassword");
+
+        User user = new User();
+        user.setEmail(request.getEmail());
+        user.setPassword("oldHash");
+
+        when(userRepository.findByEmail(request.getEmail())).thenReturn(Optional.of(user));
+        when(passwordHashingExecutor.matches("rawPassword", "oldHash")).thenReturn(true);
+        when(passwordHashingExecutor.upgradeEncoding("oldHash")).thenReturn(true);
+        when(passwordHashingExecutor.encode("rawPassword")).thenReturn("newHash");
+        when(jwtService.generateToken(any(CustomUserDetails.class))).thenReturn("jwt-token");
+
+        authenticationService.authenticate(request);
+
+        assertEquals("newHash", user.getPassword());
+        verify(userRepository, times(1)).save(user);
+        verify(userDetailsCache, times(1)).evict("user@example.com");
+    }
+
+    @Test
+    void authenticate_rehashRejected_stillLogsIn() {
+        AuthRequestDTO request = new AuthRequestDTO();
+        request.setEmail("user@example.com");
+        request.setPassword("rawPassword");
+
+        User user = new User();
+        user.setEmail(request.getEmail());
+        user.setPassword("oldHash");
+
+        when(userRepository.findByEmail(request.getEmail())).thenReturn(Optional.of(user));
+        when(passwordHashingExecutor.matches("rawPassword", "oldHash")).thenReturn(true);
+        when(passwordHashingExecutor.upgradeEncoding("oldHash")).thenReturn(true);
+        when(passwordHashingExecutor.encode("rawPassword")).thenThrow(new TooManyRequestsException("busy", 1));
+        when(jwtService.generateToken(any(CustomUserDetails.class))).thenReturn("jwt-token");
+
+        AuthResponseDTO response = authenticationService.authenticate(request);
+
+        assertEquals("jwt-token", response.getToken());
+        assertEquals("oldHash", user.getPassword());
+        verify(userRepository, never()).save(any());
+    }
 }
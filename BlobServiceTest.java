@@ -0,0 +1,124 @@
+package com.Gestion_Note.Note.Services;
+
+import com.Gestion_Note.Note.DTO.BlobDescriptor;
+import com.Gestion_Note.Note.Entities.StoredBlob;
+import com.Gestion_Note.Note.Repository.StoredBlobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BlobServiceTest {
+
+    private static final String HASH = "a".repeat(64);
+    private static final String OTHER_HASH = "b".repeat(64);
+
+    @Mock
+    private BlobStore blobStore;
+
+    @Mock
+    private StoredBlobRepository storedBlobRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BlobService blobService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        blobService = new BlobService(blobStore, storedBlobRepository, transactionManager, 60);
+    }
+
+    private BlobStore.StagedBlob stageAs(BlobDescriptor committed) throws IOException {
+        BlobStore.StagedBlob staged = mock(BlobStore.StagedBlob.class);
+        when(blobStore.stage(any(InputStream.class), anyLong())).thenReturn(staged);
+        when(blobStore.commit(staged)).thenReturn(committed);
+        return staged;
+    }
+
+    @Test
+    void store_newContent_registersRowWithoutReference() throws IOException {
+        BlobStore.StagedBlob staged = stageAs(new BlobDescriptor(HASH, 10L, false));
+        when(storedBlobRepository.touch(eq(HASH), any(Date.class))).thenReturn(0);
+
+        BlobDescriptor blob = blobService.store(new ByteArrayInputStream(new byte[10]), 100L);
+
+        assertEquals(HASH, blob.getHash());
+        verify(storedBlobRepository).saveAndFlush(argThat((StoredBlob row) ->
+                row.getHash().equals(HASH) && row.getSize() == 10L && row.getRefCount() == 0));
+        verify(storedBlobRepository, never()).retain(any());
+        verify(staged).close();
+    }
+
+    @Test
+    void store_streamsBodyOutsideCollectionLock() throws IOException {
+        BlobStore.StagedBlob staged = mock(BlobStore.StagedBlob.class);
+        // A collection pass must be able to run while an upload is still being read
+        when(blobStore.stage(any(InputStream.class), anyLong())).thenAnswer(invocation -> {
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () -> blobService.collectGarbage());
+            return staged;
+        });
+        when(blobStore.commit(staged)).thenReturn(new BlobDescriptor(HASH, 10L, false));
+
+        blobService.store(new ByteArrayInputStream(new byte[10]), 100L);
+
+        verify(blobStore).commit(staged);
+    }
+
+    @Test
+    void store_knownContent_onlyTouchesRow() throws IOException {
+        stageAs(new BlobDescriptor(HASH, 10L, true));
+        when(storedBlobRepository.touch(eq(HASH), any(Date.class))).thenReturn(1);
+
+        blobService.store(new ByteArrayInputStream(new byte[10]), 100L);
+
+        verify(storedBlobRepository, never()).saveAndFlush(any());
+        assertEquals(1L, blobService.stats().get("deduplicated"));
+    }
+
+    @Test
+    void retain_unknownBlob_throws() {
+        when(storedBlobRepository.retain(HASH)).thenReturn(0);
+
+        assertThrows(IllegalStateException.class, () -> blobService.retain(HASH));
+    }
+
+    @Test
+    void release_ignoresMissingHash() {
+        blobService.release(null);
+
+        verifyNoInteractions(storedBlobRepository);
+    }
+
+    @Test
+    void collectGarbage_deletesFilesOnlyForRowsStillUnreferenced() throws IOException {
+        when(storedBlobRepository.findUnreferencedSince(any(Date.class), any(Pageable.class)))
+                .thenReturn(List.of(HASH, OTHER_HASH));
+        when(storedBlobRepository.deleteIfUnreferenced(eq(HASH), any(Date.class))).thenReturn(1);
+        // Referenced again between the listing and the delete
+        when(storedBlobRepository.deleteIfUnreferenced(eq(OTHER_HASH), any(Date.class))).thenReturn(0);
+
+        int removed = blobService.collectGarbage();
+
+        assertEquals(1, removed);
+        verify(blobStore).delete(HASH);
+        verify(blobStore, never()).delete(OTHER_HASH);
+        assertEquals(1L, blobService.stats().get("collected"));
+    }
+}
@@ -0,0 +1,36 @@
+package com.Gestion_Note.Note.Services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedTtlCacheTest {
+
+    @Test
+    void get_evictedWhileLoading_doesNotCacheStaleValue() {
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(10, 60);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a", key -> {
+            cache.evict("a");
+            return loads.incrementAndGet();
+        });
+
+        assertEquals(2, cache.get("a", key -> loads.incrementAndGet()));
+    }
+
+    @Test
+    void clear_dropsEveryEntry() {
+        BoundedTtlCache<String, Integer> cache = new BoundedTtlCache<>(10, 60);
+        cache.get("a", key -> 1);
+        cache.get("b", key -> 2);
+
+        cache.clear();
+
+        assertEquals(0L, cache.stats().get("size"));
+        assertEquals(2L, cache.stats().get("invalidations"));
+        assertEquals(3, cache.get("a", key -> 3));
+    }
+}
@@ -0,0 +1,160 @@
+package com.Gestion_Note.Note.Services;
+
+import com.Gestion_Note.Note.DTO.BulkRegistrationResult;
+import com.Gestion_Note.Note.DTO.RegisterUserDTO;
+import com.Gestion_Note.Note.DTO.UserSummary;
+import com.Gestion_Note.Note.Entities.Roles;
+import com.Gestion_Note.Note.Repository.UserRepository;
+import com.Gestion_Note.Note.Security.PasswordHashingExecutor;
+import com.Gestion_Note.Note.Security.UserDetailsCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.StringReader;
+import java.util.*;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BulkRegistrationServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
+    @Mock
+    private UserSearchIndex userSearchIndex;
+
+    private BulkRegistrationService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        service = new BulkRegistrationService(userRepository, passwordHashingExecutor, jdbcTemplate, namedJdbcTemplate,
+                transactionTemplate, userDetailsCache, userSearchIndex, 500);
+        when(passwordHashingExecutor.encodeAll(anyList())).thenAnswer(invocation ->
+                Collections.nCopies(invocation.<List<String>>getArgument(0).size(), "hashed"));
+        when(userRepository.findIdentities(anyCollection(), anyCollection())).thenReturn(List.of());
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private RegisterUserDTO row(String username, String email, Roles role) {
+        RegisterUserDTO dto = new RegisterUserDTO();
+        dto.setName(username);
+        dto.setUsername(username);
+        dto.setEmail(email);
+        dto.setPassword("secret");
+        dto.setRole(role);
+        return dto;
+    }
+
+    @Test
+    void register_validRows_areInsertedInBatches() {
+        BulkRegistrationResult result = service.register(List.of(
+                row("alice", "alice@example.com", Roles.STUDENT),
+                row("bob", "bob@example.com", Roles.TEACHER)
+        ));
+
+        assertEquals(2, result.getReceived());
+        assertEquals(2, result.getCreated());
+        assertTrue(result.getErrors().isEmpty());
+        verify(passwordHashingExecutor).encodeAll(List.of("secret", "secret"));
+        verify(transactionTemplate).executeWithoutResult(any());
+        verify(jdbcTemplate).batchUpdate(startsWith("insert into users"), anyList());
+        verify(jdbcTemplate).batchUpdate(startsWith("insert into students"), anyList());
+        verify(jdbcTemplate).batchUpdate(startsWith("insert into teachers"), anyList());
+        verify(userRepository, never()).save(any());
+        verify(userSearchIndex, times(2)).index(any(UserSummary.class));
+    }
+
+    @Test
+    void register_failedInsert_indexesNothing() {
+        when(jdbcTemplate.batchUpdate(startsWith("insert into students"), anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> service.register(List.of(
+                row("alice", "alice@example.com", Roles.STUDENT))));
+
+        verifyNoInteractions(userSearchIndex);
+    }
+
+    @Test
+    void register_duplicateAndInvalidRows_areReportedNotInserted() {
+        RegisterUserDTO missingRole = row("carol", "carol@example.com", null);
+
+        BulkRegistrationResult result = service.register(List.of(
+                row("alice", "alice@example.com", Roles.STUDENT),
+                row("alice2", "alice@example.com", Roles.STUDENT),
+                missingRole
+        ));
+
+        assertEquals(1, result.getCreated());
+        assertEquals(2, result.getErrors().size());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertEquals("Duplicate email in request", result.getErrors().get(0).getMessage());
+        assertEquals("Role is required", result.getErrors().get(1).getMessage());
+        verify(passwordHashingExecutor).encodeAll(List.of("secret"));
+    }
+
+    @Test
+    void register_existingAccounts_areRejectedWithOneQuery() {
+        UserRepository.UserIdentity existing = mock(UserRepository.UserIdentity.class);
+        when(existing.getEmail()).thenReturn("alice@example.com");
+        when(existing.getUsername()).thenReturn("alice");
+        when(userRepository.findIdentities(anyCollection(), anyCollection())).thenReturn(List.of(existing));
+
+        BulkRegistrationResult result = service.register(List.of(row("alice", "alice@example.com", Roles.ADMIN)));
+
+        assertEquals(0, result.getCreated());
+        assertEquals("Email already exists", result.getErrors().get(0).getMessage());
+        verify(userRepository, times(1)).findIdentities(anyCollection(), anyCollection());
+        verifyNoInteractions(jdbcTemplate, passwordHashingExecutor, transactionTemplate);
+    }
+
+    @Test
+    void parseCsv_readsHeaderAndQuotedFields() throws Exception {
+        String csv = "name,username,email,password,role\n"
+                + "\"Doe, Jane\",jane,jane@example.com,pw,student\n"
+                + "\n"
+                + "John,john,john@example.com,pw,unknown\n";
+
+        List<RegisterUserDTO> rows = service.parseCsv(new StringReader(csv));
+
+        assertEquals(2, rows.size());
+        assertEquals("Doe, Jane", rows.get(0).getName());
+        assertEquals(Roles.STUDENT, rows.get(0).getRole());
+        assertNull(rows.get(1).getRole());
+    }
+
+    @Test
+    void parseCsv_missingColumns_throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.parseCsv(new StringReader("name,email\nJane,jane@example.com\n")));
+    }
+}
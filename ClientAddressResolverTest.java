@@ -0,0 +1,44 @@
+package com.Gestion_Note.Note.Security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientAddressResolverTest {
+
+    private final ClientAddressResolver resolver = new ClientAddressResolver("10.0.0.1, 10.0.0.2");
+
+    private static MockHttpServletRequest request(String remoteAddr, String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(remoteAddr);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+
+    @Test
+    void untrustedPeer_headerIsIgnored() {
+        assertEquals("203.0.113.9", resolver.resolve(request("203.0.113.9", "198.51.100.1")));
+    }
+
+    @Test
+    void trustedProxy_rightMostUntrustedHopIsTheClient() {
+        // The left-most entry was sent by the client itself and cannot be believed
+        assertEquals("198.51.100.7",
+                resolver.resolve(request("10.0.0.1", "1.2.3.4, 198.51.100.7, 10.0.0.2")));
+    }
+
+    @Test
+    void trustedProxyWithoutHeader_usesPeer() {
+        assertEquals("10.0.0.1", resolver.resolve(request("10.0.0.1", null)));
+    }
+
+    @Test
+    void noTrustedProxiesConfigured_alwaysUsesPeer() {
+        ClientAddressResolver direct = new ClientAddressResolver("");
+
+        assertEquals("10.0.0.1", direct.resolve(request("10.0.0.1", "1.2.3.4")));
+    }
+}
@@ -0,0 +1,140 @@
+package com.Gestion_Note.Note.Services;
+
+import com.Gestion_Note.Note.DTO.AssignmentSummary;
+import com.Gestion_Note.Note.DTO.GroupSummary;
+import com.Gestion_Note.Note.DTO.UserSummary;
+import com.Gestion_Note.Note.Entities.Roles;
+import com.Gestion_Note.Note.Entities.Status;
+import com.Gestion_Note.Note.Entities.User;
+import com.Gestion_Note.Note.Repository.AssignmentRepository;
+import com.Gestion_Note.Note.Repository.GroupRepository;
+import com.Gestion_Note.Note.Repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ExportServiceTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private GroupRepository groupRepository;
+
+    @Mock
+    private AssignmentRepository assignmentRepository;
+
+    private ExportService exportService;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        exportService = new ExportService(userRepository, groupRepository, assignmentRepository, new ObjectMapper());
+        signIn("admin@example.com", "ROLE_ADMIN");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private static void signIn(String email, String role) {
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(email, null, role));
+    }
+
+    @Test
+    void exportUsers_ndjson_writesOneObjectPerLine() throws Exception {
+        when(userRepository.streamSummaries()).thenReturn(Stream.of(
+                new UserSummary(1L, "Alice", "alice", "alice@example.com", Roles.STUDENT),
+                new UserSummary(2L, "Bob", "bob", "bob@example.com", Roles.TEACHER)
+        ));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportUsers(ExportService.Format.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"user_id\":1,"));
+        assertTrue(lines[1].contains("\"role\":\"TEACHER\""));
+        assertFalse(lines[0].contains("password"));
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    void exportGroups_csv_writesHeaderAndEscapedRows() throws Exception {
+        when(groupRepository.streamSummaries()).thenReturn(Stream.of(new GroupSummary(3L, "Group \"A\", 1", 2, 30)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportGroups(ExportService.Format.CSV, out);
+
+        assertEquals("groupId,groupName,teacherCount,studentCount\r\n3,\"Group \"\"A\"\", 1\",2,30\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void exportAssignments_emptyNdjson_writesNothing() throws Exception {
+        when(assignmentRepository.streamSummaries()).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportAssignments(ExportService.Format.NDJSON, out);
+
+        assertEquals(0, out.size());
+    }
+
+    @Test
+    void exportAssignments_csv_formatsDatesAsInstants() throws Exception {
+        when(assignmentRepository.streamSummaries()).thenReturn(Stream.of(new AssignmentSummary(
+                5L, "TP1", null, Status.TO_DO, "prof", null, "tp1.pdf", "application/pdf",
+                null, null, new Date(0), null, null)));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        exportService.exportAssignments(ExportService.Format.CSV, out);
+
+        String row = out.toString(StandardCharsets.UTF_8).split("\r\n")[1];
+        assertEquals("5,TP1,,TO_DO,prof,,tp1.pdf,application/pdf,,,1970-01-01T00:00:00Z,,", row);
+    }
+
+    @Test
+    void exportAssignments_teacher_onlyGetsOwnAssignments() throws Exception {
+        signIn("prof@example.com", "ROLE_TEACHER");
+        User teacher = new User();
+        teacher.setUsername("prof");
+        when(userRepository.findByEmail("prof@example.com")).thenReturn(Optional.of(teacher));
+        when(assignmentRepository.streamSummariesByTeacher("prof")).thenReturn(Stream.empty());
+
+        exportService.exportAssignments(ExportService.Format.NDJSON, new ByteArrayOutputStream());
+
+        verify(assignmentRepository).streamSummariesByTeacher("prof");
+        verify(assignmentRepository, never()).streamSummaries();
+    }
+
+    @Test
+    void exportAssignments_unknownCaller_isDenied() {
+        signIn("ghost@example.com", "ROLE_TEACHER");
+        when(userRepository.findByEmail("ghost@example.com")).thenReturn(Optional.empty());
+
+        assertThrows(AccessDeniedException.class,
+                () -> exportService.exportAssignments(ExportService.Format.NDJSON, new ByteArrayOutputStream()));
+        verifyNoInteractions(assignmentRepository);
+    }
+
+    @Test
+    void parseFormat_rejectsUnknownValues() {
+        assertEquals(ExportService.Format.CSV, ExportService.Format.parse("CSV"));
+        assertThrows(IllegalArgumentException.class, () -> ExportService.Format.parse("xml"));
+    }
+}
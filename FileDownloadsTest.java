@@ -0,0 +1,118 @@
+package com.Gestion_Note.Note.Controllers;
+
+import com.Gestion_Note.Note.DTO.AssignmentFile;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileDownloadsTest {
+
+    private static final String HASH = "d".repeat(64);
+    private static final String ETAG = "\"" + HASH + "\"";
+    private static final byte[] CONTENT = "0123456789".getBytes(StandardCharsets.UTF_8);
+
+    private final AssignmentFile file = new AssignmentFile("énoncé.pdf", "application/pdf", HASH, (long) CONTENT.length);
+
+    @Test
+    void noRange_sendsWholeFileWithValidators() throws IOException {
+        ResponseEntity<?> response = respond(new HttpHeaders());
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertTrue(response.getBody() instanceof ByteArrayResource);
+        assertEquals(ETAG, response.getHeaders().getETag());
+        assertEquals("bytes", response.getHeaders().getFirst(HttpHeaders.ACCEPT_RANGES));
+        assertEquals(CONTENT.length, response.getHeaders().getContentLength());
+        assertEquals("énoncé.pdf", response.getHeaders().getContentDisposition().getFilename());
+    }
+
+    @Test
+    void singleRange_sendsOneRegion() throws IOException {
+        HttpHeaders request = new HttpHeaders();
+        request.set(HttpHeaders.RANGE, "bytes=2-5");
+
+        ResponseEntity<?> response = respond(request);
+
+        assertEquals(206, response.getStatusCodeValue());
+        ResourceRegion region = (ResourceRegion) response.getBody();
+        assertEquals(2, region.getPosition());
+        assertEquals(4, region.getCount());
+    }
+
+    @Test
+    void multipleRanges_sendRegionList() throws IOException {
+        HttpHeaders request = new HttpHeaders();
+        request.set(HttpHeaders.RANGE, "bytes=0-1,-2");
+
+        ResponseEntity<?> response = respond(request);
+
+        assertEquals(206, response.getStatusCodeValue());
+        assertEquals(2, ((List<?>) response.getBody()).size());
+    }
+
+    @Test
+    void ifRangeWithCurrentTag_honoursRange() throws IOException {
+        HttpHeaders request = new HttpHeaders();
+        request.set(HttpHeaders.RANGE, "bytes=5-");
+        request.set(HttpHeaders.IF_RANGE, ETAG);
+
+        assertEquals(206, respond(request).getStatusCodeValue());
+    }
+
+    @Test
+    void ifRangeWithOtherTag_sendsWholeFileAsStream() throws IOException {
+        HttpHeaders request = new HttpHeaders();
+        request.set(HttpHeaders.RANGE, "bytes=5-");
+        request.set(HttpHeaders.IF_RANGE, "\"" + "e".repeat(64) + "\"");
+
+        ResponseEntity<?> response = respond(request);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertTrue(response.getBody() instanceof InputStreamResource);
+        assertEquals(CONTENT.length, response.getHeaders().getContentLength());
+    }
+
+    @Test
+    void malformedRange_isIgnored() throws IOException {
+        HttpHeaders request = new HttpHeaders();
+        request.set(HttpHeaders.RANGE, "lines=1-2");
+
+        assertEquals(200, respond(request).getStatusCodeValue());
+    }
+
+    @Test
+    void rangePastTheEnd_isNotSatisfiable() throws IOException {
+        HttpHeaders request = new HttpHeaders();
+        request.set(HttpHeaders.RANGE, "bytes=50-60");
+
+        ResponseEntity<?> response = respond(request);
+
+        assertEquals(416, response.getStatusCodeValue());
+        assertEquals("bytes */" + CONTENT.length, response.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void ifNoneMatchCurrentTag_isNotModified() throws IOException {
+        HttpHeaders request = new HttpHeaders();
+        request.set(HttpHeaders.IF_NONE_MATCH, ETAG);
+
+        ResponseEntity<?> response = respond(request);
+
+        assertEquals(304, response.getStatusCodeValue());
+        assertNull(response.getBody());
+    }
+
+    private ResponseEntity<?> respond(HttpHeaders request) throws IOException {
+        Resource content = new ByteArrayResource(CONTENT);
+        return FileDownloads.respond(file, content, "fallback", request);
+    }
+}
@@ -0,0 +1,135 @@
+package com.Gestion_Note.Note.Services;
+
+import com.Gestion_Note.Note.DTO.BlobDescriptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSystemBlobStoreTest {
+
+    // sha256("hello")
+    private static final String HELLO_HASH = "2cf24dba5fb0a30e26e83b2ac5b9e29e1b161e5c1fa7425e73043362938b9824";
+
+    @TempDir
+    Path root;
+
+    private FileSystemBlobStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new FileSystemBlobStore(root.toString());
+        store.init();
+    }
+
+    @Test
+    void put_keysContentBySha256InShardedDirectories() throws IOException {
+        BlobDescriptor blob = store.put(stream("hello"));
+
+        assertEquals(HELLO_HASH, blob.getHash());
+        assertEquals(5, blob.getSize());
+        assertFalse(blob.isDeduplicated());
+        assertTrue(Files.isRegularFile(root.resolve("2c").resolve("f2").resolve(HELLO_HASH)));
+    }
+
+    @Test
+    void put_identicalContentIsStoredOnce() throws IOException {
+        store.put(stream("hello"));
+        BlobDescriptor second = store.put(stream("hello"));
+
+        assertTrue(second.isDeduplicated());
+        assertEquals(HELLO_HASH, second.getHash());
+        try (Stream<Path> leftovers = Files.list(root.resolve("incoming"))) {
+            assertEquals(0, leftovers.count());
+        }
+    }
+
+    @Test
+    void put_overLimit_rejectsAndKeepsNothing() throws IOException {
+        UploadTooLargeException e = assertThrows(UploadTooLargeException.class, () -> store.put(stream("hello"), 4));
+
+        assertEquals(4, e.getMaxBytes());
+        assertFalse(store.exists(HELLO_HASH));
+        try (Stream<Path> leftovers = Files.list(root.resolve("incoming"))) {
+            assertEquals(0, leftovers.count());
+        }
+    }
+
+    @Test
+    void put_largerThanBuffer_hashesWholeContent() throws IOException {
+        byte[] content = new byte[200 * 1024 + 7];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+
+        BlobDescriptor blob = store.put(new ByteArrayInputStream(content), content.length);
+
+        assertEquals(content.length, blob.getSize());
+        assertArrayEquals(content, store.get(blob.getHash()).getContentAsByteArray());
+    }
+
+    @Test
+    void stage_isNotVisibleUntilCommitted() throws IOException {
+        try (BlobStore.StagedBlob staged = store.stage(stream("hello"), 5)) {
+            assertEquals(HELLO_HASH, staged.getHash());
+            assertFalse(store.exists(HELLO_HASH));
+
+            store.commit(staged);
+        }
+
+        assertTrue(store.exists(HELLO_HASH));
+    }
+
+    @Test
+    void stage_closedWithoutCommit_leavesNothing() throws IOException {
+        store.stage(stream("hello"), 5).close();
+
+        assertFalse(store.exists(HELLO_HASH));
+        try (Stream<Path> leftovers = Files.list(root.resolve("incoming"))) {
+            assertEquals(0, leftovers.count());
+        }
+    }
+
+    @Test
+    void get_returnsStoredContent() throws IOException {
+        store.put(stream("hello"));
+
+        Resource resource = store.get(HELLO_HASH);
+
+        assertArrayEquals("hello".getBytes(StandardCharsets.UTF_8), resource.getContentAsByteArray());
+    }
+
+    @Test
+    void get_missingBlob_throws() {
+        assertThrows(NoSuchFileException.class, () -> store.get(HELLO_HASH));
+    }
+
+    @Test
+    void delete_removesFile() throws IOException {
+        store.put(stream("hello"));
+
+        assertTrue(store.delete(HELLO_HASH));
+        assertFalse(store.exists(HELLO_HASH));
+        assertFalse(store.delete(HELLO_HASH));
+    }
+
+    @Test
+    void malformedHash_isRejected() {
+        assertThrows(IllegalArgumentException.class, () -> store.get("../../etc/passwd"));
+        assertThrows(IllegalArgumentException.class, () -> store.exists(HELLO_HASH.toUpperCase()));
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
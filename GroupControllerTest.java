@@ -1,9 +1,18 @@
 package com.Gestion_Note.Note.Controllers;
 
 import com.Gestion_Note.Note.DTO.AddStudentsRequest;
+import com.Gestion_Note.Note.DTO.CursorPage;
 import com.Gestion_Note.Note.DTO.GroupCreationRequest;
+import com.Gestion_Note.Note.DTO.GroupImportResult;
+import com.Gestion_Note.Note.DTO.GroupMembersPatch;
+import com.Gestion_Note.Note.DTO.GroupSummary;
 import com.Gestion_Note.Note.DTO.UpdateGroupRequest;
+import com.Gestion_Note.Note.DTO.UserSummary;
 import com.Gestion_Note.Note.Entities.Group;
+import com.Gestion_Note.Note.Entities.Roles;
+import com.Gestion_Note.Note.Security.CustomUserDetails;
+import jakarta.persistence.EntityNotFoundException;
+import com.Gestion_Note.Note.Services.GroupRosterImportService;
 import com.Gestion_Note.Note.Services.GroupService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -12,12 +21,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -30,6 +43,9 @@ public class GroupControllerTest {
     @MockBean
     private GroupService groupService;
 
+    @MockBean
+    private GroupRosterImportService groupRosterImportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -46,6 +62,80 @@ public class GroupControllerTest {
         verify(groupService).createGroup(request);
     }
 
+    private static final CustomUserDetails TEACHER = new CustomUserDetails(5L, "teacher@example.com", Roles.TEACHER, 0);
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void testGetGroupSummaries_success() throws Exception {
+        when(groupService.getGroupSummaries()).thenReturn(List.of(new GroupSummary(1L, "G1", 2, 25)));
+
+        mockMvc.perform(get("/group/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].groupName").value("G1"))
+                .andExpect(jsonPath("$[0].teacherCount").value(2))
+                .andExpect(jsonPath("$[0].studentCount").value(25));
+    }
+
+    @Test
+    void testGetGroupSummaries_teacherSeesOwnGroups() throws Exception {
+        when(groupService.getGroupSummariesOf(5L)).thenReturn(List.of(new GroupSummary(3L, "G3", 1, 20)));
+
+        mockMvc.perform(get("/group/summary").with(user(TEACHER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].groupId").value(3));
+
+        verify(groupService, never()).getGroupSummaries();
+    }
+
+    @Test
+    void testGetMembers_returnsPage() throws Exception {
+        CursorPage<UserSummary> page = new CursorPage<>(
+                List.of(new UserSummary(7L, "Alice", "alice", "alice@example.com", Roles.STUDENT)), 7L, 1);
+        when(groupService.isSupervisedBy(1L, 5L)).thenReturn(true);
+        when(groupService.getMembers(1L, Roles.STUDENT, null, 1)).thenReturn(page);
+
+        mockMvc.perform(get("/group/1/members").param("role", "STUDENT").param("size", "1").with(user(TEACHER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].username").value("alice"))
+                .andExpect(jsonPath("$.nextCursor").value(7));
+    }
+
+    @Test
+    void testGetMembers_otherTeachersGroup_isForbidden() throws Exception {
+        when(groupService.isSupervisedBy(2L, 5L)).thenReturn(false);
+
+        mockMvc.perform(get("/group/2/members").with(user(TEACHER)))
+                .andExpect(status().isForbidden());
+
+        verify(groupService, never()).getMembers(any(), any(), any(), any());
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void testGetMembers_groupNotFound() throws Exception {
+        when(groupService.getMembers(eq(9L), any(), any(), any())).thenThrow(new EntityNotFoundException("Group not found"));
+
+        mockMvc.perform(get("/group/9/members"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void testImportRoster_returnsReport() throws Exception {
+        GroupImportResult result = new GroupImportResult();
+        result.setLines(2);
+        result.setImported(1);
+        result.addError(3, "ghost", "User not found");
+        when(groupRosterImportService.importRoster(any())).thenReturn(result);
+        MockMultipartFile file = new MockMultipartFile("file", "roster.csv", "text/csv",
+                "groupName,username\nG1,alice\nG1,ghost\n".getBytes());
+
+        mockMvc.perform(multipart("/group/import").file(file))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.errors[0].line").value(3));
+    }
+
     @Test
     void testGetAllGroups_success() throws Exception {
         Group group = new Group();
@@ -92,6 +182,17 @@ public class GroupControllerTest {
         verify(groupService).updateGroup(1L, "Updated Group", Collections.emptyList(), Collections.emptyList());
     }
 
+    @Test
+    void testUpdateMembers_success() throws Exception {
+        mockMvc.perform(patch("/group/1/members")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"addStudents\":[\"student1\"],\"removeStudents\":[\"student2\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("Group members updated"));
+
+        verify(groupService).updateMembers(eq(1L), any(GroupMembersPatch.class));
+    }
+
     @Test
     void testAddStudentsToGroup_success() throws Exception {
         AddStudentsRequest addRequest = new AddStudentsRequest(1L, Collections.singletonList("student1"));
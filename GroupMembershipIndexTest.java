@@ -0,0 +1,127 @@
+package com.Gestion_Note.Note.Services;
+
+import com.Gestion_Note.Note.Repository.GroupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GroupMembershipIndexTest {
+
+    @Mock
+    private GroupRepository groupRepository;
+
+    private GroupMembershipIndex index;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(groupRepository.findStudentMemberships()).thenReturn(List.of(
+                membership(1L, 10L), membership(1L, 11L), membership(2L, 12L)));
+        when(groupRepository.findTeacherMemberships()).thenReturn(List.of(
+                membership(1L, 20L), membership(2L, 20L), membership(2L, 21L)));
+        index = new GroupMembershipIndex(groupRepository);
+        index.load();
+    }
+
+    private GroupRepository.Membership membership(Long groupId, Long userId) {
+        GroupRepository.Membership membership = mock(GroupRepository.Membership.class);
+        when(membership.getGroupId()).thenReturn(groupId);
+        when(membership.getUserId()).thenReturn(userId);
+        return membership;
+    }
+
+    @Test
+    void load_buildsMembershipAndReverseMaps() {
+        assertTrue(index.isStudentIn(1L, 10L));
+        assertFalse(index.isStudentIn(2L, 10L));
+        assertTrue(index.isTeacherOf(2L, 21L));
+        assertFalse(index.isTeacherOf(1L, 21L));
+        assertEquals(Optional.of(2L), index.groupOf(12L));
+        assertArrayEquals(new long[]{1L, 2L}, index.groupsOf(20L));
+    }
+
+    @Test
+    void unionAndIntersection_acrossGroups() {
+        assertArrayEquals(new long[]{10L, 11L, 12L}, index.studentsOf(List.of(1L, 2L)));
+        assertArrayEquals(new long[]{20L}, index.teachersSharedBy(List.of(1L, 2L)));
+        assertArrayEquals(new long[]{20L, 21L}, index.teachersOf(List.of(1L, 2L, 99L)));
+        assertArrayEquals(new long[0], index.teachersSharedBy(List.of(1L, 99L)));
+    }
+
+    @Test
+    void addStudents_movesStudentOutOfPreviousGroup() {
+        index.addStudents(2L, List.of(10L));
+
+        assertFalse(index.isStudentIn(1L, 10L));
+        assertTrue(index.isStudentIn(2L, 10L));
+        assertArrayEquals(new long[]{11L}, index.studentsOf(List.of(1L)));
+    }
+
+    @Test
+    void removeStudents_ignoresStudentsOfOtherGroups() {
+        index.removeStudents(1L, List.of(10L, 12L));
+
+        assertEquals(Optional.empty(), index.groupOf(10L));
+        assertTrue(index.isStudentIn(2L, 12L));
+    }
+
+    @Test
+    void removeGroupAndUser_clearReverseMaps() {
+        index.removeGroup(2L);
+        index.removeUser(20L);
+
+        assertEquals(Optional.empty(), index.groupOf(12L));
+        assertArrayEquals(new long[0], index.groupsOf(20L));
+        assertArrayEquals(new long[0], index.groupsOf(21L));
+        assertFalse(index.isTeacherOf(1L, 20L));
+    }
+
+    @Test
+    void changesInsideTransaction_applyOnlyOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.addTeachers(1L, List.of(21L));
+            index.removeStudents(1L, List.of(10L));
+
+            assertFalse(index.isTeacherOf(1L, 21L));
+            assertTrue(index.isStudentIn(1L, 10L));
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+
+            assertTrue(index.isTeacherOf(1L, 21L));
+            assertFalse(index.isStudentIn(1L, 10L));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void changesOfRolledBackTransaction_areDropped() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.removeGroup(1L);
+
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(index.isStudentIn(1L, 10L));
+        assertArrayEquals(new long[]{1L, 2L}, index.groupsOf(20L));
+    }
+
+    @Test
+    void studentsSupervisedBy_requiresTeacherOfGroup() {
+        assertArrayEquals(new long[]{10L, 11L}, index.studentsSupervisedBy(20L, 1L));
+        assertArrayEquals(new long[0], index.studentsSupervisedBy(21L, 1L));
+    }
+}
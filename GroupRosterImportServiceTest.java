@@ -0,0 +1,162 @@
+package com.Gestion_Note.Note.Services;
+
+import com.Gestion_Note.Note.DTO.GroupCreationRequest;
+import com.Gestion_Note.Note.DTO.GroupImportResult;
+import com.Gestion_Note.Note.DTO.GroupMembersPatch;
+import com.Gestion_Note.Note.Entities.*;
+import com.Gestion_Note.Note.Repository.GroupRepository;
+import com.Gestion_Note.Note.Repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GroupRosterImportServiceTest {
+
+    @Mock
+    private GroupService groupService;
+
+    @Mock
+    private GroupRepository groupRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private GroupRosterImportService service;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        GroupWriteRetry groupWriteRetry = new GroupWriteRetry(transactionManager, 3, 0);
+        service = new GroupRosterImportService(groupService, groupRepository, userRepository, groupWriteRetry, 2);
+    }
+
+    private <T extends User> T user(T user, Long id, String username, Roles role) {
+        user.setUser_id(id);
+        user.setUsername(username);
+        user.setRole(role);
+        return user;
+    }
+
+    private Group group(Long id, String name) {
+        Group group = new Group();
+        group.setGroupId(id);
+        group.setGroupName(name);
+        return group;
+    }
+
+    @Test
+    void importRoster_commitsInChunksAndReportsBadLines() throws Exception {
+        when(userRepository.findByUsernameIn(anyCollection())).thenReturn(List.of(
+                user(new Student(), 1L, "alice", Roles.STUDENT),
+                user(new Teacher(), 2L, "prof", Roles.TEACHER),
+                user(new Student(), 3L, "bob", Roles.STUDENT)));
+        when(groupRepository.findByGroupNameIn(anyCollection())).thenReturn(List.of(group(10L, "G1")));
+        when(groupService.createGroup(any(GroupCreationRequest.class))).thenReturn(group(11L, "G2"));
+
+        String csv = "groupName,username,role\n"
+                + "G1,alice,student\n"
+                + "G1,prof,\n"
+                + ",nobody,student\n"
+                + "G2,bob,STUDENT\n"
+                + "G2,ghost,student\n";
+
+        GroupImportResult result = service.importRoster(new StringReader(csv));
+
+        assertEquals(5, result.getLines());
+        assertEquals(3, result.getImported());
+        assertEquals(1, result.getGroupsCreated());
+        assertEquals(2, result.getChunks());
+        assertEquals(2, result.getErrors().size());
+        assertEquals(4, result.getErrors().get(0).getLine());
+        assertEquals("User not found", result.getErrors().get(1).getMessage());
+        verify(transactionManager, times(2)).commit(any());
+
+        ArgumentCaptor<GroupMembersPatch> patch = ArgumentCaptor.forClass(GroupMembersPatch.class);
+        verify(groupService).updateMembers(eq(10L), patch.capture());
+        assertEquals(List.of("prof"), patch.getValue().getAddTeachers());
+        assertEquals(List.of("alice"), patch.getValue().getAddStudents());
+        verify(groupService).updateMembers(eq(11L), any(GroupMembersPatch.class));
+    }
+
+    @Test
+    void importRoster_failedChunk_isRolledBackAndReported() throws Exception {
+        when(userRepository.findByUsernameIn(anyCollection())).thenReturn(List.of(
+                user(new Student(), 1L, "alice", Roles.STUDENT)));
+        when(groupRepository.findByGroupNameIn(anyCollection())).thenReturn(List.of(group(10L, "G1")));
+        doThrow(new IllegalArgumentException("boom")).when(groupService).updateMembers(eq(10L), any());
+
+        GroupImportResult result = service.importRoster(new StringReader("username,groupName\nalice,G1\n"));
+
+        assertEquals(0, result.getImported());
+        assertEquals(0, result.getChunks());
+        assertTrue(result.getErrors().get(0).getMessage().endsWith("boom"));
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void importRoster_conflictingChunk_isReplayed() throws Exception {
+        when(userRepository.findByUsernameIn(anyCollection())).thenReturn(List.of(
+                user(new Student(), 1L, "alice", Roles.STUDENT)));
+        when(groupRepository.findByGroupNameIn(anyCollection())).thenReturn(List.of(group(10L, "G1")));
+        doThrow(new ObjectOptimisticLockingFailureException(Group.class, 10L))
+                .doNothing()
+                .when(groupService).updateMembers(eq(10L), any());
+
+        GroupImportResult result = service.importRoster(new StringReader("groupName,username\nG1,alice\n"));
+
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getChunks());
+        assertTrue(result.getErrors().isEmpty());
+        verify(groupService, times(2)).updateMembers(eq(10L), any());
+    }
+
+    @Test
+    void importRoster_studentListedTwice_firstLineWins() throws Exception {
+        when(userRepository.findByUsernameIn(anyCollection())).thenReturn(List.of(
+                user(new Student(), 1L, "alice", Roles.STUDENT)));
+        when(groupRepository.findByGroupNameIn(anyCollection())).thenReturn(List.of(group(10L, "G1"), group(11L, "G2")));
+
+        // Lines 2 and 4 land in different chunks
+        GroupImportResult result = service.importRoster(new StringReader(
+                "groupName,username\nG2,alice\nG1,alice\nG2,alice\n"));
+
+        assertEquals(1, result.getImported());
+        assertEquals(2, result.getErrors().size());
+        assertEquals("Already placed in G2 by line 2", result.getErrors().get(0).getMessage());
+        assertEquals("Duplicate of line 2", result.getErrors().get(1).getMessage());
+        verify(groupService).updateMembers(eq(11L), any(GroupMembersPatch.class));
+        verify(groupService, never()).updateMembers(eq(10L), any());
+    }
+
+    @Test
+    void importRoster_wrongRole_isReportedPerLine() throws Exception {
+        when(userRepository.findByUsernameIn(anyCollection())).thenReturn(List.of(
+                user(new Student(), 1L, "alice", Roles.STUDENT)));
+
+        GroupImportResult result = service.importRoster(new StringReader("groupName,username,role\nG1,alice,teacher\nG1,alice,admin\n"));
+
+        // Lines with an unusable role are rejected while reading, before their chunk is applied
+        assertEquals("Role must be TEACHER or STUDENT", result.getErrors().get(0).getMessage());
+        assertEquals("alice is not a teacher", result.getErrors().get(1).getMessage());
+        verify(groupService, never()).updateMembers(any(), any());
+    }
+
+    @Test
+    void importRoster_missingColumns_throws() {
+        assertThrows(IllegalArgumentException.class,
+                () -> service.importRoster(new StringReader("name,email\nG1,x\n")));
+    }
+}
@@ -1,6 +1,10 @@
 package com.Gestion_Note.Note.Services;
 
+import com.Gestion_Note.Note.DTO.CursorPage;
 import com.Gestion_Note.Note.DTO.GroupCreationRequest;
+import com.Gestion_Note.Note.DTO.GroupMembersPatch;
+import com.Gestion_Note.Note.DTO.GroupSummary;
+import com.Gestion_Note.Note.DTO.UserSummary;
 import com.Gestion_Note.Note.Entities.*;
 import com.Gestion_Note.Note.Repository.GroupRepository;
 import com.Gestion_Note.Note.Repository.StudentRepository;
@@ -10,7 +14,9 @@ import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.data.domain.Pageable;
 import java.util.*;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -29,12 +35,19 @@ class GroupServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private GroupMembershipIndex membershipIndex;
+
+    @Mock
+    private GroupWriteRetry groupWriteRetry;
+
     @InjectMocks
     private GroupService groupService;
 
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
+        when(groupWriteRetry.execute(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
     }
 
     @Test
@@ -49,23 +62,48 @@ class GroupServiceTest {
         teacher.setRole(Roles.TEACHER);
 
         Student student = new Student();
+        student.setUser_id(7L);
         student.setUsername("student1");
         student.setRole(Roles.STUDENT);
 
-        when(userRepository.findByUsername("teacher1")).thenReturn(Optional.of(teacher));
-        when(userRepository.findByUsername("student1")).thenReturn(Optional.of(student));
-        when(groupRepository.save(any(Group.class))).thenAnswer(invocation -> invocation.getArgument(0));
-        when(studentRepository.saveAll(anyList())).thenReturn(List.of(student));
+        when(userRepository.findByUsernameIn(anyCollection())).thenReturn(List.of(teacher, student));
+        when(groupRepository.save(any(Group.class))).thenAnswer(invocation -> {
+            Group saved = invocation.getArgument(0);
+            saved.setGroupId(3L);
+            return saved;
+        });
 
         Group result = groupService.createGroup(request);
 
         assertEquals("Groupe A", result.getGroupName());
         assertTrue(result.getResponsibleTeachers().contains(teacher));
         assertTrue(result.getStudents().contains(student));
-        assertEquals(result, student.getGroup());
+        assertEquals(Set.of("student1"), result.getStudentUsernames());
+
+        verify(userRepository, times(1)).findByUsernameIn(Set.of("teacher1", "student1"));
+        verify(userRepository, never()).findByUsername(anyString());
+        verify(groupRepository, times(1)).save(any(Group.class));
+        verify(studentRepository).assignGroup(3L, List.of(7L));
+        verify(studentRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void createGroup_reportsEveryUnresolvedUsernameAtOnce() {
+        GroupCreationRequest request = new GroupCreationRequest();
+        request.setGroupName("Group D");
+        request.setTeacherUsernames(List.of("ghost1"));
+        request.setStudentUsernames(List.of("ghost2", "teacher1"));
+
+        Teacher teacher = new Teacher();
+        teacher.setUsername("teacher1");
+        teacher.setRole(Roles.TEACHER);
 
-        verify(groupRepository, times(2)).save(any(Group.class));
-        verify(studentRepository).saveAll(anyList());
+        when(userRepository.findByUsernameIn(anyCollection())).thenReturn(List.of(teacher));
+
+        EntityNotFoundException ex = assertThrows(EntityNotFoundException.class, () -> groupService.createGroup(request));
+
+        assertEquals("Teacher not found: ghost1; Student not found: ghost2; teacher1 is not a student", ex.getMessage());
+        verify(groupRepository, never()).save(any(Group.class));
     }
 
     @Test
@@ -75,7 +113,7 @@ class GroupServiceTest {
         request.setTeacherUsernames(List.of("unknownTeacher"));
         request.setStudentUsernames(List.of());
 
-        when(userRepository.findByUsername("unknownTeacher")).thenReturn(Optional.empty());
+        when(userRepository.findByUsernameIn(anyCollection())).thenReturn(List.of());
 
         EntityNotFoundException ex = assertThrows(EntityNotFoundException.class, () -> {
             groupService.createGroup(request);
@@ -95,7 +133,7 @@ class GroupServiceTest {
         user.setUsername("notATeacher");
         user.setRole(Roles.STUDENT); // Wrong role
 
-        when(userRepository.findByUsername("notATeacher")).thenReturn(Optional.of(user));
+        when(userRepository.findByUsernameIn(anyCollection())).thenReturn(List.of(user));
 
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {
             groupService.createGroup(request);
@@ -109,8 +147,8 @@ class GroupServiceTest {
         Long groupId = 1L;
         Group group = new Group();
         group.setGroupName("Old Group");
-        group.setStudents(new ArrayList<>());
-        group.setResponsibleTeachers(new ArrayList<>());
+        group.setStudents(new HashSet<>());
+        group.setResponsibleTeachers(new HashSet<>());
 
         when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
 
@@ -119,22 +157,135 @@ class GroupServiceTest {
         teacher.setRole(Roles.TEACHER);
 
         Student student = new Student();
+        student.setUser_id(7L);
         student.setUsername("student1");
         student.setRole(Roles.STUDENT);
 
-        when(userRepository.findByUsername("teacher1")).thenReturn(Optional.of(teacher));
-        when(userRepository.findByUsername("student1")).thenReturn(Optional.of(student));
+        when(userRepository.findByUsernameIn(anyCollection())).thenReturn(List.of(teacher, student));
 
         groupService.updateGroup(groupId, "New Group", List.of("teacher1"), List.of("student1"));
 
         assertEquals("New Group", group.getGroupName());
         assertTrue(group.getResponsibleTeachers().contains(teacher));
         assertTrue(group.getStudents().contains(student));
-        assertEquals(group, student.getGroup());
 
+        verify(userRepository, times(1)).findByUsernameIn(anyCollection());
+        verify(studentRepository).assignGroup(group.getGroupId(), List.of(7L));
         verify(groupRepository).save(group);
     }
 
+    @Test
+    void getMembers_readsOneExtraRowForTheCursor() {
+        List<UserSummary> rows = List.of(
+                new UserSummary(3L, "A", "a", "a@example.com", Roles.STUDENT),
+                new UserSummary(5L, "B", "b", "b@example.com", Roles.STUDENT),
+                new UserSummary(8L, "C", "c", "c@example.com", Roles.STUDENT));
+        when(groupRepository.findStudentSummariesAfter(eq(1L), eq(0L), any(Pageable.class))).thenReturn(rows);
+
+        CursorPage<UserSummary> page = groupService.getMembers(1L, Roles.STUDENT, null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(5L, page.getNextCursor());
+        ArgumentCaptor<Pageable> pageable = ArgumentCaptor.forClass(Pageable.class);
+        verify(groupRepository).findStudentSummariesAfter(eq(1L), eq(0L), pageable.capture());
+        assertEquals(3, pageable.getValue().getPageSize());
+        verify(groupRepository, never()).existsById(any());
+    }
+
+    @Test
+    void getMembers_emptyPageOfMissingGroup_throws() {
+        when(groupRepository.findMemberSummariesAfter(eq(4L), eq(0L), any(Pageable.class))).thenReturn(List.of());
+        when(groupRepository.existsById(4L)).thenReturn(false);
+
+        assertThrows(EntityNotFoundException.class, () -> groupService.getMembers(4L, null, null, null));
+    }
+
+    @Test
+    void getMembers_otherRole_throws() {
+        assertThrows(IllegalArgumentException.class, () -> groupService.getMembers(1L, Roles.ADMIN, null, null));
+    }
+
+    @Test
+    void updateGroup_appliesOnlyTheDifference() {
+        Long groupId = 1L;
+        Teacher teacher = new Teacher();
+        teacher.setUsername("teacher1");
+        teacher.setRole(Roles.TEACHER);
+
+        Group group = new Group();
+        group.setGroupId(groupId);
+        group.setResponsibleTeachers(new HashSet<>(Set.of(teacher)));
+        group.setTeacherUsernames(new HashSet<>(Set.of("teacher1")));
+        group.setStudentUsernames(new HashSet<>(Set.of("student1", "student2")));
+
+        Student student3 = new Student();
+        student3.setUser_id(3L);
+        student3.setUsername("student3");
+        student3.setRole(Roles.STUDENT);
+
+        when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
+        when(studentRepository.findUsernamesByGroupId(groupId)).thenReturn(List.of("student1", "student2"));
+        when(studentRepository.findIdsInGroup(groupId, Set.of("student1"))).thenReturn(List.of(1L));
+        when(userRepository.findByUsernameIn(anyCollection())).thenReturn(List.of(student3));
+
+        groupService.updateGroup(groupId, "Group", List.of("teacher1"), List.of("student2", "student3"));
+
+        verify(userRepository).findByUsernameIn(Set.of("student3"));
+        verify(studentRepository).unassignGroup(groupId, List.of(1L));
+        verify(studentRepository).assignGroup(groupId, List.of(3L));
+        verify(membershipIndex).removeStudents(groupId, List.of(1L));
+        verify(membershipIndex).addStudents(groupId, List.of(3L));
+        verify(membershipIndex, never()).addTeachers(anyLong(), anyCollection());
+        assertEquals(Set.of(teacher), group.getResponsibleTeachers());
+        assertEquals(Set.of("student2", "student3"), group.getStudentUsernames());
+    }
+
+    @Test
+    void updateMembers_movingStudent_updatesBothGroups() {
+        Group previous = new Group();
+        previous.setGroupId(2L);
+        previous.setStudentUsernames(new HashSet<>(Set.of("student1", "student9")));
+
+        Group group = new Group();
+        group.setGroupId(1L);
+
+        Student student = new Student();
+        student.setUser_id(7L);
+        student.setUsername("student1");
+        student.setRole(Roles.STUDENT);
+        student.setGroup(previous);
+
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(group));
+        when(userRepository.findByUsernameIn(anyCollection())).thenReturn(List.of(student));
+
+        GroupMembersPatch patch = new GroupMembersPatch();
+        patch.setAddStudents(List.of("student1"));
+        groupService.updateMembers(1L, patch);
+
+        assertEquals(Set.of("student1"), group.getStudentUsernames());
+        assertEquals(Set.of("student9"), previous.getStudentUsernames());
+        verify(studentRepository).assignGroup(1L, List.of(7L));
+        verify(studentRepository, never()).unassignGroup(anyLong(), anyCollection());
+        verify(studentRepository, never()).findUsernamesByGroupId(anyLong());
+    }
+
+    @Test
+    void updateMembers_removeOnly_doesNotLoadUsers() {
+        Group group = new Group();
+        group.setGroupId(1L);
+        group.setStudentUsernames(new HashSet<>(Set.of("student1", "student2")));
+        when(groupRepository.findById(1L)).thenReturn(Optional.of(group));
+        when(studentRepository.findIdsInGroup(1L, Set.of("student1"))).thenReturn(List.of(4L));
+
+        GroupMembersPatch patch = new GroupMembersPatch();
+        patch.setRemoveStudents(List.of("student1"));
+        groupService.updateMembers(1L, patch);
+
+        assertEquals(Set.of("student2"), group.getStudentUsernames());
+        verify(studentRepository).unassignGroup(1L, List.of(4L));
+        verify(userRepository, never()).findByUsernameIn(anyCollection());
+    }
+
     @Test
     void updateGroup_groupNotFound_throws() {
         when(groupRepository.findById(42L)).thenReturn(Optional.empty());
@@ -150,21 +301,28 @@ class GroupServiceTest {
     void addStudentsToGroup_success() {
         Long groupId = 1L;
         Group group = new Group();
-        group.setStudents(new ArrayList<>());
+        group.setStudents(new HashSet<>());
 
         when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
 
-        Student student = new Student();
-        student.setUsername("student1");
-        student.setRole(Roles.STUDENT);
+        group.setGroupId(groupId);
 
-        when(userRepository.findByUsername("student1")).thenReturn(Optional.of(student));
+        Student student1 = new Student();
+        student1.setUser_id(7L);
+        student1.setUsername("student1");
+        student1.setRole(Roles.STUDENT);
 
-        groupService.addStudentsToGroup(groupId, List.of("student1"));
+        Student student2 = new Student();
+        student2.setUser_id(8L);
+        student2.setUsername("student2");
+        student2.setRole(Roles.STUDENT);
 
-        assertTrue(group.getStudents().contains(student));
-        assertEquals(group, student.getGroup());
+        when(userRepository.findByUsernameIn(anyCollection())).thenReturn(List.of(student1, student2));
+
+        groupService.addStudentsToGroup(groupId, List.of("student1", "student2"));
 
+        verify(userRepository, times(1)).findByUsernameIn(anyCollection());
+        verify(studentRepository, times(1)).assignGroup(groupId, List.of(7L, 8L));
         verify(groupRepository).save(group);
     }
 
@@ -183,14 +341,14 @@ class GroupServiceTest {
     void addStudentsToGroup_userNotStudent_throws() {
         Long groupId = 1L;
         Group group = new Group();
-        group.setStudents(new ArrayList<>());
+        group.setStudents(new HashSet<>());
 
         User user = new User();
         user.setUsername("notStudent");
         user.setRole(Roles.TEACHER);
 
         when(groupRepository.findById(groupId)).thenReturn(Optional.of(group));
-        when(userRepository.findByUsername("notStudent")).thenReturn(Optional.of(user));
+        when(userRepository.findByUsernameIn(anyCollection())).thenReturn(List.of(user));
 
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> {
             groupService.addStudentsToGroup(groupId, List.of("notStudent"));
@@ -209,6 +367,24 @@ class GroupServiceTest {
         groupService.deleteGroup(groupId);
 
         verify(groupRepository).delete(group);
+        verify(membershipIndex).removeGroup(groupId);
+    }
+
+    @Test
+    void getGroupSummariesOf_readsTeacherGroupsFromIndex() {
+        List<GroupSummary> summaries = List.of(new GroupSummary(2L, "G2", 1, 10), new GroupSummary(4L, "G4", 2, 12));
+        when(membershipIndex.groupsOf(5L)).thenReturn(new long[]{2L, 4L});
+        when(groupRepository.findSummariesByGroupIdIn(List.of(2L, 4L))).thenReturn(summaries);
+
+        assertEquals(summaries, groupService.getGroupSummariesOf(5L));
+    }
+
+    @Test
+    void getGroupSummariesOf_teacherWithoutGroups_skipsQuery() {
+        when(membershipIndex.groupsOf(5L)).thenReturn(new long[0]);
+
+        assertTrue(groupService.getGroupSummariesOf(5L).isEmpty());
+        verify(groupRepository, never()).findSummariesByGroupIdIn(any());
     }
 
     @Test
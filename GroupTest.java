@@ -2,9 +2,9 @@ package com.Gestion_Note.Note.Entities;
 
 import org.junit.jupiter.api.Test;
 
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -36,16 +36,16 @@ public class GroupTest {
 
         Long id = 1L;
         String name = "Groupe A";
-        List<String> teacherUsernames = Arrays.asList("teacher1", "teacher2");
-        List<String> studentUsernames = Arrays.asList("student1", "student2");
+        Set<String> teacherUsernames = new LinkedHashSet<>(List.of("teacher1", "teacher2"));
+        Set<String> studentUsernames = new LinkedHashSet<>(List.of("student1", "student2"));
 
         Teacher t1 = new Teacher();
         Teacher t2 = new Teacher();
-        List<Teacher> teachers = Arrays.asList(t1, t2);
+        Set<Teacher> teachers = new LinkedHashSet<>(List.of(t1, t2));
 
         Student s1 = new Student();
         Student s2 = new Student();
-        List<Student> students = Arrays.asList(s1, s2);
+        Set<Student> students = new LinkedHashSet<>(List.of(s1, s2));
 
         group.setGroupId(id);
         group.setGroupName(name);
@@ -0,0 +1,91 @@
+package com.Gestion_Note.Note.Services;
+
+import com.Gestion_Note.Note.Entities.Group;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class GroupWriteRetryTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private GroupWriteRetry retry;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        retry = new GroupWriteRetry(transactionManager, 3, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void execute_conflict_isReplayedInANewTransaction() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = retry.execute(() -> {
+            if (calls.incrementAndGet() == 1) {
+                throw new ObjectOptimisticLockingFailureException(Group.class, 1L);
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(2, calls.get());
+        verify(transactionManager, times(2)).getTransaction(any());
+        verify(transactionManager).rollback(any());
+        assertEquals(1L, retry.stats().get("conflicts"));
+        assertEquals(1L, retry.stats().get("recovered"));
+    }
+
+    @Test
+    void execute_persistentConflict_givesUpAfterMaxAttempts() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> retry.execute(() -> {
+            calls.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(Group.class, 1L);
+        }));
+
+        assertEquals(3, calls.get());
+        assertEquals(2L, retry.stats().get("retries"));
+        assertEquals(1L, retry.stats().get("exhausted"));
+    }
+
+    @Test
+    void execute_otherFailures_areNotRetried() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(IllegalArgumentException.class, () -> retry.execute(() -> {
+            calls.incrementAndGet();
+            throw new IllegalArgumentException("bad request");
+        }));
+
+        assertEquals(1, calls.get());
+        assertEquals(0L, retry.stats().get("conflicts"));
+    }
+
+    @Test
+    void execute_insideExistingTransaction_runsDirectly() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertEquals("ok", retry.execute(() -> "ok"));
+
+        verifyNoInteractions(transactionManager);
+    }
+}
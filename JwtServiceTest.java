@@ -0,0 +1,77 @@
+package com.Gestion_Note.Note.Services;
+
+import com.Gestion_Note.Note.Entities.Roles;
+import com.Gestion_Note.Note.Entities.User;
+import com.Gestion_Note.Note.Security.CustomUserDetails;
+import com.Gestion_Note.Note.Security.ParsedToken;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "3cfa76ef14937c1c0ea519f8fc057a80fcd04a7420f8e8bcd0a7567c272e007b";
+
+    private JwtService jwtService;
+
+    private CustomUserDetails userDetails;
+
+    @BeforeEach
+    void setup() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3600000L);
+        jwtService.init();
+
+        User user = new User(1L, "Student", "student1", "student@example.com", "encoded", Roles.STUDENT);
+        userDetails = new CustomUserDetails(user);
+    }
+
+    @Test
+    void parseToken_returnsSubjectAndExpiry() {
+        String token = jwtService.generateToken(userDetails);
+
+        ParsedToken parsed = jwtService.parseToken(token);
+
+        assertEquals("student@example.com", parsed.getSubject());
+        assertNotNull(parsed.getId());
+        assertNotNull(parsed.getIssuedAt());
+        assertNotNull(parsed.getExpiration());
+        assertFalse(parsed.isExpired());
+        assertTrue(jwtService.isTokenValid(parsed, userDetails));
+    }
+
+    @Test
+    void parseToken_tamperedSignature_throws() {
+        String token = jwtService.generateToken(userDetails);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtService.parseToken(tampered));
+    }
+
+    @Test
+    void extractPrincipal_readsEmbeddedClaims() {
+        ParsedToken parsed = jwtService.parseToken(jwtService.generateToken(userDetails));
+
+        CustomUserDetails principal = jwtService.extractPrincipal(parsed);
+
+        assertNotNull(principal);
+        assertEquals(1L, principal.getUserId());
+        assertEquals("student@example.com", principal.getUsername());
+        assertEquals(Roles.STUDENT, principal.getRole());
+        assertEquals(0, principal.getTokenVersion());
+        assertNull(principal.getPassword());
+    }
+
+    @Test
+    void isTokenValid_otherUser_returnsFalse() {
+        String token = jwtService.generateToken(userDetails);
+        User other = new User(2L, "Other", "other", "other@example.com", "encoded", Roles.STUDENT);
+
+        assertFalse(jwtService.isTokenValid(jwtService.parseToken(token), new CustomUserDetails(other)));
+        assertEquals("student@example.com", jwtService.extractUsername(token));
+    }
+}
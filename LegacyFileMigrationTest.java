@@ -0,0 +1,92 @@
+package com.Gestion_Note.Note.Services;
+
+import com.Gestion_Note.Note.DTO.BlobDescriptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class LegacyFileMigrationTest {
+
+    private static final String HASH = "a".repeat(64);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private BlobService blobService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private LegacyFileMigration migration;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        migration = new LegacyFileMigration(jdbcTemplate, blobService, transactionTemplate);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class))).thenReturn(List.of());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void legacyContent(Long id, byte[] content) throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getBinaryStream(1)).thenReturn(new ByteArrayInputStream(content));
+        when(jdbcTemplate.query(contains("select file_data from assignment"), any(ResultSetExtractor.class), eq(id)))
+                .thenAnswer(invocation -> invocation.<ResultSetExtractor<?>>getArgument(1).extractData(resultSet));
+    }
+
+    @Test
+    void migrate_streamsContentIntoStoreAndClearsColumn() throws Exception {
+        when(jdbcTemplate.queryForList(contains("from assignment where file_data"), eq(Long.class))).thenReturn(List.of(1L));
+        legacyContent(1L, new byte[10]);
+        when(blobService.store(any(InputStream.class), anyLong())).thenReturn(new BlobDescriptor(HASH, 10L, false));
+        when(jdbcTemplate.update(contains("update assignment set file_hash"), eq(HASH), eq(10L), eq(1L))).thenReturn(1);
+
+        assertEquals(1, migration.migrate());
+
+        verify(blobService).retain(HASH);
+        assertEquals(1L, migration.stats().get("migrated"));
+    }
+
+    @Test
+    void migrate_rowChangedMeanwhile_doesNotRetain() throws Exception {
+        when(jdbcTemplate.queryForList(contains("from assignment where file_data"), eq(Long.class))).thenReturn(List.of(1L));
+        legacyContent(1L, new byte[10]);
+        when(blobService.store(any(InputStream.class), anyLong())).thenReturn(new BlobDescriptor(HASH, 10L, false));
+        when(jdbcTemplate.update(anyString(), any(), any(), any())).thenReturn(0);
+
+        assertEquals(0, migration.migrate());
+
+        verify(blobService, never()).retain(any());
+    }
+
+    @Test
+    void migrate_schemaWithoutLegacyColumns_isSkipped() {
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class)))
+                .thenThrow(new BadSqlGrammarException("migrate", "select", new SQLException("no such column")));
+
+        assertEquals(0, migration.migrate());
+
+        verifyNoInteractions(blobService);
+        assertEquals(0L, migration.stats().get("failed"));
+    }
+}
@@ -0,0 +1,131 @@
+package com.Gestion_Note.Note.Security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class PasswordHashingExecutorTest {
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    private PasswordHashingExecutor executor;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        executor = new PasswordHashingExecutor(passwordEncoder, 1, 1, 5000, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void matches_delegatesToEncoder() {
+        when(passwordEncoder.matches("raw", "hash")).thenReturn(true);
+
+        assertTrue(executor.matches("raw", "hash"));
+        assertEquals(1L, executor.stats().get("hashes"));
+    }
+
+    @Test
+    void encodeAll_keepsOrderWithoutFillingTheQueue() {
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hash-" + invocation.getArgument(0));
+
+        // Pool of one with a queue of one: submitting all five at once would be rejected
+        List<String> hashes = executor.encodeAll(List.of("a", "b", "c", "d", "e"));
+
+        assertEquals(List.of("hash-a", "hash-b", "hash-c", "hash-d", "hash-e"), hashes);
+        assertEquals(0L, executor.stats().get("rejected"));
+    }
+
+    @Test
+    void encodeAll_fullQueue_waitsForRoomInsteadOfFailing() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordEncoder.matches(eq("slow"), anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "hash-" + invocation.getArgument(0));
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> executor.matches("slow", "hash"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> executor.matches("slow", "hash"));
+        while (executor.stats().get("queueDepth") < 1) {
+            Thread.onSpinWait();
+        }
+
+        CompletableFuture<List<String>> bulk = CompletableFuture.supplyAsync(() -> executor.encodeAll(List.of("a", "b")));
+        Thread.sleep(50);
+        assertFalse(bulk.isDone());
+        release.countDown();
+
+        assertEquals(List.of("hash-a", "hash-b"), bulk.get(5, TimeUnit.SECONDS));
+        assertEquals(0L, executor.stats().get("rejected"));
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void matches_timeout_isCountedApartFromRejections() {
+        PasswordHashingExecutor impatient = new PasswordHashingExecutor(passwordEncoder, 1, 1, 10, 3);
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordEncoder.matches(eq("slow"), anyString())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+
+        try {
+            assertThrows(TooManyRequestsException.class, () -> impatient.matches("slow", "hash"));
+
+            assertEquals(1L, impatient.stats().get("timedOut"));
+            assertEquals(0L, impatient.stats().get("rejected"));
+        } finally {
+            release.countDown();
+            impatient.shutdown();
+        }
+    }
+
+    @Test
+    void matches_fullQueue_rejectsImmediately() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordEncoder.matches(eq("slow"), anyString())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return true;
+        });
+
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> executor.matches("slow", "hash"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> executor.matches("slow", "hash"));
+        while (executor.stats().get("queueDepth") < 1) {
+            Thread.onSpinWait();
+        }
+
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> executor.matches("slow", "hash"));
+
+        assertEquals(3, ex.getRetryAfterSeconds());
+        assertEquals(1L, executor.stats().get("rejected"));
+
+        release.countDown();
+        assertTrue(running.get(5, TimeUnit.SECONDS));
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,132 @@
+package com.Gestion_Note.Note.Services;
+
+import com.Gestion_Note.Note.DTO.AuthResponseDTO;
+import com.Gestion_Note.Note.Entities.RefreshToken;
+import com.Gestion_Note.Note.Entities.Roles;
+import com.Gestion_Note.Note.Entities.User;
+import com.Gestion_Note.Note.Repository.RefreshTokenRepository;
+import com.Gestion_Note.Note.Security.CustomUserDetails;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Mock
+    private JwtService jwtService;
+
+    @InjectMocks
+    private RefreshTokenService refreshTokenService;
+
+    private User user;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(refreshTokenService, "refreshExpiration", 60000L);
+        ReflectionTestUtils.setField(refreshTokenService, "revokedRetention", 3600000L);
+        user = new User(1L, "Student", "student1", "student@example.com", "encoded", Roles.STUDENT);
+    }
+
+    @Test
+    void issue_storesOnlyTheHash() {
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+
+        String raw = refreshTokenService.issue(user);
+
+        verify(refreshTokenRepository).save(captor.capture());
+        assertNotEquals(raw, captor.getValue().getTokenHash());
+        assertEquals(RefreshTokenService.hash(raw), captor.getValue().getTokenHash());
+        assertEquals(user, captor.getValue().getUser());
+    }
+
+    @Test
+    void refresh_rotatesToken() {
+        RefreshToken stored = stored(new Date(System.currentTimeMillis() + 60000));
+        when(refreshTokenRepository.findByTokenHashWithUser(RefreshTokenService.hash("raw"))).thenReturn(Optional.of(stored));
+        when(refreshTokenRepository.revokeIfActive(eq(5L), any(Date.class))).thenReturn(1);
+        when(jwtService.generateToken(any(CustomUserDetails.class))).thenReturn("jwt-token");
+
+        AuthResponseDTO response = refreshTokenService.refresh("raw");
+
+        assertEquals("jwt-token", response.getToken());
+        assertNotNull(response.getRefreshToken());
+        assertNotEquals("raw", response.getRefreshToken());
+        verify(refreshTokenRepository).revokeIfActive(eq(5L), any(Date.class));
+        verify(refreshTokenRepository, times(1)).save(any(RefreshToken.class));
+    }
+
+    @Test
+    void refresh_concurrentRotation_isTreatedAsReuse() {
+        RefreshToken stored = stored(new Date(System.currentTimeMillis() + 60000));
+        when(refreshTokenRepository.findByTokenHashWithUser(RefreshTokenService.hash("raw"))).thenReturn(Optional.of(stored));
+        // Another request revoked the row between the lookup and the update
+        when(refreshTokenRepository.revokeIfActive(eq(5L), any(Date.class))).thenReturn(0);
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> refreshTokenService.refresh("raw"));
+
+        assertEquals("Refresh token already used", ex.getMessage());
+        verify(refreshTokenRepository).revokeAllForUser(eq(1L), any(Date.class));
+        verify(jwtService, never()).generateToken(any(CustomUserDetails.class));
+    }
+
+    @Test
+    void purge_keepsRecentlyRevokedTokens() {
+        ArgumentCaptor<Date> now = ArgumentCaptor.forClass(Date.class);
+        ArgumentCaptor<Date> revokedBefore = ArgumentCaptor.forClass(Date.class);
+
+        refreshTokenService.purge();
+
+        verify(refreshTokenRepository).deleteExpiredOrRevokedBefore(now.capture(), revokedBefore.capture());
+        assertEquals(3600000L, now.getValue().getTime() - revokedBefore.getValue().getTime());
+    }
+
+    @Test
+    void refresh_reusedToken_revokesAllTokensOfUser() {
+        RefreshToken stored = stored(new Date(System.currentTimeMillis() + 60000));
+        stored.setRevokedAt(new Date());
+        when(refreshTokenRepository.findByTokenHashWithUser(RefreshTokenService.hash("raw"))).thenReturn(Optional.of(stored));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> refreshTokenService.refresh("raw"));
+
+        assertEquals("Refresh token already used", ex.getMessage());
+        verify(refreshTokenRepository).revokeAllForUser(eq(1L), any(Date.class));
+        verify(jwtService, never()).generateToken(any(CustomUserDetails.class));
+    }
+
+    @Test
+    void refresh_expiredToken_throws() {
+        RefreshToken stored = stored(new Date(System.currentTimeMillis() - 1000));
+        when(refreshTokenRepository.findByTokenHashWithUser(RefreshTokenService.hash("raw"))).thenReturn(Optional.of(stored));
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> refreshTokenService.refresh("raw"));
+
+        assertEquals("Refresh token expired", ex.getMessage());
+    }
+
+    @Test
+    void refresh_unknownToken_throws() {
+        when(refreshTokenRepository.findByTokenHashWithUser(anyString())).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> refreshTokenService.refresh("unknown"));
+    }
+
+    private RefreshToken stored(Date expiresAt) {
+        RefreshToken stored = new RefreshToken();
+        stored.setId(5L);
+        stored.setUser(user);
+        stored.setTokenHash(RefreshTokenService.hash("raw"));
+        stored.setExpiresAt(expiresAt);
+        return stored;
+    }
+}
@@ -0,0 +1,28 @@
+package com.Gestion_Note.Note.Config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.cors.CorsConfiguration;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SecurityConfigurationTest {
+
+    private final CorsConfiguration cors = new SecurityConfiguration(null, null, null)
+            .corsConfigurationSource()
+            .getCorsConfiguration(new MockHttpServletRequest("OPTIONS", "/group/1/members"));
+
+    @Test
+    void cors_allowsPatchAndConditionalRequests() {
+        assertNotNull(cors.checkHttpMethod(HttpMethod.PATCH));
+        assertNotNull(cors.checkHeaders(List.of("If-None-Match", "If-Range", "Range")));
+    }
+
+    @Test
+    void cors_exposesCachingAndDownloadHeaders() {
+        assertTrue(cors.getExposedHeaders().containsAll(List.of("ETag", "Content-Range", "Content-Disposition")));
+    }
+}
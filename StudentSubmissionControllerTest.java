@@ -1,16 +1,21 @@
 package com.Gestion_Note.Note.Controllers;
 
+import com.Gestion_Note.Note.DTO.AssignmentFile;
 import com.Gestion_Note.Note.Services.StudentSubmissionService;
+import com.Gestion_Note.Note.Services.UploadTooLargeException;
+import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.io.IOException;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -24,6 +29,8 @@ public class StudentSubmissionControllerTest {
     @MockBean
     private StudentSubmissionService submissionService;
 
+    private static final String HASH = "a".repeat(64);
+
     @Test
     void testSubmitAssignment_success() throws Exception {
         MockMultipartFile file = new MockMultipartFile(
@@ -37,6 +44,19 @@ public class StudentSubmissionControllerTest {
                 .andExpect(content().string("Assignment submitted"));
     }
 
+    @Test
+    void testSubmitAssignment_tooLarge_returns413() throws Exception {
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "big.pdf", MediaType.APPLICATION_PDF_VALUE, "big content".getBytes());
+
+        when(submissionService.submitAssignment(eq(1L), any())).thenThrow(new UploadTooLargeException(5L));
+
+        mockMvc.perform(multipart("/student-submissions/submit/1")
+                        .file(file))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(content().string("Error: File exceeds the upload limit of 5 bytes"));
+    }
+
     @Test
     void testUpdateAssignment_success() throws Exception {
         MockMultipartFile file = new MockMultipartFile(
@@ -62,20 +82,63 @@ public class StudentSubmissionControllerTest {
 
     @Test
     void testDownloadAssignment_success() throws Exception {
-        byte[] fileContent = "PDF FILE CONTENT".getBytes();
+        byte[] fileContent = "DOCX FILE CONTENT".getBytes();
+        AssignmentFile file = new AssignmentFile("answer.docx", "application/msword", HASH, (long) fileContent.length);
 
-        when(submissionService.getAssignmentFile(4L)).thenReturn(fileContent);
+        when(submissionService.getAssignmentFile(4L)).thenReturn(file);
+        when(submissionService.openFile(file)).thenReturn(new ByteArrayResource(fileContent));
 
         mockMvc.perform(get("/student-submissions/download/4"))
                 .andExpect(status().isOk())
-                .andExpect(header().string("Content-Disposition", "attachment; filename=assignment_4.pdf"))
-                .andExpect(header().string("Content-Type", "application/pdf"))
+                .andExpect(header().string("Content-Disposition", containsString("answer.docx")))
+                .andExpect(header().string("Content-Type", "application/msword"))
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andExpect(header().string("ETag", "\"" + HASH + "\""))
                 .andExpect(content().bytes(fileContent));
     }
 
+    @Test
+    void testDownloadAssignment_range() throws Exception {
+        byte[] fileContent = "0123456789".getBytes();
+        AssignmentFile file = new AssignmentFile("answer.pdf", "application/pdf", HASH, (long) fileContent.length);
+
+        when(submissionService.getAssignmentFile(6L)).thenReturn(file);
+        when(submissionService.openFile(file)).thenReturn(new ByteArrayResource(fileContent));
+
+        mockMvc.perform(get("/student-submissions/download/6").header("Range", "bytes=3-6"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 3-6/10"))
+                .andExpect(content().bytes("3456".getBytes()));
+    }
+
+    @Test
+    void testDownloadAssignment_staleIfRange_sendsWholeFile() throws Exception {
+        byte[] fileContent = "0123456789".getBytes();
+        AssignmentFile file = new AssignmentFile("answer.pdf", "application/pdf", HASH, (long) fileContent.length);
+
+        when(submissionService.getAssignmentFile(7L)).thenReturn(file);
+        when(submissionService.openFile(file)).thenReturn(new ByteArrayResource(fileContent));
+
+        mockMvc.perform(get("/student-submissions/download/7")
+                        .header("Range", "bytes=3-6")
+                        .header("If-Range", "\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(fileContent));
+    }
+
+    @Test
+    void testDownloadAssignment_noFile() throws Exception {
+        when(submissionService.getAssignmentFile(8L)).thenThrow(new EntityNotFoundException("No submitted file"));
+
+        mockMvc.perform(get("/student-submissions/download/8"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testDownloadAssignment_error() throws Exception {
-        when(submissionService.getAssignmentFile(5L)).thenThrow(new IOException("File not found"));
+        AssignmentFile file = new AssignmentFile("answer.pdf", "application/pdf", HASH, 1L);
+        when(submissionService.getAssignmentFile(5L)).thenReturn(file);
+        when(submissionService.openFile(file)).thenThrow(new IOException("File not found"));
 
         mockMvc.perform(get("/student-submissions/download/5"))
                 .andExpect(status().isInternalServerError());
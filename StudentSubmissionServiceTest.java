@@ -1,5 +1,7 @@
 package com.Gestion_Note.Note.Services;
 
+import com.Gestion_Note.Note.DTO.AssignmentFile;
+import com.Gestion_Note.Note.DTO.BlobDescriptor;
 import com.Gestion_Note.Note.Entities.Assignment;
 import com.Gestion_Note.Note.Entities.Status;
 import com.Gestion_Note.Note.Entities.Student;
@@ -9,13 +11,17 @@ import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.Date;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,6 +34,15 @@ class StudentSubmissionServiceTest {
     @Mock
     private StudentRepository studentRepository;
 
+    @Mock
+    private BlobService blobService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private UploadLimits uploadLimits;
+
     @InjectMocks
     private StudentSubmissionService service;
 
@@ -42,9 +57,18 @@ class StudentSubmissionServiceTest {
 
     private final String userEmail = "student@example.com";
 
+    private static final String ANSWER_HASH = "e".repeat(64);
+
     @BeforeEach
-    void setUp() {
+    @SuppressWarnings("unchecked")
+    void setUp() throws Exception {
         MockitoAnnotations.openMocks(this);
+        doAnswer(invocation -> {
+            ((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(uploadLimits.checkedLimit(any())).thenReturn(2048L);
+        when(blobService.store(any(MultipartFile.class), anyLong())).thenReturn(new BlobDescriptor(ANSWER_HASH, 9L, false));
 
         // Mock SecurityContextHolder to simulate logged-in user email
         when(securityContext.getAuthentication()).thenReturn(authentication);
@@ -62,11 +86,8 @@ class StudentSubmissionServiceTest {
         Assignment assignment = new Assignment();
         assignment.setUploadedAt(new Date(System.currentTimeMillis() + 10000)); // Upload date in the future
 
-        byte[] fileBytes = "file data".getBytes();
-
         when(studentRepository.findByEmail(userEmail)).thenReturn(Optional.of(student));
         when(assignmentRepository.findById(assignmentId)).thenReturn(Optional.of(assignment));
-        when(multipartFile.getBytes()).thenReturn(fileBytes);
         when(multipartFile.getOriginalFilename()).thenReturn("test.txt");
         when(multipartFile.getContentType()).thenReturn("text/plain");
         when(assignmentRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
@@ -75,8 +96,13 @@ class StudentSubmissionServiceTest {
 
         assertEquals(Status.COMPLETED, assignment.getStatus());
         assertEquals(student, assignment.getStudent());
-        assertEquals("test.txt", assignment.getFileName());
-        assertArrayEquals(fileBytes, assignment.getFileData());
+        assertEquals("test.txt", assignment.getSubmittedFileName());
+        assertEquals(ANSWER_HASH, assignment.getSubmittedFileHash());
+        assertEquals(9L, assignment.getSubmittedFileSize());
+        assertNull(assignment.getFileName());
+        verify(blobService).store(multipartFile, 2048L);
+        verify(blobService).retain(ANSWER_HASH);
+        verify(assignmentRepository).save(assignment);
         assertEquals("Assignment submitted successfully on time.", result);
     }
 
@@ -92,7 +118,6 @@ class StudentSubmissionServiceTest {
 
         when(studentRepository.findByEmail(userEmail)).thenReturn(Optional.of(student));
         when(assignmentRepository.findById(assignmentId)).thenReturn(Optional.of(assignment));
-        when(multipartFile.getBytes()).thenReturn("data".getBytes());
         when(multipartFile.getOriginalFilename()).thenReturn("file.txt");
         when(multipartFile.getContentType()).thenReturn("text/plain");
         when(assignmentRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
@@ -115,7 +140,6 @@ class StudentSubmissionServiceTest {
 
         when(studentRepository.findByEmail(userEmail)).thenReturn(Optional.of(student));
         when(assignmentRepository.findById(assignmentId)).thenReturn(Optional.of(assignment));
-        when(multipartFile.getBytes()).thenReturn("data".getBytes());
         when(multipartFile.getOriginalFilename()).thenReturn("file.txt");
         when(multipartFile.getContentType()).thenReturn("text/plain");
         when(assignmentRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
@@ -162,10 +186,10 @@ class StudentSubmissionServiceTest {
         Assignment assignment = new Assignment();
         assignment.setStudent(student);
         assignment.setUploadedAt(new Date(System.currentTimeMillis() + 10000));
+        assignment.setSubmittedFileHash("1".repeat(64));
 
         when(studentRepository.findByEmail(userEmail)).thenReturn(Optional.of(student));
         when(assignmentRepository.findById(assignmentId)).thenReturn(Optional.of(assignment));
-        when(multipartFile.getBytes()).thenReturn("update data".getBytes());
         when(multipartFile.getOriginalFilename()).thenReturn("update.txt");
         when(multipartFile.getContentType()).thenReturn("text/plain");
         when(assignmentRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
@@ -174,6 +198,9 @@ class StudentSubmissionServiceTest {
 
         assertEquals(Status.COMPLETED, assignment.getStatus());
         assertEquals("Assignment updated successfully.", result);
+        assertEquals(ANSWER_HASH, assignment.getSubmittedFileHash());
+        verify(blobService).retain(ANSWER_HASH);
+        verify(blobService).release("1".repeat(64));
     }
 
     @Test
@@ -248,25 +275,26 @@ class StudentSubmissionServiceTest {
         Long assignmentId = 1L;
 
         byte[] fileData = "filecontent".getBytes();
+        AssignmentFile file = new AssignmentFile("answer.pdf", "application/pdf", ANSWER_HASH, (long) fileData.length);
 
-        Assignment assignment = new Assignment();
-        assignment.setSubmittedFileData(fileData);
-
-        when(assignmentRepository.findById(assignmentId)).thenReturn(Optional.of(assignment));
+        when(assignmentRepository.findSubmittedFile(assignmentId)).thenReturn(Optional.of(file));
+        when(blobService.open(ANSWER_HASH)).thenReturn(new ByteArrayResource(fileData));
 
-        byte[] result = service.getAssignmentFile(assignmentId);
+        AssignmentFile result = service.getAssignmentFile(assignmentId);
 
-        assertArrayEquals(fileData, result);
+        assertSame(file, result);
+        assertArrayEquals(fileData, service.openFile(result).getContentAsByteArray());
+        verify(assignmentRepository, never()).findById(any());
     }
 
     @Test
     void getAssignmentFile_notFound_throws() {
-        when(assignmentRepository.findById(1L)).thenReturn(Optional.empty());
+        when(assignmentRepository.findSubmittedFile(1L)).thenReturn(Optional.empty());
 
         EntityNotFoundException ex = assertThrows(EntityNotFoundException.class, () -> {
             service.getAssignmentFile(1L);
         });
 
-        assertTrue(ex.getMessage().contains("Assignment not found"));
+        assertTrue(ex.getMessage().contains("No submitted file"));
     }
 }
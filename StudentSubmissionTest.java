@@ -15,7 +15,8 @@ public class StudentSubmissionTest {
         Long id = 1L;
         Student student = new Student();
         Assignment assignment = new Assignment();
-        byte[] fileData = {1, 2, 3};
+        String fileHash = "c".repeat(64);
+        Long fileSize = 3L;
         String fileName = "answer.pdf";
         String fileType = "application/pdf";
         Date date = new Date();
@@ -24,7 +25,8 @@ public class StudentSubmissionTest {
         submission.setId(id);
         submission.setStudent(student);
         submission.setAssignment(assignment);
-        submission.setAnswerFileData(fileData);
+        submission.setAnswerFileHash(fileHash);
+        submission.setAnswerFileSize(fileSize);
         submission.setAnswerFileName(fileName);
         submission.setAnswerFileType(fileType);
         submission.setSubmittedAt(date);
@@ -33,7 +35,8 @@ public class StudentSubmissionTest {
         assertEquals(id, submission.getId());
         assertEquals(student, submission.getStudent());
         assertEquals(assignment, submission.getAssignment());
-        assertArrayEquals(fileData, submission.getAnswerFileData());
+        assertEquals(fileHash, submission.getAnswerFileHash());
+        assertEquals(fileSize, submission.getAnswerFileSize());
         assertEquals(fileName, submission.getAnswerFileName());
         assertEquals(fileType, submission.getAnswerFileType());
         assertEquals(date, submission.getSubmittedAt());
@@ -46,7 +49,8 @@ public class StudentSubmissionTest {
         assertNull(submission.getId());
         assertNull(submission.getStudent());
         assertNull(submission.getAssignment());
-        assertNull(submission.getAnswerFileData());
+        assertNull(submission.getAnswerFileHash());
+        assertNull(submission.getAnswerFileSize());
         assertNull(submission.getAnswerFileName());
         assertNull(submission.getAnswerFileType());
         assertNull(submission.getSubmittedAt());
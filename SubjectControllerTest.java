@@ -1,6 +1,8 @@
 package com.Gestion_Note.Note.Controllers;
 
+import com.Gestion_Note.Note.DTO.BulkSubjectResult;
 import com.Gestion_Note.Note.DTO.SubjectDTO;
+import com.Gestion_Note.Note.DTO.SubjectSummary;
 import com.Gestion_Note.Note.Entities.Subject;
 import com.Gestion_Note.Note.Entities.User;
 import com.Gestion_Note.Note.Services.SubjectService;
@@ -47,14 +49,8 @@ public class SubjectControllerTest {
 
     @Test
     public void testGetAllSubjects_success() throws Exception {
-        Subject subject = new Subject();
-        subject.setSubject_Id(1L);
-        subject.setName("Math");
-        User teacher = new User();
-        teacher.setName("Safaa");
-        subject.setTeacher(teacher);
-
-        when(subjectService.getAllSubjects()).thenReturn(List.of(subject));
+        when(subjectService.getSubjectSummaries(null, null, null))
+                .thenReturn(List.of(new SubjectSummary(1L, "Math", "Safaa")));
 
         mockMvc.perform(get("/subject/get/all"))
                 .andExpect(status().isOk())
@@ -63,6 +59,24 @@ public class SubjectControllerTest {
                 .andExpect(jsonPath("$[0].teacher_username").value("Safaa"));
     }
 
+    @Test
+    public void testGetAllSubjects_pagedAndSorted() throws Exception {
+        when(subjectService.getSubjectSummaries(1, 20, "teacher,desc")).thenReturn(List.of());
+
+        mockMvc.perform(get("/subject/get/all").param("page", "1").param("size", "20").param("sort", "teacher,desc"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"));
+    }
+
+    @Test
+    public void testGetAllSubjects_unknownSort() throws Exception {
+        when(subjectService.getSubjectSummaries(null, null, "password"))
+                .thenThrow(new IllegalArgumentException("Cannot sort subjects by password"));
+
+        mockMvc.perform(get("/subject/get/all").param("sort", "password"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     public void testGetSubject_success() throws Exception {
         Subject subject = new Subject();
@@ -106,6 +120,43 @@ public class SubjectControllerTest {
                 .andExpect(content().string("subject with the ID 1 deleted "));
     }
 
+    @Test
+    public void testSaveSubjects_returnsReport() throws Exception {
+        BulkSubjectResult result = new BulkSubjectResult();
+        result.setReceived(2);
+        result.setCreated(1);
+        result.addError(2, "Music", "Teacher not found with username: ghost");
+        when(subjectService.addSubjects(anyList())).thenReturn(result);
+
+        mockMvc.perform(post("/subject/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(
+                                new SubjectDTO(null, "Math", "safaa"), new SubjectDTO(null, "Music", "ghost")))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2));
+    }
+
+    @Test
+    public void testGetSubjectByTeacher_success() throws Exception {
+        when(subjectService.getSubjectsByTeacher("safaa")).thenReturn(List.of(new SubjectSummary(3L, "Math", "Safaa")));
+
+        mockMvc.perform(get("/subject/get").param("teacherUsername", "safaa"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].subject_Id").value(3))
+                .andExpect(jsonPath("$[0].name").value("Math"));
+
+        verify(subjectService, never()).getSubject(any());
+    }
+
+    @Test
+    public void testGetSubjectByTeacher_unknownTeacher() throws Exception {
+        when(subjectService.getSubjectsByTeacher("ghost")).thenThrow(new RuntimeException("Teacher not found with username: ghost"));
+
+        mockMvc.perform(get("/subject/get").param("teacherUsername", "ghost"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     public void testGetSubject_notFound() throws Exception {
         when(subjectService.getSubject(99L)).thenReturn(Optional.empty());
@@ -1,6 +1,8 @@
 package com.Gestion_Note.Note.Services;
 
+import com.Gestion_Note.Note.DTO.BulkSubjectResult;
 import com.Gestion_Note.Note.DTO.SubjectDTO;
+import com.Gestion_Note.Note.DTO.SubjectSummary;
 import com.Gestion_Note.Note.Entities.Roles;
 import com.Gestion_Note.Note.Entities.Subject;
 import com.Gestion_Note.Note.Entities.User;
@@ -9,6 +11,7 @@ import com.Gestion_Note.Note.Repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.jdbc.core.JdbcTemplate;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -22,6 +25,15 @@ class SubjectServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Spy
+    private TeacherSubjectsCache teacherSubjectsCache = new TeacherSubjectsCache(100, 600);
+
+    @Spy
+    private SubjectCatalogCache subjectCatalogCache = new SubjectCatalogCache(300);
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
     @InjectMocks
     private SubjectService subjectService;
 
@@ -90,6 +102,102 @@ class SubjectServiceTest {
         verify(subjectRepository, times(1)).findAll();
     }
 
+    @Test
+    void getSubjectSummaries_withoutPaging_returnsCachedCatalog() {
+        List<SubjectSummary> rows = List.of(new SubjectSummary(1L, "Math", "Safaa"));
+        when(subjectRepository.findAllSummaries()).thenReturn(rows);
+
+        assertEquals(rows, subjectService.getSubjectSummaries(null, null, null));
+        assertEquals(rows, subjectService.getSubjectSummaries(null, null, null));
+
+        verify(subjectRepository, times(1)).findAllSummaries();
+        verify(subjectRepository, never()).findAll();
+    }
+
+    @Test
+    void getSubjectSummaries_sortsAndPagesInMemory() {
+        when(subjectRepository.findAllSummaries()).thenReturn(List.of(
+                new SubjectSummary(1L, "Math", "Bob"),
+                new SubjectSummary(2L, "Art", "alice"),
+                new SubjectSummary(3L, "Music", "Bob"),
+                new SubjectSummary(4L, "Chemistry", null)));
+
+        List<SubjectSummary> page = subjectService.getSubjectSummaries(0, 2, "teacher,desc");
+        List<SubjectSummary> next = subjectService.getSubjectSummaries(1, 2, "teacher,desc");
+
+        assertEquals(List.of(4L, 1L), page.stream().map(SubjectSummary::getSubjectId).toList());
+        assertEquals(List.of(3L, 2L), next.stream().map(SubjectSummary::getSubjectId).toList());
+        assertTrue(subjectService.getSubjectSummaries(5, 2, "name").isEmpty());
+        verify(subjectRepository, times(1)).findAllSummaries();
+    }
+
+    @Test
+    void getSubjectSummaries_sortedViewIsBuiltOncePerCatalog() {
+        when(subjectRepository.findAllSummaries()).thenReturn(List.of(
+                new SubjectSummary(1L, "Math", "Bob"),
+                new SubjectSummary(2L, "Art", "alice")));
+
+        List<SubjectSummary> first = subjectService.getSubjectSummaries(null, null, "name");
+        List<SubjectSummary> second = subjectService.getSubjectSummaries(null, null, "NAME,asc");
+
+        assertSame(first, second);
+        assertEquals(List.of(2L, 1L), first.stream().map(SubjectSummary::getSubjectId).toList());
+
+        subjectCatalogCache.invalidate();
+
+        assertNotSame(first, subjectService.getSubjectSummaries(null, null, "name"));
+    }
+
+    @Test
+    void getSubjectSummaries_unknownSortKey_throws() {
+        assertThrows(IllegalArgumentException.class, () -> subjectService.getSubjectSummaries(null, null, "password"));
+        verifyNoInteractions(subjectRepository);
+    }
+
+    @Test
+    void subjectWrites_invalidateTheCatalog() {
+        when(subjectRepository.findAllSummaries()).thenReturn(List.of());
+        Subject subject = new Subject();
+        when(subjectRepository.findById(1L)).thenReturn(Optional.of(subject));
+
+        subjectService.getSubjectSummaries(null, null, null);
+        subjectService.deleteSubject(1L);
+        subjectService.getSubjectSummaries(null, null, null);
+
+        verify(subjectCatalogCache).invalidate();
+        verify(subjectRepository, times(2)).findAllSummaries();
+    }
+
+    @Test
+    void addSubjects_resolvesTeachersOnceAndBatchesInserts() {
+        User teacher = new User();
+        teacher.setUser_id(5L);
+        teacher.setUsername("safaa");
+        teacher.setRole(Roles.TEACHER);
+        User student = new User();
+        student.setUsername("sam");
+        student.setRole(Roles.STUDENT);
+        when(userRepository.findByUsernameIn(anyCollection())).thenReturn(List.of(teacher, student));
+
+        BulkSubjectResult result = subjectService.addSubjects(List.of(
+                new SubjectDTO(null, "Math", "safaa"),
+                new SubjectDTO(null, "Physics", "safaa"),
+                new SubjectDTO(null, "Art", "sam"),
+                new SubjectDTO(null, " ", "safaa"),
+                new SubjectDTO(null, "Music", "ghost")));
+
+        assertEquals(5, result.getReceived());
+        assertEquals(2, result.getCreated());
+        assertEquals(3, result.getErrors().size());
+        assertEquals(3, result.getErrors().get(0).getRow());
+        assertEquals("Teacher not found with username: ghost", result.getErrors().get(2).getMessage());
+        verify(userRepository, times(1)).findByUsernameIn(anyCollection());
+        verify(userRepository, never()).findByUsername(any());
+        verify(jdbcTemplate, times(1)).batchUpdate(startsWith("insert into subjects"), anyList());
+        verify(teacherSubjectsCache).evict("safaa");
+        verify(subjectCatalogCache).invalidate();
+    }
+
     @Test
     void getSubject_Found() {
         Subject subject = new Subject();
@@ -152,6 +260,50 @@ class SubjectServiceTest {
         assertTrue(ex.getMessage().contains("Subject not found"));
     }
 
+    @Test
+    void updateSubject_setsTeacherRelation() {
+        User teacher = new User();
+        teacher.setUsername("teacher2");
+        teacher.setRole(Roles.TEACHER);
+
+        Subject existingSubject = new Subject();
+        existingSubject.setSubject_Id(1L);
+        existingSubject.setTeacherUsername("teacher1");
+
+        Subject changes = new Subject();
+        changes.setSubject_Id(1L);
+        changes.setName("Physics");
+        changes.setTeacherUsername("teacher2");
+
+        when(subjectRepository.findById(1L)).thenReturn(Optional.of(existingSubject));
+        when(userRepository.findByUsername("teacher2")).thenReturn(Optional.of(teacher));
+        when(subjectRepository.save(any(Subject.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        Subject updated = subjectService.updateSubject(changes);
+
+        assertSame(teacher, updated.getTeacher());
+        assertEquals("teacher2", updated.getTeacherUsername());
+        verify(teacherSubjectsCache).evict("teacher1");
+        verify(teacherSubjectsCache).evict("teacher2");
+    }
+
+    @Test
+    void updateSubject_unknownTeacher_isRejected() {
+        Subject existingSubject = new Subject();
+        existingSubject.setSubject_Id(1L);
+        existingSubject.setTeacherUsername("teacher1");
+
+        Subject changes = new Subject();
+        changes.setSubject_Id(1L);
+        changes.setTeacherUsername("nobody");
+
+        when(subjectRepository.findById(1L)).thenReturn(Optional.of(existingSubject));
+        when(userRepository.findByUsername("nobody")).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> subjectService.updateSubject(changes));
+        verify(subjectRepository, never()).save(any());
+    }
+
     @Test
     void deleteSubject_SubjectExists() {
         Long subjectId = 1L;
@@ -164,6 +316,44 @@ class SubjectServiceTest {
         subjectService.deleteSubject(subjectId);
 
         verify(subjectRepository, times(1)).delete(subject);
+        verify(teacherSubjectsCache).evict(subject.getTeacherUsername());
+    }
+
+    @Test
+    void getSubjectsByTeacher_isServedFromCacheUntilEvicted() {
+        List<SubjectSummary> rows = List.of(new SubjectSummary(1L, "Math", "Safaa"));
+        when(subjectRepository.findSummariesByTeacherUsername("safaa")).thenReturn(rows);
+
+        assertEquals(rows, subjectService.getSubjectsByTeacher("safaa"));
+        assertEquals(rows, subjectService.getSubjectsByTeacher("safaa"));
+        verify(subjectRepository, times(1)).findSummariesByTeacherUsername("safaa");
+
+        teacherSubjectsCache.evict("safaa");
+        subjectService.getSubjectsByTeacher("safaa");
+        verify(subjectRepository, times(2)).findSummariesByTeacherUsername("safaa");
+        verify(userRepository, never()).findByUsername(any());
+    }
+
+    @Test
+    void getSubjectsByTeacher_unknownTeacher_throwsAndIsNotCached() {
+        when(subjectRepository.findSummariesByTeacherUsername("ghost")).thenReturn(List.of());
+        when(userRepository.findByUsername("ghost")).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> subjectService.getSubjectsByTeacher("ghost"));
+        assertThrows(RuntimeException.class, () -> subjectService.getSubjectsByTeacher("ghost"));
+        verify(subjectRepository, times(2)).findSummariesByTeacherUsername("ghost");
+    }
+
+    @Test
+    void addSubject_evictsTeacherSubjects() {
+        User teacher = new User();
+        teacher.setUsername("safaa");
+        teacher.setRole(Roles.TEACHER);
+        when(userRepository.findByUsername("safaa")).thenReturn(Optional.of(teacher));
+
+        subjectService.addSubject(new SubjectDTO(null, "Math", "safaa"));
+
+        verify(teacherSubjectsCache).evict("safaa");
     }
 
     @Test
@@ -0,0 +1,35 @@
+package com.Gestion_Note.Note.Services;
+
+import com.Gestion_Note.Note.DTO.SubjectSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TeacherSubjectsCacheTest {
+
+    private final TeacherSubjectsCache cache = new TeacherSubjectsCache(10, 600);
+
+    @Test
+    void evictInsideTransaction_dropsListReloadedBeforeCommit() {
+        List<SubjectSummary> before = List.of(new SubjectSummary(1L, "Math", "Safaa"));
+        List<SubjectSummary> after = List.of(new SubjectSummary(1L, "Math", "Safaa"), new SubjectSummary(2L, "Art", "Safaa"));
+        cache.get("safaa", username -> before);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.evict("safaa");
+            // A concurrent reader still sees the uncommitted state and caches it
+            cache.get("safaa", username -> before);
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(after, cache.get("safaa", username -> after));
+    }
+}
@@ -0,0 +1,54 @@
+package com.Gestion_Note.Note.Security;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterTest {
+
+    @Test
+    void tryAcquire_allowsBurstUpToCapacity() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, 1, 100, 600);
+
+        assertEquals(0, limiter.tryAcquire("ip:1"));
+        assertEquals(0, limiter.tryAcquire("ip:1"));
+        assertEquals(0, limiter.tryAcquire("ip:1"));
+
+        long retryAfter = limiter.tryAcquire("ip:1");
+        assertTrue(retryAfter > 0);
+        assertTrue(retryAfter <= 60);
+        assertEquals(1, limiter.getRejected());
+    }
+
+    @Test
+    void tryAcquire_keysAreIndependent() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 100, 600);
+
+        assertEquals(0, limiter.tryAcquire("email:a@example.com"));
+        assertTrue(limiter.tryAcquire("email:a@example.com") > 0);
+        assertEquals(0, limiter.tryAcquire("email:b@example.com"));
+    }
+
+    @Test
+    void refund_returnsTheToken() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 100, 600);
+
+        assertEquals(0, limiter.tryAcquire("ip:1"));
+        limiter.refund("ip:1");
+
+        assertEquals(0, limiter.tryAcquire("ip:1"));
+        assertTrue(limiter.tryAcquire("ip:1") > 0);
+    }
+
+    @Test
+    void tryAcquire_staysWithinMaxEntries() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 10, 600);
+
+        for (int i = 0; i < 100; i++) {
+            limiter.tryAcquire("ip:" + i);
+        }
+
+        assertTrue(limiter.size() <= 10);
+        assertTrue(limiter.getEvicted() > 0);
+    }
+}
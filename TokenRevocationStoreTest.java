@@ -0,0 +1,56 @@
+package com.Gestion_Note.Note.Security;
+
+import com.Gestion_Note.Note.Entities.RevokedToken;
+import com.Gestion_Note.Note.Repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationStoreTest {
+
+    @Mock
+    private RevokedTokenRepository revokedTokenRepository;
+
+    private TokenRevocationStore store;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        store = new TokenRevocationStore(revokedTokenRepository);
+    }
+
+    @Test
+    void revoke_isVisibleWithoutDatabaseLookup() {
+        store.revoke("jti-1", new Date(System.currentTimeMillis() + 60000));
+
+        assertTrue(store.isRevoked("jti-1"));
+        assertFalse(store.isRevoked("jti-2"));
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+        verify(revokedTokenRepository, never()).findById(anyString());
+    }
+
+    @Test
+    void revoke_alreadyExpiredToken_isIgnored() {
+        store.revoke("jti-1", new Date(System.currentTimeMillis() - 1000));
+
+        assertFalse(store.isRevoked("jti-1"));
+        verify(revokedTokenRepository, never()).save(any());
+    }
+
+    @Test
+    void load_restoresPersistedRevocations() {
+        RevokedToken persisted = new RevokedToken("jti-3", new Date(System.currentTimeMillis() + 60000));
+        when(revokedTokenRepository.findByExpiresAtAfter(any(Date.class))).thenReturn(List.of(persisted));
+
+        store.load();
+
+        assertTrue(store.isRevoked("jti-3"));
+        assertEquals(1, store.size());
+    }
+}
@@ -0,0 +1,79 @@
+package com.Gestion_Note.Note.Security;
+
+import com.Gestion_Note.Note.Repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TokenVersionStoreTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private UserRepository.UserTokenVersion bumped;
+
+    private TokenVersionStore store;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(bumped.getUserId()).thenReturn(7L);
+        when(bumped.getTokenVersion()).thenReturn(2);
+        when(userRepository.findBumpedTokenVersions()).thenReturn(List.of(bumped));
+        when(userRepository.existsById(8L)).thenReturn(true);
+
+        store = new TokenVersionStore(userRepository);
+        store.load();
+    }
+
+    @Test
+    void load_restoresBumpedVersions() {
+        assertEquals(2, store.currentVersion(7L));
+        assertEquals(0, store.currentVersion(8L));
+    }
+
+    @Test
+    void isFresh_rejectsOlderTokens() {
+        assertFalse(store.isFresh(7L, 1));
+        assertTrue(store.isFresh(7L, 2));
+        assertTrue(store.isFresh(8L, 0));
+    }
+
+    @Test
+    void recordDeleted_rejectsEveryToken() {
+        store.recordDeleted(8L);
+
+        assertFalse(store.isFresh(8L, 5));
+    }
+
+    @Test
+    void isFresh_userDeletedBeforeRestart_isRejected() {
+        when(userRepository.existsById(9L)).thenReturn(false);
+
+        assertFalse(store.isFresh(9L, 0));
+        assertFalse(store.isFresh(9L, 0));
+
+        verify(userRepository, times(1)).existsById(9L);
+    }
+
+    @Test
+    void isFresh_checksExistenceOncePerUser() {
+        assertTrue(store.isFresh(8L, 0));
+        assertTrue(store.isFresh(8L, 0));
+
+        verify(userRepository, times(1)).existsById(8L);
+    }
+
+    @Test
+    void recordVersion_neverGoesBackwards() {
+        store.recordVersion(7L, 1);
+
+        assertEquals(2, store.currentVersion(7L));
+    }
+}
@@ -0,0 +1,57 @@
+package com.Gestion_Note.Note.Services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadLimitsTest {
+
+    private final UploadLimits uploadLimits = new UploadLimits(20, 50, 10);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void maxBytesFor_dependsOnRole() {
+        assertEquals(20, uploadLimits.maxBytesFor(authenticated("ROLE_STUDENT")));
+        assertEquals(50, uploadLimits.maxBytesFor(authenticated("ROLE_TEACHER")));
+        assertEquals(50, uploadLimits.maxBytesFor(authenticated("ROLE_ADMIN")));
+        assertEquals(10, uploadLimits.maxBytesFor(authenticated("ROLE_PARENT")));
+        assertEquals(10, uploadLimits.maxBytesFor(null));
+    }
+
+    @Test
+    void largestMaxBytes_isTheMostPrivilegedLimit() {
+        assertEquals(50, uploadLimits.largestMaxBytes());
+    }
+
+    @Test
+    void checkedLimit_returnsLimitForCurrentUser() {
+        SecurityContextHolder.getContext().setAuthentication(authenticated("ROLE_STUDENT"));
+
+        assertEquals(20, uploadLimits.checkedLimit(new MockMultipartFile("file", new byte[20])));
+    }
+
+    @Test
+    void checkedLimit_rejectsDeclaredSizeOverLimit() {
+        SecurityContextHolder.getContext().setAuthentication(authenticated("ROLE_STUDENT"));
+
+        UploadTooLargeException e = assertThrows(UploadTooLargeException.class,
+                () -> uploadLimits.checkedLimit(new MockMultipartFile("file", new byte[21])));
+        assertEquals(20, e.getMaxBytes());
+    }
+
+    private static Authentication authenticated(String authority) {
+        return new UsernamePasswordAuthenticationToken("user", null, List.of(new SimpleGrantedAuthority(authority)));
+    }
+}
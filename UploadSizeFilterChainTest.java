@@ -0,0 +1,60 @@
+package com.Gestion_Note.Note.Config;
+
+import com.Gestion_Note.Note.Controllers.StudentSubmissionController;
+import com.Gestion_Note.Note.Services.StudentSubmissionService;
+import com.Gestion_Note.Note.Services.UploadLimits;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Goes through the application's own SecurityFilterChain, where the filter is registered
+@WebMvcTest(StudentSubmissionController.class)
+@Import({SecurityConfiguration.class, UploadLimits.class})
+@TestPropertySource(properties = "storage.uploads.student-max-bytes=1024")
+class UploadSizeFilterChainTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StudentSubmissionService submissionService;
+
+    @MockBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @MockBean
+    private AuthenticationProvider authenticationProvider;
+
+    @BeforeEach
+    void passThroughJwtFilter() throws Exception {
+        doAnswer(invocation -> {
+            invocation.<FilterChain>getArgument(2).doFilter(invocation.getArgument(0), invocation.getArgument(1));
+            return null;
+        }).when(jwtAuthenticationFilter).doFilter(any(), any(), any());
+    }
+
+    @Test
+    @WithMockUser(roles = {"STUDENT"})
+    void oversizedUpload_isAnswered413NotUnauthorized() throws Exception {
+        mockMvc.perform(post("/student-submissions/submit/1")
+                        .contentType("multipart/form-data; boundary=xyz")
+                        .content(new byte[200 * 1024]))
+                .andExpect(status().isPayloadTooLarge())
+                .andExpect(content().string("File exceeds the upload limit of 1024 bytes"));
+
+        verifyNoInteractions(submissionService);
+    }
+}
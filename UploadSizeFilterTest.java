@@ -0,0 +1,80 @@
+package com.Gestion_Note.Note.Config;
+
+import com.Gestion_Note.Note.Services.UploadLimits;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadSizeFilterTest {
+
+    private static final long STUDENT_MAX = 1024 * 1024;
+
+    private final UploadSizeFilter filter = new UploadSizeFilter(new UploadLimits(STUDENT_MAX, 4 * STUDENT_MAX, STUDENT_MAX / 2));
+
+    @BeforeEach
+    void authenticateStudent() {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "student", null, List.of(new SimpleGrantedAuthority("ROLE_STUDENT"))));
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void oversizedMultipart_isRejectedBeforeTheChain() throws Exception {
+        MockHttpServletRequest request = multipart(3 * STUDENT_MAX);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(413, response.getStatus());
+        // No sendError, so the container has no ERROR dispatch to run through security
+        assertNull(response.getErrorMessage());
+        assertEquals("File exceeds the upload limit of " + STUDENT_MAX + " bytes", response.getContentAsString());
+        assertNull(chain.getRequest());
+    }
+
+    @Test
+    void multipartWithinLimit_passes() throws Exception {
+        MockHttpServletRequest request = multipart(STUDENT_MAX);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, response, chain);
+
+        assertEquals(200, response.getStatus());
+        assertNotNull(chain.getRequest());
+    }
+
+    @Test
+    void nonMultipartRequest_isNotChecked() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/subject/bulk");
+        request.setContentType("application/json");
+        request.setContent(new byte[(int) (3 * STUDENT_MAX)]);
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+    }
+
+    private static MockHttpServletRequest multipart(long length) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/student-submissions/submit/1");
+        request.setContentType("multipart/form-data; boundary=xyz");
+        request.setContent(new byte[(int) length]);
+        return request;
+    }
+}
@@ -1,6 +1,13 @@
 package com.Gestion_Note.Note.Controllers;
 
+import com.Gestion_Note.Note.DTO.CursorPage;
+import com.Gestion_Note.Note.DTO.UserSummary;
+import com.Gestion_Note.Note.Entities.Group;
+import com.Gestion_Note.Note.Entities.Roles;
+import com.Gestion_Note.Note.Entities.Student;
 import com.Gestion_Note.Note.Entities.User;
+import com.Gestion_Note.Note.Services.BulkRegistrationService;
+import com.Gestion_Note.Note.Services.UserSearchIndex;
 import com.Gestion_Note.Note.Services.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -18,6 +25,7 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Optional;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -34,6 +42,12 @@ class UserControllerTest {
     @MockBean
     private UserService userService;
 
+    @MockBean
+    private BulkRegistrationService bulkRegistrationService;
+
+    @MockBean
+    private UserSearchIndex userSearchIndex;
+
     private User testUser;
 
     @BeforeEach
@@ -52,24 +66,54 @@ class UserControllerTest {
     @Test
     @WithMockUser(roles = {"ADMIN"})
     void testGetAllUsers_success() throws Exception {
-        when(userService.getAllUsers()).thenReturn(Arrays.asList(testUser));
+        UserSummary summary = new UserSummary(testUser.getUser_id(), testUser.getName(), "adnan", testUser.getEmail(), Roles.STUDENT);
+        when(userService.getUsers(null, null, null))
+                .thenReturn(new CursorPage<>(Arrays.asList(summary), 1L, 50));
 
         mockMvc.perform(get("/user/all"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].user_id").value(testUser.getUser_id()))
-                .andExpect(jsonPath("$[0].name").value(testUser.getName()));
+                .andExpect(jsonPath("$.items[0].user_id").value(testUser.getUser_id()))
+                .andExpect(jsonPath("$.items[0].name").value(testUser.getName()))
+                .andExpect(jsonPath("$.items[0].password").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value(1))
+                .andExpect(jsonPath("$.limit").value(50));
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void testGetAllUsers_withRoleAndCursor() throws Exception {
+        when(userService.getUsers(Roles.TEACHER, 5L, 20))
+                .thenReturn(new CursorPage<>(Collections.emptyList(), null, 20));
+
+        mockMvc.perform(get("/user/all").param("role", "TEACHER").param("cursor", "5").param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
     }
 
     @Test
     @WithMockUser(roles = {"ADMIN"})
     void testGetAllUsers_noContent() throws Exception {
-        when(userService.getAllUsers()).thenReturn(Collections.emptyList());
+        when(userService.getUsers(null, null, null)).thenReturn(new CursorPage<>(Collections.emptyList(), null, 50));
 
         mockMvc.perform(get("/user/all"))
                 .andExpect(status().isNoContent())
                 .andExpect(content().string("No users found"));
     }
 
+    // GET /user/search
+    @Test
+    @WithMockUser(roles = {"TEACHER"})
+    void testSearchUsers() throws Exception {
+        UserSummary summary = new UserSummary(7L, "Jean Dupont", "jdupont", "jean@example.com", Roles.STUDENT);
+        when(userSearchIndex.search("dup", Roles.STUDENT, 5)).thenReturn(Arrays.asList(summary));
+
+        mockMvc.perform(get("/user/search").param("q", "dup").param("role", "STUDENT").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].user_id").value(7))
+                .andExpect(jsonPath("$[0].username").value("jdupont"));
+    }
+
     // PUT /user/update
     @Test
     @WithMockUser(roles = {"ADMIN"})
@@ -105,7 +149,41 @@ class UserControllerTest {
                         .param("user_id", "1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.user_id").value(1L))
-                .andExpect(jsonPath("$.name").value("Safaa"));
+                .andExpect(jsonPath("$.name").value("Safaa"))
+                .andExpect(header().string("ETag", "\"user-1-0-0-0\""));
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void testGetUser_student_tagFollowsGroup() throws Exception {
+        Group group = new Group();
+        group.setGroupId(7L);
+        group.setVersion(3L);
+        Student student = new Student();
+        student.setUser_id(2L);
+        student.setVersion(1L);
+        student.setGroup(group);
+        when(userService.getUser(2L)).thenReturn(student);
+
+        mockMvc.perform(get("/user/get")
+                        .param("user_id", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"user-2-1-7-3\""));
+    }
+
+    @Test
+    @WithMockUser(roles = {"ADMIN"})
+    void testGetUser_ifNoneMatchCurrent_returns304WithoutLoading() throws Exception {
+        when(userService.getUserVersionTag(1L)).thenReturn(Optional.of("2-7-3"));
+
+        mockMvc.perform(get("/user/get")
+                        .param("user_id", "1")
+                        .header("If-None-Match", "\"user-1-2-7-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"user-1-2-7-3\""))
+                .andExpect(content().string(""));
+
+        verify(userService, never()).getUser(anyLong());
     }
 
     @Test
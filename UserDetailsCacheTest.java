@@ -0,0 +1,64 @@
+package com.Gestion_Note.Note.Security;
+
+import com.Gestion_Note.Note.Entities.Roles;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserDetailsCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private final Function<String, CustomUserDetails> loader = email -> {
+        loads.incrementAndGet();
+        return new CustomUserDetails((long) loads.get(), email, Roles.STUDENT, 0);
+    };
+
+    @Test
+    void get_cachesUntilEvicted() {
+        UserDetailsCache cache = new UserDetailsCache(10, 60);
+
+        CustomUserDetails first = cache.get("a@example.com", loader);
+        CustomUserDetails second = cache.get("a@example.com", loader);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+
+        cache.evict("a@example.com");
+        cache.get("a@example.com", loader);
+
+        assertEquals(2, loads.get());
+        assertEquals(1L, cache.stats().get("hits"));
+        assertEquals(2L, cache.stats().get("misses"));
+        assertEquals(1L, cache.stats().get("invalidations"));
+    }
+
+    @Test
+    void get_evictsLeastRecentlyUsedBeyondMaxSize() {
+        UserDetailsCache cache = new UserDetailsCache(2, 60);
+
+        cache.get("a@example.com", loader);
+        cache.get("b@example.com", loader);
+        cache.get("a@example.com", loader);
+        cache.get("c@example.com", loader);
+
+        assertEquals(2L, cache.stats().get("size"));
+        assertEquals(1L, cache.stats().get("evictions"));
+
+        cache.get("a@example.com", loader);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void get_expiredEntryIsReloaded() {
+        UserDetailsCache cache = new UserDetailsCache(10, 0);
+
+        cache.get("a@example.com", loader);
+        cache.get("a@example.com", loader);
+
+        assertEquals(2, loads.get());
+    }
+}
@@ -0,0 +1,109 @@
+package com.Gestion_Note.Note.Services;
+
+import com.Gestion_Note.Note.DTO.UserSummary;
+import com.Gestion_Note.Note.Entities.Roles;
+import com.Gestion_Note.Note.Repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserSearchIndexTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserSearchIndex index;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(userRepository.findSummariesAfter(eq(0L), any())).thenReturn(Arrays.asList(
+                new UserSummary(1L, "Jean Dupont", "jdupont", "jean.dupont@school.ma", Roles.STUDENT),
+                new UserSummary(2L, "Marie Curie", "mcurie", "marie@school.ma", Roles.TEACHER),
+                new UserSummary(3L, "Paul Dupuis", "pdupuis", "paul@school.ma", Roles.STUDENT)
+        ));
+        when(userRepository.findSummariesAfter(eq(3L), any())).thenReturn(Collections.emptyList());
+        index = new UserSearchIndex(userRepository);
+        index.load();
+    }
+
+    private List<Long> ids(List<UserSummary> users) {
+        return users.stream().map(UserSummary::getUser_id).toList();
+    }
+
+    @Test
+    void search_matchesPrefixOfAnyField_caseInsensitive() {
+        assertEquals(List.of(1L, 3L), ids(index.search("DUP", null, null)));
+        assertEquals(List.of(2L), ids(index.search("marie@", null, null)));
+        assertEquals(List.of(2L), ids(index.search("mcu", null, null)));
+    }
+
+    @Test
+    void search_matchesSubstringWithTrigrams() {
+        assertEquals(List.of(2L), ids(index.search("urie", null, null)));
+        assertTrue(index.search("xyz", null, null).isEmpty());
+    }
+
+    @Test
+    void search_filtersByRole_andHonoursLimit() {
+        assertTrue(index.search("dup", Roles.TEACHER, null).isEmpty());
+        assertEquals(1, index.search("dup", Roles.STUDENT, 1).size());
+        assertTrue(index.search("  ", null, null).isEmpty());
+    }
+
+    @Test
+    void index_replacesPreviousEntry_andRemoveForgetsUser() {
+        index.index(new UserSummary(2L, "Marie Sklodowska", "msklodowska", "marie@school.ma", Roles.TEACHER));
+
+        assertTrue(index.search("mcurie", null, null).isEmpty());
+        assertEquals(List.of(2L), ids(index.search("sklo", null, null)));
+
+        index.remove(2L);
+
+        assertTrue(index.search("sklo", null, null).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void changesInsideTransaction_applyOnlyOnCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.index(new UserSummary(4L, "Ada Lovelace", "alovelace", "ada@school.ma", Roles.TEACHER));
+            index.remove(1L);
+
+            assertTrue(index.search("lovelace", null, null).isEmpty());
+            assertEquals(List.of(1L, 3L), ids(index.search("dup", null, null)));
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+
+            assertEquals(List.of(4L), ids(index.search("lovelace", null, null)));
+            assertEquals(List.of(3L), ids(index.search("dup", null, null)));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void changesOfRolledBackTransaction_areDropped() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.remove(1L);
+
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(List.of(1L, 3L), ids(index.search("dup", null, null)));
+    }
+}
@@ -1,12 +1,17 @@
 package com.Gestion_Note.Note.Services;
 
+import com.Gestion_Note.Note.DTO.CursorPage;
+import com.Gestion_Note.Note.DTO.UserSummary;
 import com.Gestion_Note.Note.Entities.Roles;
 import com.Gestion_Note.Note.Entities.User;
 import com.Gestion_Note.Note.Repository.UserRepository;
+import com.Gestion_Note.Note.Security.TokenVersionStore;
+import com.Gestion_Note.Note.Security.UserDetailsCache;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.*;
@@ -22,6 +27,18 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private TokenVersionStore tokenVersionStore;
+
+    @Mock
+    private UserDetailsCache userDetailsCache;
+
+    @Mock
+    private UserSearchIndex userSearchIndex;
+
+    @Mock
+    private GroupMembershipIndex membershipIndex;
+
     @InjectMocks
     private UserService userService;
 
@@ -30,15 +47,45 @@ class UserServiceTest {
         MockitoAnnotations.openMocks(this);
     }
 
+    private UserSummary summary(long id) {
+        return new UserSummary(id, "user" + id, "user" + id, "user" + id + "@example.com", Roles.STUDENT);
+    }
+
+    @Test
+    void getUsers_lastPage_hasNoCursor() {
+        when(userRepository.findSummariesAfter(0L, PageRequest.of(0, 51)))
+                .thenReturn(Arrays.asList(summary(1), summary(2)));
+
+        CursorPage<UserSummary> page = userService.getUsers(null, null, null);
+
+        assertEquals(2, page.getItems().size());
+        assertNull(page.getNextCursor());
+        assertEquals(50, page.getLimit());
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    void getUsers_morePages_returnsLastIdAsCursor() {
+        when(userRepository.findSummariesAfter(10L, PageRequest.of(0, 3)))
+                .thenReturn(Arrays.asList(summary(11), summary(12), summary(13)));
+
+        CursorPage<UserSummary> page = userService.getUsers(null, 10L, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertEquals(12L, page.getNextCursor());
+    }
+
     @Test
-    void getAllUsers_ReturnsUsers() {
-        List<User> users = Arrays.asList(new User(), new User());
-        when(userRepository.findAll()).thenReturn(users);
+    void getUsers_withRole_queriesOnlyThatRole_andCapsSize() {
+        when(userRepository.findTeacherSummariesAfter(0L, PageRequest.of(0, Paging.MAX_PAGE_SIZE + 1)))
+                .thenReturn(Collections.emptyList());
 
-        List<User> result = userService.getAllUsers();
+        CursorPage<UserSummary> page = userService.getUsers(Roles.TEACHER, null, 10000);
 
-        assertEquals(2, result.size());
-        verify(userRepository, times(1)).findAll();
+        assertTrue(page.getItems().isEmpty());
+        assertEquals(Paging.MAX_PAGE_SIZE, page.getLimit());
+        verify(userRepository, never()).findSummariesAfter(anyLong(), any());
+        verify(userRepository, never()).findStudentSummariesAfter(anyLong(), any());
     }
 
     @Test
@@ -85,6 +132,10 @@ class UserServiceTest {
         userService.deleteUser(1L);
 
         verify(userRepository, times(1)).delete(user);
+        verify(tokenVersionStore, times(1)).recordDeleted(1L);
+        verify(userDetailsCache, times(1)).evict(user.getEmail());
+        verify(userSearchIndex, times(1)).remove(1L);
+        verify(membershipIndex, times(1)).removeUser(1L);
     }
 
     @Test
@@ -155,6 +206,38 @@ class UserServiceTest {
         verify(userRepository, times(1)).save(existingUser);
     }
 
+    @Test
+    void updateUser_RoleChange_BumpsTokenVersion() {
+        User existingUser = new User(1L, "Bob", "bob123", "bob@example.com", "oldPassword", Roles.STUDENT);
+
+        User inputUser = new User(1L, "Bob", "bob123", "bob@example.com", null, Roles.TEACHER);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(existingUser));
+        when(userRepository.save(any(User.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        User updated = userService.updateUser(inputUser);
+
+        assertEquals(1, updated.getTokenVersion());
+        verify(tokenVersionStore, times(1)).recordVersion(1L, 1);
+        verify(userDetailsCache, atLeastOnce()).evict("bob@example.com");
+    }
+
+    @Test
+    void updateUser_NameOnly_KeepsTokenVersion() {
+        User existingUser = new User(1L, "Bob", "bob123", "bob@example.com", "oldPassword", Roles.STUDENT);
+
+        User inputUser = new User(1L, "Robert", "bob123", "bob@example.com", null, Roles.STUDENT);
+
+        when(userRepository.findById(1L)).thenReturn(Optional.of(existingUser));
+        when(userRepository.save(any(User.class))).thenAnswer(i -> i.getArguments()[0]);
+
+        User updated = userService.updateUser(inputUser);
+
+        assertEquals(0, updated.getTokenVersion());
+        verify(tokenVersionStore, never()).recordVersion(anyLong(), anyInt());
+        verify(userSearchIndex, times(1)).index(existingUser);
+    }
+
     @Test
     void updateUser_UserNotFound_Throws() {
         User inputUser = new User();
@@ -3,8 +3,14 @@ package com.Gestion_Note.Note.Config;
 import com.Gestion_Note.Note.Entities.User;
 import com.Gestion_Note.Note.Repository.UserRepository;
 import com.Gestion_Note.Note.Security.CustomUserDetails;
+import com.Gestion_Note.Note.Security.UserDetailsCache;
+import com.Gestion_Note.Note.Services.UploadLimits;
+import jakarta.servlet.MultipartConfigElement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.MultipartConfigFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -12,31 +18,49 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.util.unit.DataSize;
 
 
 @Configuration
+@EnableScheduling
 public class ApplicationConfiguration {
     private final UserRepository userRepository;
+    private final UserDetailsCache userDetailsCache;
 
-    public ApplicationConfiguration(UserRepository userRepository) {
+    // Existing hashes with a lower cost are transparently re-hashed at the next successful login
+    @Value("${security.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    public ApplicationConfiguration(UserRepository userRepository, UserDetailsCache userDetailsCache) {
         this.userRepository = userRepository;
+        this.userDetailsCache = userDetailsCache;
     }
 
     @Bean
     public UserDetailsService userDetailsService() {
-        return email -> {
-            User utilisateur = userRepository.findByEmail(email)
-                    .orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé : " + email));
+        return email -> userDetailsCache.get(email, key -> {
+            User utilisateur = userRepository.findByEmail(key)
+                    .orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé : " + key));
 
             return new CustomUserDetails(utilisateur);
-        };
+        });
     }
 
 
 
+    // Replaces the spring.servlet.multipart defaults (1 MB per file, 10 MB per request), which would
+    // reject uploads long before UploadLimits does; the per-role limits are enforced by UploadSizeFilter
+    @Bean
+    MultipartConfigElement multipartConfigElement(UploadLimits uploadLimits) {
+        MultipartConfigFactory factory = new MultipartConfigFactory();
+        factory.setMaxFileSize(DataSize.ofBytes(uploadLimits.largestMaxBytes()));
+        factory.setMaxRequestSize(DataSize.ofBytes(uploadLimits.largestMaxBytes() + UploadSizeFilter.MULTIPART_OVERHEAD));
+        return factory.createMultipartConfig();
+    }
+
     @Bean
     BCryptPasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BCryptPasswordEncoder(bcryptStrength);
     }
 
     @Bean
@@ -53,4 +77,4 @@ public class ApplicationConfiguration {
 
         return authProvider;
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
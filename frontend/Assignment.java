@@ -1,9 +1,13 @@
 package com.Gestion_Note.Note.Entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.util.Date;
 
 @Entity
+// Teacher-scoped exports filter on the username
+@Table(indexes = @Index(name = "idx_assignment_teacher_username", columnList = "teacherUsername"))
 public class Assignment {
 
     @Id
@@ -14,8 +18,12 @@ public class Assignment {
 
     private String description;
 
-    @Lob
-    private byte[] fileData;
+    // Content lives in the blob store under this SHA-256; only the download endpoints read it
+    @JsonIgnore
+    @Column(length = 64)
+    private String fileHash;
+
+    private Long fileSize;
 
     private String fileName;
     private String fileType;
@@ -42,12 +50,20 @@ public class Assignment {
 
     private String teacherUsername;
 
-    @Lob
-    private byte[] submittedFileData;
+    @JsonIgnore
+    @Column(length = 64)
+    private String submittedFileHash;
+
+    private Long submittedFileSize;
 
     private String submittedFileName;
     private String submittedFileType;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     // Auto-set uploadedAt when persisted
     @PrePersist
     protected void onCreate() {
@@ -65,8 +81,11 @@ public class Assignment {
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
 
-    public byte[] getFileData() { return fileData; }
-    public void setFileData(byte[] fileData) { this.fileData = fileData; }
+    public String getFileHash() { return fileHash; }
+    public void setFileHash(String fileHash) { this.fileHash = fileHash; }
+
+    public Long getFileSize() { return fileSize; }
+    public void setFileSize(Long fileSize) { this.fileSize = fileSize; }
 
     public String getFileName() { return fileName; }
     public void setFileName(String fileName) { this.fileName = fileName; }
@@ -95,12 +114,18 @@ public class Assignment {
     public String getTeacherUsername() { return teacherUsername; }
     public void setTeacherUsername(String teacherUsername) { this.teacherUsername = teacherUsername; }
 
-    public byte[] getSubmittedFileData() { return submittedFileData; }
-    public void setSubmittedFileData(byte[] submittedFileData) { this.submittedFileData = submittedFileData; }
+    public String getSubmittedFileHash() { return submittedFileHash; }
+    public void setSubmittedFileHash(String submittedFileHash) { this.submittedFileHash = submittedFileHash; }
+
+    public Long getSubmittedFileSize() { return submittedFileSize; }
+    public void setSubmittedFileSize(Long submittedFileSize) { this.submittedFileSize = submittedFileSize; }
 
     public String getSubmittedFileName() { return submittedFileName; }
     public void setSubmittedFileName(String submittedFileName) { this.submittedFileName = submittedFileName; }
 
     public String getSubmittedFileType() { return submittedFileType; }
     public void setSubmittedFileType(String submittedFileType) { this.submittedFileType = submittedFileType; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
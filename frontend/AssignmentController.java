@@ -1,10 +1,15 @@
 package com.Gestion_Note.Note.Controllers;
 
+import com.Gestion_Note.Note.DTO.AssignmentFile;
+import com.Gestion_Note.Note.DTO.AssignmentSummary;
 import com.Gestion_Note.Note.Entities.Assignment;
 import com.Gestion_Note.Note.Services.AssignmentService;
+import com.Gestion_Note.Note.Services.UploadTooLargeException;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -36,6 +41,8 @@ public class AssignmentController {
         try {
             assignmentService.uploadAssignment(title, description, teacherUsername, file, dueDate);
             return ResponseEntity.ok("Assignment uploaded successfully.");
+        } catch (UploadTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error uploading assignment: " + e.getMessage());
         }
@@ -53,6 +60,8 @@ public class AssignmentController {
         try {
             assignmentService.updateAssignment(id, title, description, teacherUsername, file, dueDate);
             return ResponseEntity.ok("Assignment updated successfully.");
+        } catch (UploadTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(e.getMessage());
         } catch (IOException e) {
             return ResponseEntity.badRequest().body("Error updating file: " + e.getMessage());
         } catch (EntityNotFoundException e) {
@@ -61,17 +70,55 @@ public class AssignmentController {
     }
 
     @GetMapping
-    public List<Assignment> getAllAssignments() {
+    public List<AssignmentSummary> getAllAssignments() {
         return assignmentService.getAllAssignments();
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Assignment> getAssignmentById(@PathVariable Long id) {
+    public ResponseEntity<Assignment> getAssignmentById(@PathVariable Long id,
+                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String unchanged = EntityTags.currentIfMatched(ifNoneMatch, "assignment", id,
+                () -> assignmentService.getAssignmentVersionTag(id));
+        if (unchanged != null) {
+            return EntityTags.notModified(unchanged);
+        }
         Optional<Assignment> assignment = assignmentService.getAssignmentById(id);
-        return assignment.map(ResponseEntity::ok)
+        return assignment.map(a -> ResponseEntity.ok().eTag(EntityTags.etag("assignment", id, versionTag(a))).body(a))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/file")
+    public ResponseEntity<?> downloadAssignmentFile(@PathVariable Long id, @RequestHeader HttpHeaders headers) {
+        try {
+            return fileResponse(assignmentService.getAssignmentFile(id), "assignment_" + id, headers);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/{id}/submission/file")
+    public ResponseEntity<?> downloadSubmittedFile(@PathVariable Long id, @RequestHeader HttpHeaders headers) {
+        try {
+            return fileResponse(assignmentService.getSubmittedFile(id), "submission_" + id, headers);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    private ResponseEntity<?> fileResponse(AssignmentFile file, String fallbackName, HttpHeaders headers) throws IOException {
+        return FileDownloads.respond(file, assignmentService.openFile(file), fallbackName, headers);
+    }
+
+    private static String versionTag(Assignment assignment) {
+        return EntityTags.version(assignment.getVersion(),
+                assignment.getTeacher() != null ? assignment.getTeacher().getVersion() : null,
+                assignment.getStudent() != null ? assignment.getStudent().getVersion() : null);
+    }
+
     @DeleteMapping("/delete/{id}")
     public ResponseEntity<String> deleteAssignment(@PathVariable Long id) {
         try {
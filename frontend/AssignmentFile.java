@@ -0,0 +1,31 @@
+package com.Gestion_Note.Note.DTO;
+
+public class AssignmentFile {
+    private final String fileName;
+    private final String fileType;
+    private final String hash;
+    private final Long size;
+
+    public AssignmentFile(String fileName, String fileType, String hash, Long size) {
+        this.fileName = fileName;
+        this.fileType = fileType;
+        this.hash = hash;
+        this.size = size;
+    }
+
+    public String getFileName() {
+        return fileName;
+    }
+
+    public String getFileType() {
+        return fileType;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+}
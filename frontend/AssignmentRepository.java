@@ -1,9 +1,58 @@
 package com.Gestion_Note.Note.Repository;
 
+import com.Gestion_Note.Note.DTO.AssignmentFile;
+import com.Gestion_Note.Note.DTO.AssignmentSummary;
 import com.Gestion_Note.Note.Entities.Assignment;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface AssignmentRepository extends JpaRepository <Assignment, Long> {
+
+    // The payload embeds the teacher and student, so their versions are part of the tag
+    @Query("select concat(str(coalesce(a.version, 0)), '-', str(coalesce(t.version, 0)), '-', " +
+            "str(coalesce(s.version, 0))) from Assignment a left join a.teacher t left join a.student s " +
+            "where a.id = :id")
+    Optional<String> findVersionTag(@Param("id") Long id);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.Gestion_Note.Note.DTO.AssignmentSummary(a.id, a.title, a.description, a.status, " +
+            "a.teacherUsername, s.user_id, a.fileName, a.fileType, a.submittedFileName, a.submittedFileType, " +
+            "a.uploadedAt, a.dueDate, a.submittedAt) from Assignment a left join a.student s order by a.id")
+    Stream<AssignmentSummary> streamSummaries();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.Gestion_Note.Note.DTO.AssignmentSummary(a.id, a.title, a.description, a.status, " +
+            "a.teacherUsername, s.user_id, a.fileName, a.fileType, a.submittedFileName, a.submittedFileType, " +
+            "a.uploadedAt, a.dueDate, a.submittedAt) from Assignment a left join a.student s " +
+            "where a.teacherUsername = :teacherUsername order by a.id")
+    Stream<AssignmentSummary> streamSummariesByTeacher(@Param("teacherUsername") String teacherUsername);
+
+    @Query("select new com.Gestion_Note.Note.DTO.AssignmentSummary(a.id, a.title, a.description, a.status, " +
+            "a.teacherUsername, s.user_id, a.fileName, a.fileType, a.submittedFileName, a.submittedFileType, " +
+            "a.uploadedAt, a.dueDate, a.submittedAt) from Assignment a left join a.student s order by a.id")
+    List<AssignmentSummary> findSummaries();
+
+    @Query("select new com.Gestion_Note.Note.DTO.AssignmentFile(a.fileName, a.fileType, a.fileHash, a.fileSize) " +
+            "from Assignment a where a.id = :id and a.fileHash is not null")
+    Optional<AssignmentFile> findFile(@Param("id") Long id);
+
+    @Query("select new com.Gestion_Note.Note.DTO.AssignmentFile(a.submittedFileName, a.submittedFileType, " +
+            "a.submittedFileHash, a.submittedFileSize) from Assignment a where a.id = :id and a.submittedFileHash is not null")
+    Optional<AssignmentFile> findSubmittedFile(@Param("id") Long id);
 }
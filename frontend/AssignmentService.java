@@ -1,11 +1,16 @@
 package com.Gestion_Note.Note.Services;
 
+import com.Gestion_Note.Note.DTO.AssignmentFile;
+import com.Gestion_Note.Note.DTO.BlobDescriptor;
+import com.Gestion_Note.Note.DTO.AssignmentSummary;
 import com.Gestion_Note.Note.Entities.*;
 import com.Gestion_Note.Note.Repository.AssignmentRepository;
 import com.Gestion_Note.Note.Repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -18,11 +23,19 @@ public class AssignmentService {
 
     private final AssignmentRepository assignmentRepository;
     private final UserRepository userRepository;
+    private final BlobService blobService;
+    private final TransactionTemplate transactionTemplate;
+    private final UploadLimits uploadLimits;
 
     @Autowired
-    public AssignmentService(AssignmentRepository assignmentRepository, UserRepository userRepository) {
+    public AssignmentService(AssignmentRepository assignmentRepository, UserRepository userRepository,
+                             BlobService blobService, TransactionTemplate transactionTemplate,
+                             UploadLimits uploadLimits) {
         this.assignmentRepository = assignmentRepository;
         this.userRepository = userRepository;
+        this.blobService = blobService;
+        this.transactionTemplate = transactionTemplate;
+        this.uploadLimits = uploadLimits;
     }
 
     public void uploadAssignment(String title, String description, String teacherUsername, MultipartFile file, Date dueDate) {
@@ -44,25 +57,51 @@ public class AssignmentService {
         assignment.setDueDate(dueDate);
         assignment.setStatus(Status.TO_DO);
 
+        // The file is written to the blob store before the transaction, which only covers the rows
+        BlobDescriptor blob;
         try {
-            assignment.setFileName(file.getOriginalFilename());
-            assignment.setFileType(file.getContentType());
-            assignment.setFileData(file.getBytes());
-
-            assignmentRepository.save(assignment);
+            blob = blobService.store(file, uploadLimits.checkedLimit(file));
         } catch (IOException e) {
             throw new RuntimeException("Error saving file", e);
         }
+        assignment.setFileName(file.getOriginalFilename());
+        assignment.setFileType(file.getContentType());
+        assignment.setFileHash(blob.getHash());
+        assignment.setFileSize(blob.getSize());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            blobService.retain(blob.getHash());
+            assignmentRepository.save(assignment);
+        });
     }
 
-    public List<Assignment> getAllAssignments() {
-        return assignmentRepository.findAll();
+    // Listing goes through a projection so that no file content is read
+    public List<AssignmentSummary> getAllAssignments() {
+        return assignmentRepository.findSummaries();
     }
 
     public Optional<Assignment> getAssignmentById(Long assignmentId) {
         return assignmentRepository.findById(assignmentId);
     }
 
+    public AssignmentFile getAssignmentFile(Long assignmentId) {
+        return assignmentRepository.findFile(assignmentId)
+                .orElseThrow(() -> new EntityNotFoundException("No file for assignment with ID: " + assignmentId));
+    }
+
+    public AssignmentFile getSubmittedFile(Long assignmentId) {
+        return assignmentRepository.findSubmittedFile(assignmentId)
+                .orElseThrow(() -> new EntityNotFoundException("No submitted file for assignment with ID: " + assignmentId));
+    }
+
+    public Resource openFile(AssignmentFile file) throws IOException {
+        return blobService.open(file.getHash());
+    }
+
+    public Optional<String> getAssignmentVersionTag(Long assignmentId) {
+        return assignmentRepository.findVersionTag(assignmentId);
+    }
+
     public void updateAssignment(Long id, String title, String description, String teacherUsername, MultipartFile file, Date dueDate) throws IOException {
         Assignment assignment = assignmentRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Assignment not found with ID: " + id));
@@ -80,19 +119,34 @@ public class AssignmentService {
             assignment.setDueDate(dueDate);
         }
 
+        String replacedHash = assignment.getFileHash();
+        BlobDescriptor blob = null;
         if (file != null && !file.isEmpty()) {
-            assignment.setFileData(file.getBytes());
+            blob = blobService.store(file, uploadLimits.checkedLimit(file));
+            assignment.setFileHash(blob.getHash());
+            assignment.setFileSize(blob.getSize());
             assignment.setFileName(file.getOriginalFilename());
             assignment.setFileType(file.getContentType());
         }
 
-        assignmentRepository.save(assignment);
+        BlobDescriptor newBlob = blob;
+        transactionTemplate.executeWithoutResult(status -> {
+            if (newBlob != null) {
+                blobService.retain(newBlob.getHash());
+                blobService.release(replacedHash);
+            }
+            assignmentRepository.save(assignment);
+        });
     }
 
     public void deleteAssignment(Long id) {
         Assignment assignment = assignmentRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Assignment with id " + id + " not found"));
 
-        assignmentRepository.delete(assignment);
+        transactionTemplate.executeWithoutResult(status -> {
+            assignmentRepository.delete(assignment);
+            blobService.release(assignment.getFileHash());
+            blobService.release(assignment.getSubmittedFileHash());
+        });
     }
 }
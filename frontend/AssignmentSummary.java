@@ -0,0 +1,69 @@
+package com.Gestion_Note.Note.DTO;
+
+import com.Gestion_Note.Note.Entities.Status;
+
+import java.util.Date;
+
+/**
+ * Assignment metadata without the attached files, selected column by column.
+ */
+public class AssignmentSummary {
+
+    private final Long id;
+    private final String title;
+    private final String description;
+    private final Status status;
+    private final String teacherUsername;
+    private final Long studentId;
+    private final String fileName;
+    private final String fileType;
+    private final String submittedFileName;
+    private final String submittedFileType;
+    private final Date uploadedAt;
+    private final Date dueDate;
+    private final Date submittedAt;
+
+    public AssignmentSummary(Long id, String title, String description, Status status, String teacherUsername,
+                             Long studentId, String fileName, String fileType, String submittedFileName,
+                             String submittedFileType, Date uploadedAt, Date dueDate, Date submittedAt) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.teacherUsername = teacherUsername;
+        this.studentId = studentId;
+        this.fileName = fileName;
+        this.fileType = fileType;
+        this.submittedFileName = submittedFileName;
+        this.submittedFileType = submittedFileType;
+        this.uploadedAt = uploadedAt;
+        this.dueDate = dueDate;
+        this.submittedAt = submittedAt;
+    }
+
+    public Long getId() { return id; }
+
+    public String getTitle() { return title; }
+
+    public String getDescription() { return description; }
+
+    public Status getStatus() { return status; }
+
+    public String getTeacherUsername() { return teacherUsername; }
+
+    public Long getStudentId() { return studentId; }
+
+    public String getFileName() { return fileName; }
+
+    public String getFileType() { return fileType; }
+
+    public String getSubmittedFileName() { return submittedFileName; }
+
+    public String getSubmittedFileType() { return submittedFileType; }
+
+    public Date getUploadedAt() { return uploadedAt; }
+
+    public Date getDueDate() { return dueDate; }
+
+    public Date getSubmittedAt() { return submittedAt; }
+}
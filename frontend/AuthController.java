@@ -4,8 +4,16 @@ package com.Gestion_Note.Note.Controllers;
 
 import com.Gestion_Note.Note.DTO.AuthRequestDTO;
 import com.Gestion_Note.Note.DTO.AuthResponseDTO;
+import com.Gestion_Note.Note.DTO.RefreshTokenRequest;
 import com.Gestion_Note.Note.DTO.RegisterUserDTO;
+import com.Gestion_Note.Note.Security.AuthRateLimiter;
+import com.Gestion_Note.Note.Security.ClientAddressResolver;
+import com.Gestion_Note.Note.Security.TooManyRequestsException;
 import com.Gestion_Note.Note.Services.AuthenticationService;
+import com.Gestion_Note.Note.Services.RefreshTokenService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,19 +22,60 @@ import org.springframework.web.bind.annotation.*;
 @CrossOrigin("*")
 public class AuthController {
     private final AuthenticationService authenticationService;
+    private final RefreshTokenService refreshTokenService;
+    private final AuthRateLimiter authRateLimiter;
+    private final ClientAddressResolver clientAddressResolver;
 
-    public AuthController(AuthenticationService authenticationService) {
+    public AuthController(
+            AuthenticationService authenticationService,
+            RefreshTokenService refreshTokenService,
+            AuthRateLimiter authRateLimiter,
+            ClientAddressResolver clientAddressResolver
+    ) {
         this.authenticationService = authenticationService;
+        this.refreshTokenService = refreshTokenService;
+        this.authRateLimiter = authRateLimiter;
+        this.clientAddressResolver = clientAddressResolver;
     }
 
 
     @PostMapping("/register")
-    public ResponseEntity<AuthResponseDTO> register(@RequestBody RegisterUserDTO dto) throws Exception {
+    public ResponseEntity<AuthResponseDTO> register(@RequestBody RegisterUserDTO dto, HttpServletRequest request) throws Exception {
+        authRateLimiter.checkRegister(clientAddressResolver.resolve(request), dto.getEmail());
         return ResponseEntity.ok(authenticationService.register(dto));
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthResponseDTO> login(@RequestBody AuthRequestDTO authRequest) {
+    public ResponseEntity<AuthResponseDTO> login(@RequestBody AuthRequestDTO authRequest, HttpServletRequest request) {
+        authRateLimiter.checkLogin(clientAddressResolver.resolve(request), authRequest.getEmail());
         return ResponseEntity.ok(authenticationService.authenticate(authRequest));
     }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshTokenRequest request) {
+        try {
+            return ResponseEntity.ok(refreshTokenService.refresh(request.getRefreshToken()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<String> logout(
+            @RequestHeader(HttpHeaders.AUTHORIZATION) String authHeader,
+            @RequestBody(required = false) RefreshTokenRequest request
+    ) {
+        if (!authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.badRequest().body("Bearer token required");
+        }
+        authenticationService.logout(authHeader.substring(7), request != null ? request.getRefreshToken() : null);
+        return ResponseEntity.ok("Logged out");
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<String> handleTooManyRequests(TooManyRequestsException e) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
 }
@@ -0,0 +1,84 @@
+package com.Gestion_Note.Note.Security;
+
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Per-endpoint rate limits for the public authentication endpoints, applied
+ * both per client IP and per email so one client cannot saturate bcrypt.
+ * An address is shared by every user behind the same NAT or proxy, so its
+ * limits are separate from, and much higher than, the per-email ones.
+ */
+@Component
+public class AuthRateLimiter {
+
+    private final boolean enabled;
+    private final TokenBucketRateLimiter loginIpLimiter;
+    private final TokenBucketRateLimiter loginEmailLimiter;
+    private final TokenBucketRateLimiter registerIpLimiter;
+    private final TokenBucketRateLimiter registerEmailLimiter;
+
+    public AuthRateLimiter(
+            @Value("${security.rate-limit.enabled:true}") boolean enabled,
+            @Value("${security.rate-limit.login.ip-capacity:100}") int loginIpCapacity,
+            @Value("${security.rate-limit.login.ip-refill-per-minute:100}") int loginIpRefillPerMinute,
+            @Value("${security.rate-limit.login.email-capacity:10}") int loginEmailCapacity,
+            @Value("${security.rate-limit.login.email-refill-per-minute:10}") int loginEmailRefillPerMinute,
+            @Value("${security.rate-limit.register.ip-capacity:20}") int registerIpCapacity,
+            @Value("${security.rate-limit.register.ip-refill-per-minute:20}") int registerIpRefillPerMinute,
+            @Value("${security.rate-limit.register.email-capacity:5}") int registerEmailCapacity,
+            @Value("${security.rate-limit.register.email-refill-per-minute:5}") int registerEmailRefillPerMinute,
+            @Value("${security.rate-limit.max-entries:100000}") int maxEntries,
+            @Value("${security.rate-limit.idle-seconds:600}") long idleSeconds
+    ) {
+        this.enabled = enabled;
+        this.loginIpLimiter = new TokenBucketRateLimiter(loginIpCapacity, loginIpRefillPerMinute, maxEntries, idleSeconds);
+        this.loginEmailLimiter = new TokenBucketRateLimiter(loginEmailCapacity, loginEmailRefillPerMinute, maxEntries, idleSeconds);
+        this.registerIpLimiter = new TokenBucketRateLimiter(registerIpCapacity, registerIpRefillPerMinute, maxEntries, idleSeconds);
+        this.registerEmailLimiter = new TokenBucketRateLimiter(registerEmailCapacity, registerEmailRefillPerMinute, maxEntries, idleSeconds);
+    }
+
+    public void checkLogin(String clientIp, String email) {
+        check(loginIpLimiter, loginEmailLimiter, clientIp, email);
+    }
+
+    public void checkRegister(String clientIp, String email) {
+        check(registerIpLimiter, registerEmailLimiter, clientIp, email);
+    }
+
+    private void check(TokenBucketRateLimiter ipLimiter, TokenBucketRateLimiter emailLimiter, String clientIp, String email) {
+        if (!enabled) {
+            return;
+        }
+        String ipKey = "ip:" + clientIp;
+        long retryAfter = ipLimiter.tryAcquire(ipKey);
+        if (retryAfter == 0 && email != null) {
+            retryAfter = emailLimiter.tryAcquire("email:" + email.toLowerCase(Locale.ROOT));
+            if (retryAfter > 0) {
+                // The attempt is refused, so it must not use up the address's allowance either
+                ipLimiter.refund(ipKey);
+            }
+        }
+        if (retryAfter > 0) {
+            throw new TooManyRequestsException("Too many attempts, please retry later", retryAfter);
+        }
+    }
+
+    public Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("loginIpRejected", loginIpLimiter.getRejected());
+        stats.put("loginEmailRejected", loginEmailLimiter.getRejected());
+        stats.put("loginTrackedKeys", (long) loginIpLimiter.size() + loginEmailLimiter.size());
+        stats.put("registerIpRejected", registerIpLimiter.getRejected());
+        stats.put("registerEmailRejected", registerEmailLimiter.getRejected());
+        stats.put("registerTrackedKeys", (long) registerIpLimiter.size() + registerEmailLimiter.size());
+        stats.put("evicted", loginIpLimiter.getEvicted() + loginEmailLimiter.getEvicted()
+                + registerIpLimiter.getEvicted() + registerEmailLimiter.getEvicted());
+        return stats;
+    }
+}
@@ -8,7 +8,14 @@ public class AuthResponseDTO {
 
     private String token;
 
+    private String refreshToken;
+
     public AuthResponseDTO(String token) {
         this.token = token;
     }
+
+    public AuthResponseDTO(String token, String refreshToken) {
+        this.token = token;
+        this.refreshToken = refreshToken;
+    }
 }
@@ -6,6 +6,11 @@ import com.Gestion_Note.Note.DTO.RegisterUserDTO;
 import com.Gestion_Note.Note.Entities.*;
 import com.Gestion_Note.Note.Repository.*;
 import com.Gestion_Note.Note.Security.CustomUserDetails;
+import com.Gestion_Note.Note.Security.ParsedToken;
+import com.Gestion_Note.Note.Security.PasswordHashingExecutor;
+import com.Gestion_Note.Note.Security.TokenRevocationStore;
+import com.Gestion_Note.Note.Security.TooManyRequestsException;
+import com.Gestion_Note.Note.Security.UserDetailsCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -22,6 +27,11 @@ public class AuthenticationService {
     private final TeacherRepository teacherRepository;
     private final StudentRepository studentRepository;
     private final ParentRopository parentRopository;
+    private final UserDetailsCache userDetailsCache;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationStore tokenRevocationStore;
+    private final UserSearchIndex userSearchIndex;
 
     @Autowired
     public AuthenticationService(
@@ -31,7 +41,12 @@ public class AuthenticationService {
             PasswordEncoder passwordEncoder,
             AdminRepository adminRepository,
             TeacherRepository teacherRepository,
-            StudentRepository studentRepository, ParentRopository parentRopository
+            StudentRepository studentRepository, ParentRopository parentRopository,
+            UserDetailsCache userDetailsCache,
+            PasswordHashingExecutor passwordHashingExecutor,
+            RefreshTokenService refreshTokenService,
+            TokenRevocationStore tokenRevocationStore,
+            UserSearchIndex userSearchIndex
     ) {
         this.userRepository = userRepository;
         this.jwtService = jwtService;
@@ -41,6 +56,11 @@ public class AuthenticationService {
         this.teacherRepository = teacherRepository;
         this.studentRepository = studentRepository;
         this.parentRopository = parentRopository;
+        this.userDetailsCache = userDetailsCache;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.refreshTokenService = refreshTokenService;
+        this.tokenRevocationStore = tokenRevocationStore;
+        this.userSearchIndex = userSearchIndex;
     }
 
     public AuthResponseDTO register(RegisterUserDTO dto) {
@@ -87,8 +107,11 @@ public class AuthenticationService {
                 throw new IllegalArgumentException("Unsupported role: " + dto.getRole());
         }
 
+        userDetailsCache.evict(user.getEmail());
+        userSearchIndex.index(user);
+
         String token = jwtService.generateToken(new CustomUserDetails(user));
-        return new AuthResponseDTO(token);
+        return new AuthResponseDTO(token, refreshTokenService.issue(user));
     }
 
     private void populateUserFields(User user, RegisterUserDTO dto) {
@@ -103,11 +126,30 @@ public class AuthenticationService {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new IllegalArgumentException("User not found with email: " + request.getEmail()));
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHashingExecutor.matches(request.getPassword(), user.getPassword())) {
             throw new IllegalArgumentException("Invalid password");
         }
 
+        if (passwordHashingExecutor.upgradeEncoding(user.getPassword())) {
+            try {
+                user.setPassword(passwordHashingExecutor.encode(request.getPassword()));
+                userRepository.save(user);
+                userDetailsCache.evict(user.getEmail());
+            } catch (TooManyRequestsException e) {
+                // The password was verified; the rehash is retried on the next login
+            }
+        }
+
         String token = jwtService.generateToken(new CustomUserDetails(user));
-        return new AuthResponseDTO(token);
+        return new AuthResponseDTO(token, refreshTokenService.issue(user));
+    }
+
+    public void logout(String accessToken, String refreshToken) {
+        ParsedToken token = jwtService.parseToken(accessToken);
+        tokenRevocationStore.revoke(token.getId(), token.getExpiration());
+
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revoke(refreshToken);
+        }
     }
 }
@@ -0,0 +1,26 @@
+package com.Gestion_Note.Note.DTO;
+
+public class BlobDescriptor {
+    private final String hash;
+    private final long size;
+    private final boolean deduplicated;
+
+    public BlobDescriptor(String hash, long size, boolean deduplicated) {
+        this.hash = hash;
+        this.size = size;
+        this.deduplicated = deduplicated;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    // True when identical content was already stored and nothing new was written
+    public boolean isDeduplicated() {
+        return deduplicated;
+    }
+}
@@ -0,0 +1,164 @@
+package com.Gestion_Note.Note.Services;
+
+import com.Gestion_Note.Note.DTO.BlobDescriptor;
+import com.Gestion_Note.Note.Entities.StoredBlob;
+import com.Gestion_Note.Note.Repository.StoredBlobRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Reference-counted front of the {@link BlobStore}. {@link #store} writes the content and
+ * registers its hash with a zero count; the caller then {@link #retain}s it in the same
+ * transaction that saves the entity pointing at it, and {@link #release}s the hash it
+ * replaces or deletes. Blobs left at zero for longer than the grace period are collected,
+ * which also cleans up uploads whose saving transaction rolled back.
+ */
+@Service
+public class BlobService {
+
+    private static final int COLLECTION_BATCH_SIZE = 500;
+
+    private final BlobStore blobStore;
+    private final StoredBlobRepository storedBlobRepository;
+    private final TransactionTemplate ownTransaction;
+    private final long graceMillis;
+
+    // Uploads share the read lock; a collection pass takes the write lock so it never deletes
+    // a file that an upload has just found in the store and is about to register again
+    private final ReadWriteLock collectionLock = new ReentrantReadWriteLock();
+
+    private final LongAdder uploads = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder collected = new LongAdder();
+    private final LongAdder orphaned = new LongAdder();
+
+    public BlobService(
+            BlobStore blobStore,
+            StoredBlobRepository storedBlobRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${storage.blobs.gc-grace-minutes:60}") long graceMinutes
+    ) {
+        this.blobStore = blobStore;
+        this.storedBlobRepository = storedBlobRepository;
+        this.ownTransaction = new TransactionTemplate(transactionManager);
+        this.ownTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.graceMillis = graceMinutes * 60_000;
+    }
+
+    // The body is staged and hashed before taking the lock, so a slow upload never holds up a
+    // collection pass; only moving the file into place and registering it happen under the lock
+    public BlobDescriptor store(InputStream content, long maxBytes) throws IOException {
+        try (BlobStore.StagedBlob staged = blobStore.stage(content, maxBytes)) {
+            collectionLock.readLock().lock();
+            try {
+                BlobDescriptor blob = blobStore.commit(staged);
+                register(blob);
+                uploads.increment();
+                if (blob.isDeduplicated()) {
+                    deduplicated.increment();
+                }
+                return blob;
+            } finally {
+                collectionLock.readLock().unlock();
+            }
+        }
+    }
+
+    public BlobDescriptor store(MultipartFile file, long maxBytes) throws IOException {
+        try (InputStream content = file.getInputStream()) {
+            return store(content, maxBytes);
+        }
+    }
+
+    // Committed on its own, so the row exists with a fresh timestamp before any entity refers to it
+    private void register(BlobDescriptor blob) {
+        Date now = new Date();
+        try {
+            ownTransaction.executeWithoutResult(status -> {
+                if (storedBlobRepository.touch(blob.getHash(), now) == 0) {
+                    storedBlobRepository.saveAndFlush(new StoredBlob(blob.getHash(), blob.getSize(), now));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent upload of the same content inserted the row first
+        }
+    }
+
+    public void retain(String hash) {
+        if (storedBlobRepository.retain(hash) == 0) {
+            throw new IllegalStateException("Blob " + hash + " is not registered");
+        }
+    }
+
+    public void release(String hash) {
+        if (hash != null) {
+            storedBlobRepository.release(hash, new Date());
+        }
+    }
+
+    public Resource open(String hash) throws IOException {
+        return blobStore.get(hash);
+    }
+
+    @Scheduled(fixedDelayString = "${storage.blobs.gc-interval-ms:3600000}",
+            initialDelayString = "${storage.blobs.gc-interval-ms:3600000}")
+    public void scheduledCollection() {
+        collectGarbage();
+    }
+
+    public int collectGarbage() {
+        collectionLock.writeLock().lock();
+        try {
+            Date cutoff = new Date(System.currentTimeMillis() - graceMillis);
+            int removed = 0;
+            List<String> candidates;
+            do {
+                candidates = storedBlobRepository.findUnreferencedSince(cutoff, PageRequest.of(0, COLLECTION_BATCH_SIZE));
+                for (String hash : candidates) {
+                    Integer deleted = ownTransaction.execute(status -> storedBlobRepository.deleteIfUnreferenced(hash, cutoff));
+                    if (deleted == null || deleted == 0) {
+                        continue;
+                    }
+                    // The row goes first: a file without a row is only wasted space, the reverse is a broken download
+                    try {
+                        blobStore.delete(hash);
+                        removed++;
+                    } catch (IOException e) {
+                        orphaned.increment();
+                    }
+                }
+            } while (candidates.size() == COLLECTION_BATCH_SIZE);
+            collected.add(removed);
+            return removed;
+        } finally {
+            collectionLock.writeLock().unlock();
+        }
+    }
+
+    public Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("uploads", uploads.sum());
+        stats.put("deduplicated", deduplicated.sum());
+        stats.put("collected", collected.sum());
+        stats.put("orphaned", orphaned.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,51 @@
+package com.Gestion_Note.Note.Services;
+
+import com.Gestion_Note.Note.DTO.BlobDescriptor;
+import org.springframework.core.io.Resource;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Content-addressed storage for uploaded files. Content is keyed by the hex SHA-256 of its
+ * bytes, so identical files are stored once. The store does not know who references a blob;
+ * reference counts are kept by {@link BlobService}.
+ */
+public interface BlobStore {
+
+    /**
+     * Streams the content to a temporary location while hashing and counting it, failing with
+     * {@link UploadTooLargeException} as soon as more than {@code maxBytes} have been read.
+     * Nothing is visible in the store until the result is {@link #commit}ted; closing it
+     * discards whatever was not committed.
+     */
+    StagedBlob stage(InputStream content, long maxBytes) throws IOException;
+
+    /** Moves staged content into place, or drops it when the same content is already stored. */
+    BlobDescriptor commit(StagedBlob staged) throws IOException;
+
+    default BlobDescriptor put(InputStream content, long maxBytes) throws IOException {
+        try (StagedBlob staged = stage(content, maxBytes)) {
+            return commit(staged);
+        }
+    }
+
+    default BlobDescriptor put(InputStream content) throws IOException {
+        return put(content, Long.MAX_VALUE);
+    }
+
+    Resource get(String hash) throws IOException;
+
+    boolean exists(String hash);
+
+    boolean delete(String hash) throws IOException;
+
+    /** Content written by {@link #stage} and not yet committed, already hashed and counted. */
+    interface StagedBlob extends Closeable {
+
+        String getHash();
+
+        long getSize();
+    }
+}
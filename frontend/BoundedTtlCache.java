@@ -0,0 +1,123 @@
+package com.Gestion_Note.Note.Services;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Size-bounded (least recently used first), TTL-expiring cache behind the application's
+ * read-through caches. Values are loaded outside the lock; every invalidation bumps a
+ * generation so that a load racing with an update never re-inserts the stale value.
+ */
+public class BoundedTtlCache<K, V> {
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final Map<K, Entry<V>> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final AtomicLong generation = new AtomicLong();
+
+    public BoundedTtlCache(int maxSize, long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlSeconds * 1000;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > BoundedTtlCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        long now = System.currentTimeMillis();
+        long loadGeneration;
+        synchronized (entries) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt > now) {
+                    hits.increment();
+                    return entry.value;
+                }
+                entries.remove(key);
+                evictions.increment();
+            }
+            loadGeneration = generation.get();
+        }
+
+        misses.increment();
+        V value = loader.apply(key);
+
+        synchronized (entries) {
+            if (generation.get() == loadGeneration) {
+                entries.put(key, new Entry<>(value, now + ttlMillis));
+            }
+        }
+        return value;
+    }
+
+    public void evict(K key) {
+        if (key == null) {
+            return;
+        }
+        synchronized (entries) {
+            generation.incrementAndGet();
+            if (entries.remove(key) != null) {
+                invalidations.increment();
+            }
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            invalidations.add(entries.size());
+            entries.clear();
+        }
+    }
+
+    public Map<String, Long> stats() {
+        long size;
+        synchronized (entries) {
+            purgeExpired(System.currentTimeMillis());
+            size = entries.size();
+        }
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("size", size);
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("invalidations", invalidations.sum());
+        return stats;
+    }
+
+    private void purgeExpired(long now) {
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAt <= now) {
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
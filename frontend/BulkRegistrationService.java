@@ -0,0 +1,263 @@
+package com.Gestion_Note.Note.Services;
+
+import com.Gestion_Note.Note.DTO.BulkRegistrationResult;
+import com.Gestion_Note.Note.DTO.RegisterUserDTO;
+import com.Gestion_Note.Note.DTO.UserSummary;
+import com.Gestion_Note.Note.Entities.Roles;
+import com.Gestion_Note.Note.Repository.UserRepository;
+import com.Gestion_Note.Note.Security.PasswordHashingExecutor;
+import com.Gestion_Note.Note.Security.UserDetailsCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+
+/**
+ * Creates many accounts in one call: one duplicate check query per chunk of rows,
+ * bcrypt on the shared {@link PasswordHashingExecutor} pool, and JDBC batch inserts into
+ * {@code users} and the role table of each row. Invalid rows are reported instead of
+ * failing the request.
+ */
+@Service
+public class BulkRegistrationService {
+
+    private static final int QUERY_CHUNK = 1000;
+    private static final List<String> CSV_HEADER = List.of("name", "username", "email", "password", "role");
+
+    private static final Map<Roles, String> ROLE_TABLES = Map.of(
+            Roles.STUDENT, "students",
+            Roles.TEACHER, "teachers",
+            Roles.ADMIN, "admins",
+            Roles.PARENT, "parents"
+    );
+    // Values Hibernate writes to users.role_type for each JOINED subclass
+    private static final Map<Roles, String> DISCRIMINATORS = Map.of(
+            Roles.STUDENT, "Student",
+            Roles.TEACHER, "Teacher",
+            Roles.ADMIN, "Admin",
+            Roles.PARENT, "Parent"
+    );
+
+    private final UserRepository userRepository;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserDetailsCache userDetailsCache;
+    private final UserSearchIndex userSearchIndex;
+    private final int batchSize;
+
+    public BulkRegistrationService(
+            UserRepository userRepository,
+            PasswordHashingExecutor passwordHashingExecutor,
+            JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedJdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            UserDetailsCache userDetailsCache,
+            UserSearchIndex userSearchIndex,
+            @Value("${bulk.registration.batch-size:500}") int batchSize
+    ) {
+        this.userRepository = userRepository;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.userDetailsCache = userDetailsCache;
+        this.userSearchIndex = userSearchIndex;
+        this.batchSize = batchSize;
+    }
+
+    public List<RegisterUserDTO> parseCsv(Reader csv) throws IOException {
+        BufferedReader reader = new BufferedReader(csv);
+        List<RegisterUserDTO> rows = new ArrayList<>();
+        String header = reader.readLine();
+        if (header == null) {
+            return rows;
+        }
+        List<String> columns = CsvLines.split(header.toLowerCase(Locale.ROOT));
+        if (!columns.containsAll(CSV_HEADER)) {
+            throw new IllegalArgumentException("CSV header must contain " + String.join(",", CSV_HEADER));
+        }
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            List<String> fields = CsvLines.split(line);
+            RegisterUserDTO dto = new RegisterUserDTO();
+            dto.setName(field(fields, columns, "name"));
+            dto.setUsername(field(fields, columns, "username"));
+            dto.setEmail(field(fields, columns, "email"));
+            dto.setPassword(field(fields, columns, "password"));
+            String role = field(fields, columns, "role");
+            try {
+                dto.setRole(role == null ? null : Roles.valueOf(role.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                dto.setRole(null);
+            }
+            rows.add(dto);
+        }
+        return rows;
+    }
+
+    // Not @Transactional: bcrypt takes far longer than the inserts, so the passwords are hashed
+    // first and a connection is only held by the transaction around the batch inserts
+    public BulkRegistrationResult register(List<RegisterUserDTO> rows) {
+        BulkRegistrationResult result = new BulkRegistrationResult();
+        result.setReceived(rows.size());
+
+        List<Integer> accepted = validate(rows, result);
+        rejectExisting(rows, accepted, result);
+        if (accepted.isEmpty()) {
+            return result;
+        }
+
+        List<String> passwords = new ArrayList<>(accepted.size());
+        for (Integer index : accepted) {
+            passwords.add(rows.get(index).getPassword());
+        }
+        List<String> hashes = passwordHashingExecutor.encodeAll(passwords);
+
+        List<UserSummary> created = new ArrayList<>(accepted.size());
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int from = 0; from < accepted.size(); from += batchSize) {
+                List<Integer> chunk = accepted.subList(from, Math.min(from + batchSize, accepted.size()));
+                created.addAll(insertChunk(rows, chunk, hashes.subList(from, from + chunk.size())));
+            }
+        });
+
+        // Only once the inserts have committed, so a failed batch never shows up in search
+        for (UserSummary user : created) {
+            userSearchIndex.index(user);
+        }
+
+        for (Integer index : accepted) {
+            userDetailsCache.evict(rows.get(index).getEmail());
+        }
+        result.setCreated(accepted.size());
+        return result;
+    }
+
+    private List<Integer> validate(List<RegisterUserDTO> rows, BulkRegistrationResult result) {
+        List<Integer> accepted = new ArrayList<>();
+        Set<String> emails = new HashSet<>();
+        Set<String> usernames = new HashSet<>();
+
+        for (int i = 0; i < rows.size(); i++) {
+            RegisterUserDTO dto = rows.get(i);
+            String error = null;
+            if (isBlank(dto.getName()) || isBlank(dto.getUsername()) || isBlank(dto.getEmail()) || isBlank(dto.getPassword())) {
+                error = "Name, username, email and password are required";
+            } else if (dto.getRole() == null) {
+                error = "Role is required";
+            } else if (!emails.add(dto.getEmail())) {
+                error = "Duplicate email in request";
+            } else if (!usernames.add(dto.getUsername())) {
+                error = "Duplicate username in request";
+            }
+
+            if (error != null) {
+                result.addError(i + 1, dto.getEmail(), error);
+            } else {
+                accepted.add(i);
+            }
+        }
+        return accepted;
+    }
+
+    private void rejectExisting(List<RegisterUserDTO> rows, List<Integer> accepted, BulkRegistrationResult result) {
+        Set<String> existingEmails = new HashSet<>();
+        Set<String> existingUsernames = new HashSet<>();
+
+        for (int from = 0; from < accepted.size(); from += QUERY_CHUNK) {
+            List<Integer> chunk = accepted.subList(from, Math.min(from + QUERY_CHUNK, accepted.size()));
+            List<String> emails = new ArrayList<>(chunk.size());
+            List<String> usernames = new ArrayList<>(chunk.size());
+            for (Integer index : chunk) {
+                emails.add(rows.get(index).getEmail());
+                usernames.add(rows.get(index).getUsername());
+            }
+            for (UserRepository.UserIdentity identity : userRepository.findIdentities(emails, usernames)) {
+                existingEmails.add(identity.getEmail());
+                existingUsernames.add(identity.getUsername());
+            }
+        }
+
+        Iterator<Integer> iterator = accepted.iterator();
+        while (iterator.hasNext()) {
+            int index = iterator.next();
+            RegisterUserDTO dto = rows.get(index);
+            if (existingEmails.contains(dto.getEmail())) {
+                result.addError(index + 1, dto.getEmail(), "Email already exists");
+                iterator.remove();
+            } else if (existingUsernames.contains(dto.getUsername())) {
+                result.addError(index + 1, dto.getEmail(), "Username already exists");
+                iterator.remove();
+            }
+        }
+    }
+
+    private List<UserSummary> insertChunk(List<RegisterUserDTO> rows, List<Integer> chunk, List<String> hashes) {
+        List<Object[]> userRows = new ArrayList<>(chunk.size());
+        List<String> emails = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            RegisterUserDTO dto = rows.get(chunk.get(i));
+            userRows.add(new Object[]{
+                    dto.getName(), dto.getUsername(), dto.getEmail(), hashes.get(i),
+                    dto.getRole().name(), DISCRIMINATORS.get(dto.getRole()), 0, 0L
+            });
+            emails.add(dto.getEmail());
+        }
+        jdbcTemplate.batchUpdate(
+                "insert into users (name, username, email, password, role, role_type, token_version, version) values (?, ?, ?, ?, ?, ?, ?, ?)",
+                userRows
+        );
+
+        // IDENTITY keys are not reliably returned by batched inserts, so read them back in one query
+        Map<String, Long> ids = new HashMap<>();
+        namedJdbcTemplate.query(
+                "select user_id, email from users where email in (:emails)",
+                new MapSqlParameterSource("emails", emails),
+                resultSet -> {
+                    ids.put(resultSet.getString("email"), resultSet.getLong("user_id"));
+                }
+        );
+
+        Map<Roles, List<Object[]>> roleRows = new EnumMap<>(Roles.class);
+        for (Integer index : chunk) {
+            RegisterUserDTO dto = rows.get(index);
+            roleRows.computeIfAbsent(dto.getRole(), role -> new ArrayList<>())
+                    .add(new Object[]{ids.get(dto.getEmail())});
+        }
+        roleRows.forEach((role, batch) ->
+                jdbcTemplate.batchUpdate("insert into " + ROLE_TABLES.get(role) + " (user_id) values (?)", batch));
+
+        List<UserSummary> created = new ArrayList<>(chunk.size());
+        for (Integer index : chunk) {
+            RegisterUserDTO dto = rows.get(index);
+            created.add(new UserSummary(ids.get(dto.getEmail()), dto.getName(), dto.getUsername(),
+                    dto.getEmail(), dto.getRole()));
+        }
+        return created;
+    }
+
+    private static String field(List<String> fields, List<String> columns, String name) {
+        int index = columns.indexOf(name);
+        if (index < 0 || index >= fields.size() || fields.get(index).isEmpty()) {
+            return null;
+        }
+        return fields.get(index);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,62 @@
+package com.Gestion_Note.Note.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BulkSubjectResult {
+    private int received;
+    private int created;
+    private List<RowError> errors = new ArrayList<>();
+
+    public int getReceived() {
+        return received;
+    }
+
+    public void setReceived(int received) {
+        this.received = received;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    public void addError(int row, String name, String message) {
+        errors.add(new RowError(row, name, message));
+    }
+
+    public static class RowError {
+        private final int row;
+        private final String name;
+        private final String message;
+
+        public RowError(int row, String name, String message) {
+            this.row = row;
+            this.name = name;
+            this.message = message;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.Gestion_Note.Note.Security;
+
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Client address used by the per-IP rate limits. X-Forwarded-For is only believed when the
+ * direct peer is one of the configured trusted proxies; the client is then the right-most
+ * entry that is not itself a trusted proxy, since anything left of it can be set by the client.
+ */
+@Component
+public class ClientAddressResolver {
+
+    private static final String FORWARDED_FOR = "X-Forwarded-For";
+
+    private final Set<String> trustedProxies = new HashSet<>();
+
+    public ClientAddressResolver(@Value("${security.trusted-proxies:}") String trustedProxies) {
+        for (String proxy : trustedProxies.split(",")) {
+            if (!proxy.isBlank()) {
+                this.trustedProxies.add(proxy.trim());
+            }
+        }
+    }
+
+    public String resolve(HttpServletRequest request) {
+        String client = request.getRemoteAddr();
+        String forwarded = request.getHeader(FORWARDED_FOR);
+        if (forwarded == null || !trustedProxies.contains(client)) {
+            return client;
+        }
+        String[] hops = forwarded.split(",");
+        for (int i = hops.length - 1; i >= 0; i--) {
+            String hop = hops[i].trim();
+            if (hop.isEmpty()) {
+                continue;
+            }
+            client = hop;
+            if (!trustedProxies.contains(hop)) {
+                break;
+            }
+        }
+        return client;
+    }
+}
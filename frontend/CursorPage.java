@@ -0,0 +1,33 @@
+package com.Gestion_Note.Note.DTO;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is the id of the last
+ * item and is passed back as {@code cursor} to get the following page; it is null
+ * on the last page.
+ */
+public class CursorPage<T> {
+
+    private final List<T> items;
+    private final Long nextCursor;
+    private final int limit;
+
+    public CursorPage(List<T> items, Long nextCursor, int limit) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+}
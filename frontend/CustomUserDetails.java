@@ -11,14 +11,38 @@ import java.util.Collection;
 import java.util.Collections;
 
 public class CustomUserDetails implements UserDetails {
+    private Long userId;
     private String email;
     private String motDePasse;
     private Roles role;
+    private int tokenVersion;
 
     public CustomUserDetails(User utilisateur) {
+        this.userId = utilisateur.getUser_id();
         this.email = utilisateur.getEmail();
         this.motDePasse = utilisateur.getPassword();
         this.role = utilisateur.getRole();
+        this.tokenVersion = utilisateur.getTokenVersion();
+    }
+
+    // Rebuilt from verified token claims, without loading the user (the password is never needed there)
+    public CustomUserDetails(Long userId, String email, Roles role, int tokenVersion) {
+        this.userId = userId;
+        this.email = email;
+        this.role = role;
+        this.tokenVersion = tokenVersion;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Roles getRole() {
+        return role;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
     }
 
     @Override
@@ -16,11 +16,16 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository utilisateurRepository;
 
+    @Autowired
+    private UserDetailsCache userDetailsCache;
+
         @Override
         public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
-            User user = utilisateurRepository.findByEmail(email)
-                    .orElseThrow(() -> new UsernameNotFoundException("User Not Found : " + email));
+            return userDetailsCache.get(email, key -> {
+                User user = utilisateurRepository.findByEmail(key)
+                        .orElseThrow(() -> new UsernameNotFoundException("User Not Found : " + key));
 
-            return new CustomUserDetails(user);
+                return new CustomUserDetails(user);
+            });
         }
 }
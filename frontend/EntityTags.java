@@ -0,0 +1,69 @@
+package com.Gestion_Note.Note.Controllers;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Strong ETags built from {@code @Version} columns. A version tag is one or more versions
+ * joined with '-' (the entity's own, then those of embedded users), formatted the same way
+ * here and in the {@code findVersionTag} repository queries.
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    public static String version(Long... versions) {
+        StringBuilder tag = new StringBuilder();
+        for (int i = 0; i < versions.length; i++) {
+            if (i > 0) {
+                tag.append('-');
+            }
+            tag.append(versions[i] == null ? 0L : versions[i]);
+        }
+        return tag.toString();
+    }
+
+    public static String etag(String type, Object id, String versionTag) {
+        return "\"" + type + "-" + id + "-" + versionTag + "\"";
+    }
+
+    /** True if an If-None-Match header value (possibly a list, or "*") matches {@code etag}. */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the current ETag if it matches {@code ifNoneMatch}, otherwise null. The version
+     * is only looked up when the client sent If-None-Match.
+     */
+    public static String currentIfMatched(String ifNoneMatch, String type, Object id,
+                                          Supplier<Optional<String>> versionTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return null;
+        }
+        return versionTag.get()
+                .map(tag -> etag(type, id, tag))
+                .filter(etag -> matches(ifNoneMatch, etag))
+                .orElse(null);
+    }
+
+    public static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+    }
+}
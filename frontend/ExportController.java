@@ -0,0 +1,73 @@
+package com.Gestion_Note.Note.Controllers;
+
+import com.Gestion_Note.Note.Services.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Streaming exports for reporting jobs. Rows are written to the response while they are
+ * read, so memory use does not depend on the number of rows.
+ * {@code format} is {@code ndjson} (default) or {@code csv}.
+ */
+@RestController
+@RequestMapping("/export")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/users")
+    public void exportUsers(@RequestParam(defaultValue = "ndjson") String format,
+                            HttpServletResponse response) throws IOException {
+        ExportService.Format exportFormat = start(response, format, "users");
+        if (exportFormat != null) {
+            exportService.exportUsers(exportFormat, response.getOutputStream());
+        }
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping("/groups")
+    public void exportGroups(@RequestParam(defaultValue = "ndjson") String format,
+                             HttpServletResponse response) throws IOException {
+        ExportService.Format exportFormat = start(response, format, "groups");
+        if (exportFormat != null) {
+            exportService.exportGroups(exportFormat, response.getOutputStream());
+        }
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_TEACHER')")
+    @GetMapping("/assignments")
+    public void exportAssignments(@RequestParam(defaultValue = "ndjson") String format,
+                                  HttpServletResponse response) throws IOException {
+        ExportService.Format exportFormat = start(response, format, "assignments");
+        if (exportFormat != null) {
+            exportService.exportAssignments(exportFormat, response.getOutputStream());
+        }
+    }
+
+    private ExportService.Format start(HttpServletResponse response, String format, String name) throws IOException {
+        ExportService.Format exportFormat;
+        try {
+            exportFormat = ExportService.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return null;
+        }
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + name + "." + exportFormat.getExtension() + "\"");
+        return exportFormat;
+    }
+}
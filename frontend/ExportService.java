@@ -0,0 +1,152 @@
+package com.Gestion_Note.Note.Services;
+
+import com.Gestion_Note.Note.DTO.AssignmentSummary;
+import com.Gestion_Note.Note.DTO.GroupSummary;
+import com.Gestion_Note.Note.DTO.UserSummary;
+import com.Gestion_Note.Note.Entities.User;
+import com.Gestion_Note.Note.Repository.AssignmentRepository;
+import com.Gestion_Note.Note.Repository.GroupRepository;
+import com.Gestion_Note.Note.Repository.UserRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes users, groups and assignments to an output stream one row at a time, as NDJSON
+ * or CSV. Rows come from streamed projection queries, so neither the result set nor the
+ * persistence context grows with the size of the export.
+ */
+@Service
+public class ExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Unsupported export format: " + value);
+        }
+    }
+
+    private final UserRepository userRepository;
+    private final GroupRepository groupRepository;
+    private final AssignmentRepository assignmentRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+
+    public ExportService(UserRepository userRepository, GroupRepository groupRepository,
+                         AssignmentRepository assignmentRepository, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.groupRepository = groupRepository;
+        this.assignmentRepository = assignmentRepository;
+        this.objectMapper = objectMapper;
+        // Flushing after every row would turn each line into its own socket write
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportUsers(Format format, OutputStream out) throws IOException {
+        try (Stream<UserSummary> rows = userRepository.streamSummaries()) {
+            write(rows, format, out, "user_id,name,username,email,role",
+                    u -> CsvLines.join(u.getUser_id(), u.getName(), u.getUsername(), u.getEmail(), u.getRole()));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportGroups(Format format, OutputStream out) throws IOException {
+        try (Stream<GroupSummary> rows = groupRepository.streamSummaries()) {
+            write(rows, format, out, "groupId,groupName,teacherCount,studentCount",
+                    g -> CsvLines.join(g.getGroupId(), g.getGroupName(), g.getTeacherCount(), g.getStudentCount()));
+        }
+    }
+
+    /** Admins get every assignment; anyone else only the assignments they teach. */
+    @Transactional(readOnly = true)
+    public void exportAssignments(Format format, OutputStream out) throws IOException {
+        Authentication caller = SecurityContextHolder.getContext().getAuthentication();
+        boolean admin = caller.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+        String teacherUsername = admin ? null : userRepository.findByEmail(caller.getName())
+                .map(User::getUsername)
+                .orElseThrow(() -> new AccessDeniedException("No user for " + caller.getName()));
+        try (Stream<AssignmentSummary> rows = teacherUsername == null
+                ? assignmentRepository.streamSummaries()
+                : assignmentRepository.streamSummariesByTeacher(teacherUsername)) {
+            write(rows, format, out,
+                    "id,title,description,status,teacherUsername,studentId,fileName,fileType,"
+                            + "submittedFileName,submittedFileType,uploadedAt,dueDate,submittedAt",
+                    a -> CsvLines.join(a.getId(), a.getTitle(), a.getDescription(), a.getStatus(),
+                            a.getTeacherUsername(), a.getStudentId(), a.getFileName(), a.getFileType(),
+                            a.getSubmittedFileName(), a.getSubmittedFileType(),
+                            instant(a.getUploadedAt()), instant(a.getDueDate()), instant(a.getSubmittedAt())));
+        }
+    }
+
+    private <T> void write(Stream<T> rows, Format format, OutputStream out, String csvHeader,
+                           Function<T, String> csvLine) throws IOException {
+        Iterator<T> iterator = rows.iterator();
+        if (format == Format.CSV) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write(csvHeader);
+            writer.write("\r\n");
+            while (iterator.hasNext()) {
+                writer.write(csvLine.apply(iterator.next()));
+                writer.write("\r\n");
+            }
+            writer.flush();
+            return;
+        }
+
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+        boolean any = false;
+        while (iterator.hasNext()) {
+            rowWriter.writeValue(generator, iterator.next());
+            any = true;
+        }
+        if (any) {
+            generator.writeRaw('\n');
+        }
+        generator.close();
+    }
+
+    private static String instant(Date date) {
+        return date == null ? null : date.toInstant().toString();
+    }
+}
@@ -0,0 +1,92 @@
+package com.Gestion_Note.Note.Controllers;
+
+import com.Gestion_Note.Note.DTO.AssignmentFile;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourceRegion;
+import org.springframework.http.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Download responses for files kept in the blob store. The SHA-256 a file is stored under is
+ * its strong ETag, so If-None-Match and If-Range are answered without any lookup. Ranges are
+ * sent as {@link ResourceRegion}s, which Spring copies from the file through a fixed-size
+ * buffer, so the memory a download takes does not depend on the size of the file.
+ */
+public final class FileDownloads {
+
+    private FileDownloads() {
+    }
+
+    public static ResponseEntity<?> respond(AssignmentFile file, Resource content, String fallbackName,
+                                            HttpHeaders request) throws IOException {
+        String etag = "\"" + file.getHash() + "\"";
+        if (EntityTags.matches(request.getFirst(HttpHeaders.IF_NONE_MATCH), etag)) {
+            return EntityTags.notModified(etag);
+        }
+
+        long length = content.contentLength();
+        String filename = file.getFileName() != null ? file.getFileName() : fallbackName;
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentDisposition(ContentDisposition.attachment().filename(filename, StandardCharsets.UTF_8).build());
+        headers.setContentType(mediaType(file.getFileType()));
+        headers.setETag(etag);
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        String range = request.getFirst(HttpHeaders.RANGE);
+        if (range == null) {
+            return ResponseEntity.ok().headers(headers).contentLength(length).body(content);
+        }
+        List<HttpRange> ranges = ifRangeMatches(request.getFirst(HttpHeaders.IF_RANGE), etag) ? parse(range) : null;
+        if (ranges == null) {
+            // Spring answers any Resource body with a Range header as a partial response, so a
+            // Range that has to be ignored is served through a plain stream instead
+            return ResponseEntity.ok().headers(headers).contentLength(length)
+                    .body(new InputStreamResource(content.getInputStream()));
+        }
+
+        List<ResourceRegion> regions;
+        try {
+            regions = HttpRange.toResourceRegions(ranges, content);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                    .build();
+        }
+        // Content-Range, Content-Length and the multipart/byteranges framing are written by the region converter
+        if (regions.size() == 1) {
+            return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(headers).body(regions.get(0));
+        }
+        return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).headers(headers).body(regions);
+    }
+
+    // Only the strong ETag is accepted; a date or any other tag means the client's copy may be stale
+    private static boolean ifRangeMatches(String ifRange, String etag) {
+        return ifRange == null || ifRange.trim().equals(etag);
+    }
+
+    // A malformed Range header is ignored and the whole file is sent
+    private static List<HttpRange> parse(String range) {
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(range);
+            return ranges.isEmpty() ? null : ranges;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // The type is whatever the uploading browser claimed, so anything unparsable is sent as raw bytes
+    private static MediaType mediaType(String fileType) {
+        if (fileType == null) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+        try {
+            return MediaType.parseMediaType(fileType);
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_OCTET_STREAM;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.Gestion_Note.Note.Services;
+
+import com.Gestion_Note.Note.DTO.BlobDescriptor;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Stores each blob as {@code <root>/ab/cd/<hash>}. Content is staged as a temporary file,
+ * streamed through one fixed-size buffer while it is hashed and counted, and committed by
+ * moving it into place; if the target already exists the temporary copy is dropped, so a
+ * file is never rewritten once stored.
+ */
+@Component
+public class FileSystemBlobStore implements BlobStore {
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path root;
+    private final Path incoming;
+
+    public FileSystemBlobStore(@Value("${storage.blobs.root:data/blobs}") String root) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.incoming = this.root.resolve("incoming");
+    }
+
+    @PostConstruct
+    void init() throws IOException {
+        Files.createDirectories(incoming);
+    }
+
+    @Override
+    public StagedBlob stage(InputStream content, long maxBytes) throws IOException {
+        Path temp = Files.createTempFile(incoming, "upload-", ".tmp");
+        try {
+            MessageDigest digest = sha256();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long size = 0;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                int read;
+                while ((read = content.read(buffer)) != -1) {
+                    size += read;
+                    if (size > maxBytes) {
+                        throw new UploadTooLargeException(maxBytes);
+                    }
+                    digest.update(buffer, 0, read);
+                    out.write(buffer, 0, read);
+                }
+            }
+            return new StagedFile(temp, HexFormat.of().formatHex(digest.digest()), size);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    @Override
+    public BlobDescriptor commit(StagedBlob staged) throws IOException {
+        if (!(staged instanceof StagedFile file)) {
+            throw new IllegalArgumentException("Not staged by this store");
+        }
+        Path target = pathOf(file.hash);
+        try {
+            if (Files.exists(target)) {
+                return new BlobDescriptor(file.hash, file.size, true);
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(file.temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // The same content was stored concurrently
+                return new BlobDescriptor(file.hash, file.size, true);
+            }
+            return new BlobDescriptor(file.hash, file.size, false);
+        } finally {
+            file.close();
+        }
+    }
+
+    @Override
+    public Resource get(String hash) throws IOException {
+        Path path = pathOf(hash);
+        if (!Files.isRegularFile(path)) {
+            throw new NoSuchFileException("No blob stored for " + hash);
+        }
+        return new FileSystemResource(path);
+    }
+
+    @Override
+    public boolean exists(String hash) {
+        return Files.isRegularFile(pathOf(hash));
+    }
+
+    @Override
+    public boolean delete(String hash) throws IOException {
+        return Files.deleteIfExists(pathOf(hash));
+    }
+
+    // The hash is the only part of the path that comes from outside, so it is checked strictly
+    private Path pathOf(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) {
+            throw new IllegalArgumentException("Invalid blob hash: " + hash);
+        }
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private static final class StagedFile implements StagedBlob {
+        private final Path temp;
+        private final String hash;
+        private final long size;
+
+        private StagedFile(Path temp, String hash, long size) {
+            this.temp = temp;
+            this.hash = hash;
+            this.size = size;
+        }
+
+        @Override
+        public String getHash() {
+            return hash;
+        }
+
+        @Override
+        public long getSize() {
+            return size;
+        }
+
+        // A no-op once the file has been moved into place
+        @Override
+        public void close() throws IOException {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -2,9 +2,11 @@ package com.Gestion_Note.Note.Entities;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 
 @Entity
@@ -16,21 +18,35 @@ public class Group {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long groupId;
     private String groupName;
+
+    // Also bumped by changes to the member collections, so it doubles as the ETag of the group
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    // Sets rather than bags: Hibernate can then insert or delete single rows of these
+    // collection tables instead of rewriting the whole collection on every change.
+    // Batch fetching keeps /group/get/all at a few queries instead of two per group.
     @ElementCollection
-    private List<String> teacherUsernames = new ArrayList<>();
+    @OrderBy
+    @BatchSize(size = 100)
+    private Set<String> teacherUsernames = new LinkedHashSet<>();
 
     @ElementCollection
-    private List<String> studentUsernames = new ArrayList<>();
+    @OrderBy
+    @BatchSize(size = 100)
+    private Set<String> studentUsernames = new LinkedHashSet<>();
     @ManyToMany
     @JoinTable(
             name = "group_teacher",
             joinColumns = @JoinColumn(name = "group_id"),
             inverseJoinColumns = @JoinColumn(name = "teacher_id")
     )
-    private List<Teacher> responsibleTeachers = new ArrayList<>();
+    private Set<Teacher> responsibleTeachers = new LinkedHashSet<>();
 
     @OneToMany(mappedBy = "group")
-    private List<Student> students = new ArrayList<>();
+    private Set<Student> students = new LinkedHashSet<>();
 
     public Long getGroupId() {
         return groupId;
@@ -40,6 +56,14 @@ public class Group {
         this.groupId = groupId;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getGroupName() {
         return groupName;
     }
@@ -48,35 +72,35 @@ public class Group {
         this.groupName = groupName;
     }
 
-    public List<Teacher> getResponsibleTeachers() {
+    public Set<Teacher> getResponsibleTeachers() {
         return responsibleTeachers;
     }
 
-    public void setResponsibleTeachers(List<Teacher> responsibleTeachers) {
+    public void setResponsibleTeachers(Set<Teacher> responsibleTeachers) {
         this.responsibleTeachers = responsibleTeachers;
     }
 
-    public List<Student> getStudents() {
+    public Set<Student> getStudents() {
         return students;
     }
 
-    public void setStudents(List<Student> students) {
+    public void setStudents(Set<Student> students) {
         this.students = students;
     }
 
-    public List<String> getTeacherUsernames() {
+    public Set<String> getTeacherUsernames() {
         return teacherUsernames;
     }
 
-    public void setTeacherUsernames(List<String> teacherUsernames) {
+    public void setTeacherUsernames(Set<String> teacherUsernames) {
         this.teacherUsernames = teacherUsernames;
     }
 
-    public List<String> getStudentUsernames() {
+    public Set<String> getStudentUsernames() {
         return studentUsernames;
     }
 
-    public void setStudentUsernames(List<String> studentUsernames) {
+    public void setStudentUsernames(Set<String> studentUsernames) {
         this.studentUsernames = studentUsernames;
     }
 }
@@ -2,14 +2,32 @@ package com.Gestion_Note.Note.Controllers;
 
 
 import com.Gestion_Note.Note.DTO.AddStudentsRequest;
+import com.Gestion_Note.Note.DTO.CursorPage;
 import com.Gestion_Note.Note.DTO.GroupCreationRequest;
+import com.Gestion_Note.Note.DTO.GroupImportResult;
+import com.Gestion_Note.Note.DTO.GroupMembersPatch;
+import com.Gestion_Note.Note.DTO.GroupSummary;
 import com.Gestion_Note.Note.DTO.UpdateGroupRequest;
+import com.Gestion_Note.Note.DTO.UserSummary;
 import com.Gestion_Note.Note.Entities.Group;
+import com.Gestion_Note.Note.Entities.Roles;
+import com.Gestion_Note.Note.Security.CustomUserDetails;
+import com.Gestion_Note.Note.Services.GroupRosterImportService;
 import com.Gestion_Note.Note.Services.GroupService;
 import jakarta.persistence.EntityNotFoundException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,9 +36,11 @@ import java.util.Optional;
 public class GroupController {
 
     private final GroupService groupService;
+    private final GroupRosterImportService groupRosterImportService;
 
-    public GroupController(GroupService groupService) {
+    public GroupController(GroupService groupService, GroupRosterImportService groupRosterImportService) {
         this.groupService = groupService;
+        this.groupRosterImportService = groupRosterImportService;
     }
 
     @PostMapping("/save")
@@ -33,6 +53,19 @@ public class GroupController {
         }
     }
 
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importRoster(@RequestParam("file") MultipartFile file) {
+        try (Reader csv = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            GroupImportResult result = groupRosterImportService.importRoster(csv);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Roster import failed: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/get/all")
     public ResponseEntity<?> getAllGroups(){
         try{
@@ -43,10 +76,69 @@ public class GroupController {
         }
     }
 
+    @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_TEACHER')")
+    @GetMapping("/summary")
+    public ResponseEntity<?> getGroupSummaries(Authentication authentication) {
+        Long teacherId = supervisingTeacher(authentication);
+        try {
+            List<GroupSummary> groups = teacherId == null
+                    ? groupService.getGroupSummaries()
+                    : groupService.getGroupSummariesOf(teacherId);
+            return ResponseEntity.ok(groups);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Error " + e.getMessage());
+        }
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_TEACHER')")
+    @GetMapping("/{groupId}/members")
+    public ResponseEntity<?> getMembers(@PathVariable Long groupId,
+                                        @RequestParam(required = false) Roles role,
+                                        @RequestParam(required = false) Long cursor,
+                                        @RequestParam(required = false) Integer size,
+                                        Authentication authentication) {
+        Long teacherId = supervisingTeacher(authentication);
+        if (teacherId != null && !groupService.isSupervisedBy(groupId, teacherId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Not a teacher of this group");
+        }
+        try {
+            CursorPage<UserSummary> page = groupService.getMembers(groupId, role, cursor, size);
+            return ResponseEntity.ok(page);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        }
+    }
+
+    // Null for admins, who see every group; teachers only see the groups they supervise
+    private static Long supervisingTeacher(Authentication authentication) {
+        boolean admin = authentication.getAuthorities().stream()
+                .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+        if (admin) {
+            return null;
+        }
+        if (authentication.getPrincipal() instanceof CustomUserDetails details) {
+            return details.getUserId();
+        }
+        throw new AccessDeniedException("Unknown caller");
+    }
+
     @GetMapping("/get")
-    public ResponseEntity<?> getGroup(@RequestParam Long groupId){
+    public ResponseEntity<?> getGroup(@RequestParam Long groupId,
+                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
         try {
+            String unchanged = EntityTags.currentIfMatched(ifNoneMatch, "group", groupId,
+                    () -> groupService.getGroupVersionTag(groupId));
+            if (unchanged != null) {
+                return EntityTags.notModified(unchanged);
+            }
             Optional<Group> group = groupService.getGroup(groupId);
+            if (group.isPresent()) {
+                return ResponseEntity.ok()
+                        .eTag(EntityTags.etag("group", groupId, EntityTags.version(group.get().getVersion())))
+                        .body(group);
+            }
             return ResponseEntity.ok(group);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error " + e.getMessage());
@@ -75,6 +167,18 @@ public class GroupController {
         }
     }
 
+    @PatchMapping("/{groupId}/members")
+    public ResponseEntity<?> updateMembers(@PathVariable Long groupId, @RequestBody GroupMembersPatch patch) {
+        try {
+            groupService.updateMembers(groupId, patch);
+            return ResponseEntity.ok("Group members updated");
+        } catch (EntityNotFoundException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body("Unexpected error: " + e.getMessage());
+        }
+    }
+
     @PutMapping("/add-students")
     public ResponseEntity<?> addStudentsToGroup(@RequestBody AddStudentsRequest request) {
         try {
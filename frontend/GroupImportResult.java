@@ -0,0 +1,80 @@
+package com.Gestion_Note.Note.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GroupImportResult {
+    private int lines;
+    private int imported;
+    private int groupsCreated;
+    private int chunks;
+    private List<LineError> errors = new ArrayList<>();
+
+    public int getLines() {
+        return lines;
+    }
+
+    public void setLines(int lines) {
+        this.lines = lines;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public void setImported(int imported) {
+        this.imported = imported;
+    }
+
+    public int getGroupsCreated() {
+        return groupsCreated;
+    }
+
+    public void setGroupsCreated(int groupsCreated) {
+        this.groupsCreated = groupsCreated;
+    }
+
+    public int getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(int chunks) {
+        this.chunks = chunks;
+    }
+
+    public List<LineError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<LineError> errors) {
+        this.errors = errors;
+    }
+
+    public void addError(int line, String username, String message) {
+        errors.add(new LineError(line, username, message));
+    }
+
+    public static class LineError {
+        private final int line;
+        private final String username;
+        private final String message;
+
+        public LineError(int line, String username, String message) {
+            this.line = line;
+            this.username = username;
+            this.message = message;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.Gestion_Note.Note.DTO;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Membership delta for PATCH /group/{groupId}/members: only the listed usernames are
+ * added or removed, the rest of the roster is left untouched.
+ */
+public class GroupMembersPatch {
+    private List<String> addTeachers = new ArrayList<>();
+    private List<String> removeTeachers = new ArrayList<>();
+    private List<String> addStudents = new ArrayList<>();
+    private List<String> removeStudents = new ArrayList<>();
+
+    public List<String> getAddTeachers() {
+        return addTeachers;
+    }
+
+    public void setAddTeachers(List<String> addTeachers) {
+        this.addTeachers = addTeachers;
+    }
+
+    public List<String> getRemoveTeachers() {
+        return removeTeachers;
+    }
+
+    public void setRemoveTeachers(List<String> removeTeachers) {
+        this.removeTeachers = removeTeachers;
+    }
+
+    public List<String> getAddStudents() {
+        return addStudents;
+    }
+
+    public void setAddStudents(List<String> addStudents) {
+        this.addStudents = addStudents;
+    }
+
+    public List<String> getRemoveStudents() {
+        return removeStudents;
+    }
+
+    public void setRemoveStudents(List<String> removeStudents) {
+        this.removeStudents = removeStudents;
+    }
+}
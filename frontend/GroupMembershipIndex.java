@@ -0,0 +1,279 @@
+package com.Gestion_Note.Note.Services;
+
+import com.Gestion_Note.Note.Repository.GroupRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory group membership: one bitmap of user ids per group for its students and one
+ * for its teachers, plus the reverse maps (group of a student, groups of a teacher).
+ * Membership tests are a bit lookup and unions/intersections over several groups are
+ * word-wise bitmap operations. Built from {@code group_teacher} and {@code students.group_id}
+ * at startup and kept current by {@link GroupService}. Changes made inside a transaction are
+ * applied once it commits, so a rolled-back or replayed roster write leaves the index untouched.
+ */
+@Component
+public class GroupMembershipIndex {
+
+    private final GroupRepository groupRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, BitSet> studentsByGroup = new HashMap<>();
+    private final Map<Long, BitSet> teachersByGroup = new HashMap<>();
+    private final Map<Long, Long> groupByStudent = new HashMap<>();
+    private final Map<Long, BitSet> groupsByTeacher = new HashMap<>();
+
+    public GroupMembershipIndex(GroupRepository groupRepository) {
+        this.groupRepository = groupRepository;
+    }
+
+    @PostConstruct
+    void load() {
+        List<GroupRepository.Membership> students = groupRepository.findStudentMemberships();
+        List<GroupRepository.Membership> teachers = groupRepository.findTeacherMemberships();
+        lock.writeLock().lock();
+        try {
+            studentsByGroup.clear();
+            teachersByGroup.clear();
+            groupByStudent.clear();
+            groupsByTeacher.clear();
+            for (GroupRepository.Membership membership : students) {
+                addStudentLocked(membership.getGroupId(), membership.getUserId());
+            }
+            for (GroupRepository.Membership membership : teachers) {
+                addTeacherLocked(membership.getGroupId(), membership.getUserId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Puts the students in the group, taking them out of the group they were in before. */
+    public void addStudents(Long groupId, Collection<Long> studentIds) {
+        List<Long> ids = List.copyOf(studentIds);
+        afterCommit(() -> {
+            for (Long studentId : ids) {
+                addStudentLocked(groupId, studentId);
+            }
+        });
+    }
+
+    public void removeStudents(Long groupId, Collection<Long> studentIds) {
+        List<Long> ids = List.copyOf(studentIds);
+        afterCommit(() -> {
+            for (Long studentId : ids) {
+                if (Objects.equals(groupByStudent.get(studentId), groupId)) {
+                    removeStudentLocked(studentId);
+                }
+            }
+        });
+    }
+
+    public void addTeachers(Long groupId, Collection<Long> teacherIds) {
+        List<Long> ids = List.copyOf(teacherIds);
+        afterCommit(() -> {
+            for (Long teacherId : ids) {
+                addTeacherLocked(groupId, teacherId);
+            }
+        });
+    }
+
+    public void removeTeachers(Long groupId, Collection<Long> teacherIds) {
+        List<Long> ids = List.copyOf(teacherIds);
+        afterCommit(() -> {
+            for (Long teacherId : ids) {
+                removeTeacherLocked(groupId, teacherId);
+            }
+        });
+    }
+
+    public void removeGroup(Long groupId) {
+        afterCommit(() -> {
+            BitSet students = studentsByGroup.remove(groupId);
+            if (students != null) {
+                students.stream().forEach(id -> groupByStudent.remove((long) id));
+            }
+            BitSet teachers = teachersByGroup.remove(groupId);
+            if (teachers != null) {
+                teachers.stream().forEach(id -> clearBit(groupsByTeacher, (long) id, groupId));
+            }
+        });
+    }
+
+    /** Forgets a deleted user, whichever role it had. */
+    public void removeUser(Long userId) {
+        afterCommit(() -> {
+            removeStudentLocked(userId);
+            BitSet groups = groupsByTeacher.remove(userId);
+            if (groups != null) {
+                groups.stream().forEach(groupId -> clearBit(teachersByGroup, (long) groupId, userId));
+            }
+        });
+    }
+
+    // Runs the change under the write lock, after the surrounding transaction commits if there is one
+    private void afterCommit(Runnable change) {
+        Runnable locked = () -> {
+            lock.writeLock().lock();
+            try {
+                change.run();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            locked.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                locked.run();
+            }
+        });
+    }
+
+    public boolean isStudentIn(Long groupId, Long studentId) {
+        lock.readLock().lock();
+        try {
+            return Objects.equals(groupByStudent.get(studentId), groupId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isTeacherOf(Long groupId, Long teacherId) {
+        lock.readLock().lock();
+        try {
+            BitSet teachers = teachersByGroup.get(groupId);
+            return teachers != null && teachers.get(bit(teacherId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Optional<Long> groupOf(Long studentId) {
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(groupByStudent.get(studentId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long[] groupsOf(Long teacherId) {
+        lock.readLock().lock();
+        try {
+            return ids(groupsByTeacher.get(teacherId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long[] studentsOf(Collection<Long> groupIds) {
+        return combine(studentsByGroup, groupIds, false);
+    }
+
+    public long[] teachersOf(Collection<Long> groupIds) {
+        return combine(teachersByGroup, groupIds, false);
+    }
+
+    /** Teachers who supervise every one of the given groups. */
+    public long[] teachersSharedBy(Collection<Long> groupIds) {
+        return combine(teachersByGroup, groupIds, true);
+    }
+
+    /** Students of {@code groupId} that the teacher is responsible for, empty if the teacher is not. */
+    public long[] studentsSupervisedBy(Long teacherId, Long groupId) {
+        lock.readLock().lock();
+        try {
+            BitSet teachers = teachersByGroup.get(groupId);
+            if (teachers == null || !teachers.get(bit(teacherId))) {
+                return new long[0];
+            }
+            return ids(studentsByGroup.get(groupId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] combine(Map<Long, BitSet> byGroup, Collection<Long> groupIds, boolean intersect) {
+        lock.readLock().lock();
+        try {
+            BitSet result = null;
+            for (Long groupId : groupIds) {
+                BitSet members = byGroup.get(groupId);
+                if (members == null) {
+                    if (intersect) {
+                        return new long[0];
+                    }
+                    continue;
+                }
+                if (result == null) {
+                    result = (BitSet) members.clone();
+                } else if (intersect) {
+                    result.and(members);
+                } else {
+                    result.or(members);
+                }
+            }
+            return ids(result);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addStudentLocked(Long groupId, Long studentId) {
+        Long previous = groupByStudent.put(studentId, groupId);
+        if (previous != null && !previous.equals(groupId)) {
+            clearBit(studentsByGroup, previous, studentId);
+        }
+        studentsByGroup.computeIfAbsent(groupId, g -> new BitSet()).set(bit(studentId));
+    }
+
+    private void removeStudentLocked(Long studentId) {
+        Long groupId = groupByStudent.remove(studentId);
+        if (groupId != null) {
+            clearBit(studentsByGroup, groupId, studentId);
+        }
+    }
+
+    private void addTeacherLocked(Long groupId, Long teacherId) {
+        teachersByGroup.computeIfAbsent(groupId, g -> new BitSet()).set(bit(teacherId));
+        groupsByTeacher.computeIfAbsent(teacherId, t -> new BitSet()).set(bit(groupId));
+    }
+
+    private void removeTeacherLocked(Long groupId, Long teacherId) {
+        clearBit(teachersByGroup, groupId, teacherId);
+        clearBit(groupsByTeacher, teacherId, groupId);
+    }
+
+    // Empty bitmaps are dropped so groups and teachers that lost all members do not linger
+    private static void clearBit(Map<Long, BitSet> map, Long key, Long id) {
+        BitSet bits = map.get(key);
+        if (bits != null) {
+            bits.clear(bit(id));
+            if (bits.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+
+    private static long[] ids(BitSet bits) {
+        return bits == null ? new long[0] : bits.stream().asLongStream().toArray();
+    }
+
+    // Ids are IDENTITY values, dense and far below Integer.MAX_VALUE, so they index the bitmap directly
+    private static int bit(Long id) {
+        if (id == null || id < 0 || id > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Id out of bitmap range: " + id);
+        }
+        return (int) (long) id;
+    }
+}
@@ -1,14 +1,75 @@
 package com.Gestion_Note.Note.Repository;
 
+import com.Gestion_Note.Note.DTO.GroupSummary;
+import com.Gestion_Note.Note.DTO.UserSummary;
 import com.Gestion_Note.Note.Entities.Group;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 
 @Repository
 public interface GroupRepository extends JpaRepository<Group, Long> {
     Optional<Group> findByGroupName(String groupName);
 
+    List<Group> findByGroupNameIn(Collection<String> groupNames);
+
+    @Query("select str(coalesce(g.version, 0)) from Group g where g.groupId = :id")
+    Optional<String> findVersionTag(@Param("id") Long id);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.Gestion_Note.Note.DTO.GroupSummary(g.groupId, g.groupName, " +
+            "size(g.responsibleTeachers), size(g.students)) from Group g order by g.groupId")
+    Stream<GroupSummary> streamSummaries();
+
+    // Counts are correlated subqueries, so the whole listing is a single statement
+    @Query("select new com.Gestion_Note.Note.DTO.GroupSummary(g.groupId, g.groupName, " +
+            "size(g.responsibleTeachers), size(g.students)) from Group g order by g.groupId")
+    List<GroupSummary> findSummaries();
+
+    @Query("select new com.Gestion_Note.Note.DTO.GroupSummary(g.groupId, g.groupName, " +
+            "size(g.responsibleTeachers), size(g.students)) from Group g where g.groupId in :ids order by g.groupId")
+    List<GroupSummary> findSummariesByGroupIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.Gestion_Note.Note.DTO.UserSummary(s.user_id, s.name, s.username, s.email, s.role) " +
+            "from Student s where s.group.groupId = :groupId and s.user_id > :after order by s.user_id")
+    List<UserSummary> findStudentSummariesAfter(@Param("groupId") Long groupId, @Param("after") Long after, Pageable pageable);
+
+    @Query("select new com.Gestion_Note.Note.DTO.UserSummary(t.user_id, t.name, t.username, t.email, t.role) " +
+            "from Group g join g.responsibleTeachers t where g.groupId = :groupId and t.user_id > :after " +
+            "order by t.user_id")
+    List<UserSummary> findTeacherSummariesAfter(@Param("groupId") Long groupId, @Param("after") Long after, Pageable pageable);
+
+    @Query("select new com.Gestion_Note.Note.DTO.UserSummary(u.user_id, u.name, u.username, u.email, u.role) " +
+            "from User u where u.user_id > :after and (" +
+            "u.user_id in (select s.user_id from Student s where s.group.groupId = :groupId) or " +
+            "u.user_id in (select t.user_id from Group g join g.responsibleTeachers t where g.groupId = :groupId)) " +
+            "order by u.user_id")
+    List<UserSummary> findMemberSummariesAfter(@Param("groupId") Long groupId, @Param("after") Long after, Pageable pageable);
+
+    @Query("select s.group.groupId as groupId, s.user_id as userId from Student s where s.group is not null")
+    List<Membership> findStudentMemberships();
+
+    @Query("select g.groupId as groupId, t.user_id as userId from Group g join g.responsibleTeachers t")
+    List<Membership> findTeacherMemberships();
+
+    interface Membership {
+        Long getGroupId();
+
+        Long getUserId();
+    }
+
 }
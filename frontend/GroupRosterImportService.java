@@ -0,0 +1,226 @@
+package com.Gestion_Note.Note.Services;
+
+import com.Gestion_Note.Note.DTO.GroupCreationRequest;
+import com.Gestion_Note.Note.DTO.GroupImportResult;
+import com.Gestion_Note.Note.DTO.GroupMembersPatch;
+import com.Gestion_Note.Note.Entities.Group;
+import com.Gestion_Note.Note.Entities.Roles;
+import com.Gestion_Note.Note.Entities.User;
+import com.Gestion_Note.Note.Repository.GroupRepository;
+import com.Gestion_Note.Note.Repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+
+/**
+ * Imports a {@code groupName,username[,role]} roster. Lines are read one at a time and
+ * applied in chunks, each in its own transaction: one user lookup and one group lookup per
+ * chunk, then one membership update per group of the chunk. A chunk that collides with a
+ * concurrent group edit is replayed; one that still fails is rolled back and reported line
+ * by line without affecting the chunks before or after it. A student belongs to one group, so
+ * the first line that places a student wins and any later line for the same student is
+ * reported as an error instead of being counted.
+ */
+@Service
+public class GroupRosterImportService {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("groupname", "username");
+
+    private final GroupService groupService;
+    private final GroupRepository groupRepository;
+    private final UserRepository userRepository;
+    private final GroupWriteRetry groupWriteRetry;
+    private final int chunkSize;
+
+    public GroupRosterImportService(
+            GroupService groupService,
+            GroupRepository groupRepository,
+            UserRepository userRepository,
+            GroupWriteRetry groupWriteRetry,
+            @Value("${group.import.chunk-size:1000}") int chunkSize
+    ) {
+        this.groupService = groupService;
+        this.groupRepository = groupRepository;
+        this.userRepository = userRepository;
+        this.groupWriteRetry = groupWriteRetry;
+        this.chunkSize = chunkSize;
+    }
+
+    public GroupImportResult importRoster(Reader csv) throws IOException {
+        BufferedReader reader = new BufferedReader(csv);
+        GroupImportResult result = new GroupImportResult();
+        String header = reader.readLine();
+        if (header == null) {
+            return result;
+        }
+        List<String> columns = CsvLines.split(header.trim().toLowerCase(Locale.ROOT));
+        if (!columns.containsAll(REQUIRED_COLUMNS)) {
+            throw new IllegalArgumentException("CSV header must contain groupName,username");
+        }
+        int groupColumn = columns.indexOf("groupname");
+        int usernameColumn = columns.indexOf("username");
+        int roleColumn = columns.indexOf("role");
+
+        // Line that placed each student, for the chunks committed so far
+        Map<String, RosterLine> placedStudents = new HashMap<>();
+        List<RosterLine> chunk = new ArrayList<>();
+        int number = 1;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            number++;
+            if (line.isBlank()) {
+                continue;
+            }
+            result.setLines(result.getLines() + 1);
+            List<String> fields = CsvLines.split(line);
+            String groupName = field(fields, groupColumn);
+            String username = field(fields, usernameColumn);
+            String role = field(fields, roleColumn);
+
+            if (groupName == null || username == null) {
+                result.addError(number, username, "groupName and username are required");
+                continue;
+            }
+            Roles parsedRole = null;
+            if (role != null) {
+                parsedRole = parseRole(role);
+                if (parsedRole == null) {
+                    result.addError(number, username, "Role must be TEACHER or STUDENT");
+                    continue;
+                }
+            }
+
+            chunk.add(new RosterLine(number, groupName, username, parsedRole));
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, placedStudents, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, placedStudents, result);
+        }
+        return result;
+    }
+
+    private void importChunk(List<RosterLine> chunk, Map<String, RosterLine> placedStudents, GroupImportResult result) {
+        GroupImportResult chunkResult;
+        Map<String, RosterLine> placedByChunk = new HashMap<>();
+        try {
+            // A fresh report per attempt, so a replayed chunk does not count its lines twice
+            chunkResult = groupWriteRetry.execute(() -> {
+                GroupImportResult attempt = new GroupImportResult();
+                placedByChunk.clear();
+                applyChunk(chunk, placedStudents, placedByChunk, attempt);
+                return attempt;
+            });
+        } catch (RuntimeException e) {
+            for (RosterLine row : chunk) {
+                result.addError(row.number, row.username, "Not imported, chunk rolled back: " + e.getMessage());
+            }
+            return;
+        }
+        placedStudents.putAll(placedByChunk);
+        result.setImported(result.getImported() + chunkResult.getImported());
+        result.setGroupsCreated(result.getGroupsCreated() + chunkResult.getGroupsCreated());
+        result.setChunks(result.getChunks() + 1);
+        result.getErrors().addAll(chunkResult.getErrors());
+    }
+
+    private void applyChunk(List<RosterLine> chunk, Map<String, RosterLine> placedStudents,
+                            Map<String, RosterLine> placedByChunk, GroupImportResult report) {
+        Set<String> usernames = new HashSet<>();
+        Set<String> groupNames = new HashSet<>();
+        for (RosterLine row : chunk) {
+            usernames.add(row.username);
+            groupNames.add(row.groupName);
+        }
+        Map<String, User> users = new HashMap<>();
+        for (User user : userRepository.findByUsernameIn(usernames)) {
+            users.put(user.getUsername(), user);
+        }
+        Map<String, Group> groups = new HashMap<>();
+        for (Group group : groupRepository.findByGroupNameIn(groupNames)) {
+            groups.put(group.getGroupName(), group);
+        }
+
+        Map<String, GroupMembersPatch> patches = new LinkedHashMap<>();
+        for (RosterLine row : chunk) {
+            User user = users.get(row.username);
+            Roles role = row.role != null ? row.role : user == null ? null : user.getRole();
+            RosterLine earlier = role == Roles.STUDENT ? placed(row, placedStudents, placedByChunk) : null;
+            if (user == null) {
+                report.addError(row.number, row.username, "User not found");
+            } else if (role != Roles.TEACHER && role != Roles.STUDENT) {
+                report.addError(row.number, row.username, "Only teachers and students can be group members");
+            } else if (user.getRole() != role) {
+                report.addError(row.number, row.username, row.username + " is not a " + role.name().toLowerCase(Locale.ROOT));
+            } else if (earlier != null) {
+                report.addError(row.number, row.username, earlier.groupName.equals(row.groupName)
+                        ? "Duplicate of line " + earlier.number
+                        : "Already placed in " + earlier.groupName + " by line " + earlier.number);
+            } else {
+                if (role == Roles.STUDENT) {
+                    placedByChunk.put(row.username, row);
+                }
+                GroupMembersPatch patch = patches.computeIfAbsent(row.groupName, name -> new GroupMembersPatch());
+                if (role == Roles.TEACHER) {
+                    patch.getAddTeachers().add(row.username);
+                } else {
+                    patch.getAddStudents().add(row.username);
+                }
+                report.setImported(report.getImported() + 1);
+            }
+        }
+
+        for (Map.Entry<String, GroupMembersPatch> entry : patches.entrySet()) {
+            Group group = groups.get(entry.getKey());
+            if (group == null) {
+                GroupCreationRequest request = new GroupCreationRequest();
+                request.setGroupName(entry.getKey());
+                group = groupService.createGroup(request);
+                report.setGroupsCreated(report.getGroupsCreated() + 1);
+            }
+            groupService.updateMembers(group.getGroupId(), entry.getValue());
+        }
+    }
+
+    private static RosterLine placed(RosterLine row, Map<String, RosterLine> placedStudents,
+                                     Map<String, RosterLine> placedByChunk) {
+        RosterLine earlier = placedByChunk.get(row.username);
+        return earlier != null ? earlier : placedStudents.get(row.username);
+    }
+
+    private static Roles parseRole(String role) {
+        try {
+            Roles parsed = Roles.valueOf(role.trim().toUpperCase(Locale.ROOT));
+            return parsed == Roles.TEACHER || parsed == Roles.STUDENT ? parsed : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String field(List<String> fields, int index) {
+        if (index < 0 || index >= fields.size() || fields.get(index).isBlank()) {
+            return null;
+        }
+        return fields.get(index).trim();
+    }
+
+    private static final class RosterLine {
+        private final int number;
+        private final String groupName;
+        private final String username;
+        private final Roles role;
+
+        private RosterLine(int number, String groupName, String username, Roles role) {
+            this.number = number;
+            this.groupName = groupName;
+            this.username = username;
+            this.role = role;
+        }
+    }
+}
@@ -1,19 +1,21 @@
 package com.Gestion_Note.Note.Services;
 
+import com.Gestion_Note.Note.DTO.CursorPage;
 import com.Gestion_Note.Note.DTO.GroupCreationRequest;
+import com.Gestion_Note.Note.DTO.GroupMembersPatch;
+import com.Gestion_Note.Note.DTO.GroupSummary;
+import com.Gestion_Note.Note.DTO.UserSummary;
 import com.Gestion_Note.Note.Entities.*;
 import com.Gestion_Note.Note.Repository.GroupRepository;
 import com.Gestion_Note.Note.Repository.StudentRepository;
 import com.Gestion_Note.Note.Repository.TeacherRepository;
 import com.Gestion_Note.Note.Repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
-import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Service
 public class GroupService {
@@ -26,63 +28,97 @@ public class GroupService {
     private final StudentRepository studentRepository;
     @Autowired
     private final UserRepository userRepository;
+    @Autowired
+    private final GroupMembershipIndex membershipIndex;
+    @Autowired
+    private final GroupWriteRetry groupWriteRetry;
 
-    public GroupService(GroupRepository groupRepository, TeacherRepository teacherRepository, StudentRepository studentRepository, UserRepository userRepository) {
+    public GroupService(GroupRepository groupRepository, TeacherRepository teacherRepository, StudentRepository studentRepository, UserRepository userRepository, GroupMembershipIndex membershipIndex, GroupWriteRetry groupWriteRetry) {
         this.groupRepository = groupRepository;
         this.teacherRepository = teacherRepository;
         this.studentRepository = studentRepository;
         this.userRepository = userRepository;
+        this.membershipIndex = membershipIndex;
+        this.groupWriteRetry = groupWriteRetry;
+    }
+
+    // Roster writes are not @Transactional: GroupWriteRetry opens the transaction so it can replay
+    // the whole write when Group.version shows another writer committed first.
+    public Group createGroup(GroupCreationRequest request) {
+        return groupWriteRetry.execute(() -> create(request));
     }
 
-    @Transactional
-    public void createGroup(GroupCreationRequest request) {
+    private Group create(GroupCreationRequest request) {
+        List<String> teacherUsernames = distinct(request.getTeacherUsernames());
+        List<String> studentUsernames = distinct(request.getStudentUsernames());
+        Map<String, User> users = findUsers(teacherUsernames, studentUsernames);
+
+        Unresolved unresolved = new Unresolved();
+        List<Teacher> teachers = pick(users, teacherUsernames, Teacher.class, Roles.TEACHER, "Teacher", unresolved);
+        List<Student> students = pick(users, studentUsernames, Student.class, Roles.STUDENT, "Student", unresolved);
+        unresolved.throwIfAny();
+
         Group group = new Group();
         group.setGroupName(request.getGroupName());
+        group.setResponsibleTeachers(new LinkedHashSet<>(teachers));
+        group.setTeacherUsernames(new LinkedHashSet<>(teacherUsernames));
+        group.setStudents(new LinkedHashSet<>(students));
+        group.setStudentUsernames(new LinkedHashSet<>(studentUsernames));
 
-        // Setup teachers
-        List<Teacher> validTeachers = new ArrayList<>();
-        List<String> teacherUsernames = new ArrayList<>();
-        for (String username : request.getTeacherUsernames()) {
-            User user = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("Teacher not found: " + username));
-            if (user.getRole() != Roles.TEACHER) {
-                throw new RuntimeException("User is not a teacher: " + username);
-            }
-            Teacher teacher = (Teacher) user;
-            validTeachers.add(teacher);
-            teacherUsernames.add(username);
-        }
-        group.setResponsibleTeachers(validTeachers);
-        group.setTeacherUsernames(teacherUsernames);
-
-        // Save the group FIRST! So it has an ID
+        // Save the group FIRST so it has an ID for the students' foreign key
         group = groupRepository.save(group);
+        leavePreviousGroups(group, students);
+        assignStudents(group, students);
+        membershipIndex.addTeachers(group.getGroupId(), ids(teachers));
+        return group;
+    }
 
-        // Setup students
-        List<Student> validStudents = new ArrayList<>();
-        List<String> studentUsernames = new ArrayList<>();
-        for (String username : request.getStudentUsernames()) {
-            User user = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new RuntimeException("Student not found: " + username));
-            if (user.getRole() != Roles.STUDENT) {
-                throw new RuntimeException("User is not a student: " + username);
-            }
-            Student student = (Student) user;
-            student.setGroup(group); // Set group to the student
-            validStudents.add(student);
-            studentUsernames.add(username);
-        }
+    public List<Group> getAllGroups() {
+        return groupRepository.findAll();
+    }
 
-        group.setStudents(validStudents); // Update group-side reference to students
-        group.setStudentUsernames(studentUsernames);
+    public List<GroupSummary> getGroupSummaries() {
+        return groupRepository.findSummaries();
+    }
 
-        // Save students and group together
-        studentRepository.saveAll(validStudents); // Save all students first
-        groupRepository.save(group); // Then save the group again to persist the changes
+    /** Summaries of the groups a teacher supervises; the group ids come from the membership index. */
+    public List<GroupSummary> getGroupSummariesOf(Long teacherId) {
+        long[] groupIds = membershipIndex.groupsOf(teacherId);
+        if (groupIds.length == 0) {
+            return Collections.emptyList();
+        }
+        return groupRepository.findSummariesByGroupIdIn(Arrays.stream(groupIds).boxed().toList());
     }
 
-    public List<Group> getAllGroups() {
-        return groupRepository.findAll();
+    public boolean isSupervisedBy(Long groupId, Long teacherId) {
+        return membershipIndex.isTeacherOf(groupId, teacherId);
+    }
+
+    /**
+     * Returns one keyset page of the teachers and/or students of a group, ordered by user id.
+     * The size is clamped as described in {@link Paging}.
+     */
+    public CursorPage<UserSummary> getMembers(Long groupId, Roles role, Long cursor, Integer size) {
+        Paging paging = Paging.keyset(cursor, size);
+        long after = paging.getAfter();
+        Pageable pageable = paging.getPageable();
+
+        List<UserSummary> rows;
+        if (role == null) {
+            rows = groupRepository.findMemberSummariesAfter(groupId, after, pageable);
+        } else if (role == Roles.STUDENT) {
+            rows = groupRepository.findStudentSummariesAfter(groupId, after, pageable);
+        } else if (role == Roles.TEACHER) {
+            rows = groupRepository.findTeacherSummariesAfter(groupId, after, pageable);
+        } else {
+            throw new IllegalArgumentException("Group members are teachers or students, not " + role);
+        }
+
+        // Only an empty page needs the extra lookup to tell an empty group from a missing one
+        if (rows.isEmpty() && !groupRepository.existsById(groupId)) {
+            throw new EntityNotFoundException("Group not found");
+        }
+        return paging.page(rows, UserSummary::getUser_id);
     }
 
     public Optional<Group> getGroup(Long groupId) {
@@ -94,70 +130,230 @@ public class GroupService {
         }
     }
 
+    public Optional<String> getGroupVersionTag(Long groupId) {
+        return groupRepository.findVersionTag(groupId);
+    }
+
     public void deleteGroup(Long groupId) {
         Optional<Group> existingGroup = groupRepository.findById(groupId);
         if (existingGroup.isPresent()) {
             groupRepository.delete(existingGroup.get());
+            membershipIndex.removeGroup(groupId);
         } else {
             throw new EntityNotFoundException("Group with id " + groupId + " not found");
         }
     }
 
 
-    @Transactional
     public void updateGroup(Long groupId, String groupName, List<String> teacherUsernames, List<String> studentUsernames) {
+        groupWriteRetry.execute(() -> {
+            replaceRoster(groupId, groupName, teacherUsernames, studentUsernames);
+            return null;
+        });
+    }
+
+    private void replaceRoster(Long groupId, String groupName, List<String> teacherUsernames, List<String> studentUsernames) {
         Group group = groupRepository.findById(groupId)
                 .orElseThrow(() -> new EntityNotFoundException("Group not found"));
 
         group.setGroupName(groupName);
 
-        List<Teacher> newTeachers = new ArrayList<>();
-        for (String username : teacherUsernames) {
-            User user = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new EntityNotFoundException("Teacher not found: " + username));
-            if (!(user instanceof Teacher)) {
-                throw new IllegalArgumentException(username + " is not a teacher");
-            }
-            newTeachers.add((Teacher) user);
+        // Replace the roster by applying only its difference with the current one
+        Set<String> wantedTeachers = new LinkedHashSet<>(distinct(teacherUsernames));
+        Set<String> wantedStudents = new LinkedHashSet<>(distinct(studentUsernames));
+        Set<String> currentTeachers = new HashSet<>();
+        for (Teacher teacher : group.getResponsibleTeachers()) {
+            currentTeachers.add(teacher.getUsername());
         }
+        Set<String> currentStudents = new HashSet<>(studentRepository.findUsernamesByGroupId(groupId));
 
-        group.setResponsibleTeachers(newTeachers);
+        applyMembership(group,
+                minus(wantedTeachers, currentTeachers), new HashSet<>(minus(currentTeachers, wantedTeachers)),
+                minus(wantedStudents, currentStudents), new HashSet<>(minus(currentStudents, wantedStudents)));
 
-        List<Student> newStudents = new ArrayList<>();
-        for (String username : studentUsernames) {
-            User user = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new EntityNotFoundException("Student not found: " + username));
-            if (!(user instanceof Student)) {
-                throw new IllegalArgumentException(username + " is not a student");
-            }
-            Student student = (Student) user;
-            student.setGroup(group);
-            newStudents.add(student);
-        }
-
-        group.setStudents(newStudents);
+        // The username lists are denormalized copies; bring them back in line with the roster
+        group.getTeacherUsernames().retainAll(wantedTeachers);
+        group.getTeacherUsernames().addAll(wantedTeachers);
+        group.getStudentUsernames().retainAll(wantedStudents);
+        group.getStudentUsernames().addAll(wantedStudents);
 
         groupRepository.save(group);
     }
 
-    @Transactional
     public void addStudentsToGroup(Long groupId, List<String> studentUsernames) {
+        GroupMembersPatch patch = new GroupMembersPatch();
+        patch.setAddStudents(studentUsernames);
+        updateMembers(groupId, patch);
+    }
+
+    /**
+     * Adds and removes the given members without touching the rest of the roster. A student
+     * added here leaves their previous group.
+     */
+    public void updateMembers(Long groupId, GroupMembersPatch patch) {
+        groupWriteRetry.execute(() -> {
+            patchMembers(groupId, patch);
+            return null;
+        });
+    }
+
+    private void patchMembers(Long groupId, GroupMembersPatch patch) {
         Group group = groupRepository.findById(groupId)
                 .orElseThrow(() -> new EntityNotFoundException("Group not found"));
 
-        for (String username : studentUsernames) {
-            User user = userRepository.findByUsername(username)
-                    .orElseThrow(() -> new EntityNotFoundException("User not found: " + username));
+        applyMembership(group,
+                distinct(patch.getAddTeachers()), new HashSet<>(distinct(patch.getRemoveTeachers())),
+                distinct(patch.getAddStudents()), new HashSet<>(distinct(patch.getRemoveStudents())));
+
+        groupRepository.save(group);
+    }
 
-            if (!(user instanceof Student)) {
-                throw new IllegalArgumentException(username + " is not a student");
+    private void applyMembership(Group group, List<String> addTeachers, Set<String> removeTeachers,
+                                 List<String> addStudents, Set<String> removeStudents) {
+        Map<String, User> users = findUsers(addTeachers, addStudents);
+
+        Unresolved unresolved = new Unresolved();
+        List<Teacher> teachers = pick(users, addTeachers, Teacher.class, Roles.TEACHER, "Teacher", unresolved);
+        List<Student> students = pick(users, addStudents, Student.class, Roles.STUDENT, "Student", unresolved);
+        unresolved.throwIfAny();
+
+        if (!removeTeachers.isEmpty()) {
+            List<Long> removedIds = new ArrayList<>();
+            Iterator<Teacher> iterator = group.getResponsibleTeachers().iterator();
+            while (iterator.hasNext()) {
+                Teacher teacher = iterator.next();
+                if (removeTeachers.contains(teacher.getUsername())) {
+                    removedIds.add(teacher.getUser_id());
+                    iterator.remove();
+                }
             }
+            group.getTeacherUsernames().removeAll(removeTeachers);
+            membershipIndex.removeTeachers(group.getGroupId(), removedIds);
+        }
+        if (!teachers.isEmpty()) {
+            group.getResponsibleTeachers().addAll(teachers);
+            group.getTeacherUsernames().addAll(addTeachers);
+            membershipIndex.addTeachers(group.getGroupId(), ids(teachers));
+        }
 
-            Student student = (Student) user;
-            student.setGroup(group);
-            group.getStudents().add(student);
+        if (!removeStudents.isEmpty()) {
+            List<Long> removedIds = studentRepository.findIdsInGroup(group.getGroupId(), removeStudents);
+            if (!removedIds.isEmpty()) {
+                studentRepository.unassignGroup(group.getGroupId(), removedIds);
+                membershipIndex.removeStudents(group.getGroupId(), removedIds);
+            }
+            group.getStudentUsernames().removeAll(removeStudents);
         }
+        if (!students.isEmpty()) {
+            leavePreviousGroups(group, students);
+            assignStudents(group, students);
+            group.getStudentUsernames().addAll(addStudents);
+        }
+    }
 
-        groupRepository.save(group);
+    // Keeps the username list of the group a student moves out of in sync (and bumps its version)
+    private void leavePreviousGroups(Group group, List<Student> students) {
+        for (Student student : students) {
+            Group previous = student.getGroup();
+            if (previous != null && previous != group && !Objects.equals(previous.getGroupId(), group.getGroupId())) {
+                previous.getStudentUsernames().remove(student.getUsername());
+            }
+        }
+    }
+
+    private static List<String> minus(Set<String> from, Set<String> remove) {
+        List<String> result = new ArrayList<>();
+        for (String value : from) {
+            if (!remove.contains(value)) {
+                result.add(value);
+            }
+        }
+        return result;
+    }
+
+    // One IN query for every username of the request instead of one lookup per username
+    private Map<String, User> findUsers(Collection<String> first, Collection<String> second) {
+        Set<String> usernames = new HashSet<>(first);
+        usernames.addAll(second);
+        if (usernames.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, User> users = new HashMap<>();
+        for (User user : userRepository.findByUsernameIn(usernames)) {
+            users.put(user.getUsername(), user);
+        }
+        return users;
+    }
+
+    private <T extends User> List<T> pick(Map<String, User> users, List<String> usernames, Class<T> type,
+                                          Roles role, String label, Unresolved unresolved) {
+        List<T> result = new ArrayList<>(usernames.size());
+        for (String username : usernames) {
+            User user = users.get(username);
+            if (user == null) {
+                unresolved.missing(label, username);
+            } else if (!type.isInstance(user) || user.getRole() != role) {
+                unresolved.wrongRole(label, username);
+            } else {
+                result.add(type.cast(user));
+            }
+        }
+        return result;
+    }
+
+    // Set-based update of students.group_id instead of dirtying and flushing each Student
+    private void assignStudents(Group group, List<Student> students) {
+        if (students.isEmpty()) {
+            return;
+        }
+        List<Long> ids = ids(students);
+        studentRepository.assignGroup(group.getGroupId(), ids);
+        membershipIndex.addStudents(group.getGroupId(), ids);
+    }
+
+    private static List<Long> ids(List<? extends User> users) {
+        List<Long> ids = new ArrayList<>(users.size());
+        for (User user : users) {
+            ids.add(user.getUser_id());
+        }
+        return ids;
+    }
+
+    private static List<String> distinct(List<String> usernames) {
+        return usernames == null ? new ArrayList<>() : new ArrayList<>(new LinkedHashSet<>(usernames));
+    }
+
+    /** Collects every unknown or wrong-role username so the caller gets them all in one error. */
+    private static final class Unresolved {
+        private final Map<String, List<String>> missing = new LinkedHashMap<>();
+        private final Map<String, List<String>> wrongRole = new LinkedHashMap<>();
+
+        void missing(String label, String username) {
+            missing.computeIfAbsent(label, l -> new ArrayList<>()).add(username);
+        }
+
+        void wrongRole(String label, String username) {
+            wrongRole.computeIfAbsent(label, l -> new ArrayList<>()).add(username);
+        }
+
+        void throwIfAny() {
+            List<String> problems = new ArrayList<>();
+            missing.forEach((label, usernames) ->
+                    problems.add(label + " not found: " + String.join(", ", usernames)));
+            wrongRole.forEach((label, usernames) -> {
+                String role = label.toLowerCase(Locale.ROOT);
+                problems.add(usernames.size() == 1
+                        ? usernames.get(0) + " is not a " + role
+                        : String.join(", ", usernames) + " are not " + role + "s");
+            });
+            if (problems.isEmpty()) {
+                return;
+            }
+            String message = String.join("; ", problems);
+            if (!missing.isEmpty()) {
+                throw new EntityNotFoundException(message);
+            }
+            throw new IllegalArgumentException(message);
+        }
     }
 }
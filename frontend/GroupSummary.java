@@ -0,0 +1,35 @@
+package com.Gestion_Note.Note.DTO;
+
+/**
+ * Group listing row: the member collections are reduced to counts in the query itself.
+ */
+public class GroupSummary {
+
+    private final Long groupId;
+    private final String groupName;
+    private final int teacherCount;
+    private final int studentCount;
+
+    public GroupSummary(Long groupId, String groupName, Integer teacherCount, Integer studentCount) {
+        this.groupId = groupId;
+        this.groupName = groupName;
+        this.teacherCount = teacherCount == null ? 0 : teacherCount;
+        this.studentCount = studentCount == null ? 0 : studentCount;
+    }
+
+    public Long getGroupId() {
+        return groupId;
+    }
+
+    public String getGroupName() {
+        return groupName;
+    }
+
+    public int getTeacherCount() {
+        return teacherCount;
+    }
+
+    public int getStudentCount() {
+        return studentCount;
+    }
+}
@@ -0,0 +1,89 @@
+package com.Gestion_Note.Note.Services;
+
+import jakarta.persistence.OptimisticLockException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs a group write in its own short transaction and replays it when the commit loses an
+ * optimistic lock race on {@code Group.version}. Each attempt starts from a fresh persistence
+ * context, so it re-reads the roster the winning writer committed. Calls made inside an
+ * existing transaction run as-is: the outermost caller owns the retry.
+ */
+@Component
+public class GroupWriteRetry {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder recovered = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    public GroupWriteRetry(
+            PlatformTransactionManager transactionManager,
+            @Value("${group.write.max-attempts:3}") int maxAttempts,
+            @Value("${group.write.backoff-ms:20}") long backoffMillis
+    ) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMillis = backoffMillis;
+    }
+
+    public <T> T execute(Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = transactionTemplate.execute(status -> work.get());
+                if (attempt > 1) {
+                    recovered.increment();
+                }
+                return result;
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    exhausted.increment();
+                    throw e;
+                }
+                retries.increment();
+                backOff(attempt);
+            }
+        }
+    }
+
+    // Linear backoff with jitter so that the writers that collided do not collide again
+    private void backOff(int attempt) {
+        if (backoffMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(backoffMillis * attempt + ThreadLocalRandom.current().nextLong(backoffMillis));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying a group update", e);
+        }
+    }
+
+    public Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("conflicts", conflicts.sum());
+        stats.put("retries", retries.sum());
+        stats.put("recovered", recovered.sum());
+        stats.put("exhausted", exhausted.sum());
+        return stats;
+    }
+}
@@ -1,11 +1,16 @@
 package com.Gestion_Note.Note.Config;
 
 
+import com.Gestion_Note.Note.Security.CustomUserDetails;
+import com.Gestion_Note.Note.Security.ParsedToken;
+import com.Gestion_Note.Note.Security.TokenRevocationStore;
+import com.Gestion_Note.Note.Security.TokenVersionStore;
 import com.Gestion_Note.Note.Services.JwtService;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -25,15 +30,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final TokenVersionStore tokenVersionStore;
+    private final TokenRevocationStore tokenRevocationStore;
+    private final boolean statelessPrincipal;
 
     public JwtAuthenticationFilter(
             JwtService jwtService,
             UserDetailsService userDetailsService,
-            HandlerExceptionResolver handlerExceptionResolver
+            TokenVersionStore tokenVersionStore,
+            TokenRevocationStore tokenRevocationStore,
+            HandlerExceptionResolver handlerExceptionResolver,
+            @Value("${security.jwt.stateless-principal:true}") boolean statelessPrincipal
     ) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.tokenVersionStore = tokenVersionStore;
+        this.tokenRevocationStore = tokenRevocationStore;
         this.handlerExceptionResolver = handlerExceptionResolver;
+        this.statelessPrincipal = statelessPrincipal;
     }
 
     @Override
@@ -51,14 +65,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         try {
             final String jwt = authHeader.substring(7);
-            final String userEmail = jwtService.extractUsername(jwt);
+            final ParsedToken token = jwtService.parseToken(jwt);
+            final String userEmail = token.getSubject();
 
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
-            if (userEmail != null && authentication == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+            if (userEmail != null && authentication == null && !tokenRevocationStore.isRevoked(token.getId())) {
+                UserDetails userDetails = resolvePrincipal(token);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (userDetails != null && jwtService.isTokenValid(token, userDetails)) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
                             null,
@@ -75,4 +90,15 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             handlerExceptionResolver.resolveException(request, response, null, exception);
         }
     }
-}
\ No newline at end of file
+
+    // Claims-based tokens are trusted as long as their version is current; older tokens still load the user
+    private UserDetails resolvePrincipal(ParsedToken token) {
+        if (statelessPrincipal) {
+            CustomUserDetails principal = jwtService.extractPrincipal(token);
+            if (principal != null) {
+                return tokenVersionStore.isFresh(principal.getUserId(), principal.getTokenVersion()) ? principal : null;
+            }
+        }
+        return this.userDetailsService.loadUserByUsername(token.getSubject());
+    }
+}
\ No newline at end of file
@@ -5,25 +5,57 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
+import com.Gestion_Note.Note.Entities.Roles;
+import com.Gestion_Note.Note.Security.CustomUserDetails;
+import com.Gestion_Note.Note.Security.ParsedToken;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 @Service
 public class JwtService {
+    static final String CLAIM_USER_ID = "uid";
+    static final String CLAIM_ROLE = "role";
+    static final String CLAIM_TOKEN_VERSION = "ver";
+
     @Value("${security.jwt.secret-key}")
     private String secretKey;
 
     @Value("${security.jwt.expiration-time}")
     private long jwtExpiration;
 
+    // Built once: decoding the secret and building a parser on every call showed up in CPU profiles
+    private Key signInKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
+        this.signInKey = Keys.hmacShaKeyFor(keyBytes);
+        this.jwtParser = Jwts
+                .parserBuilder()
+                .setSigningKey(signInKey)
+                .build();
+    }
+
+    /**
+     * Verifies the signature and expiry of the token once and returns its content.
+     * Throws a {@link io.jsonwebtoken.JwtException} if the token is invalid or expired.
+     */
+    public ParsedToken parseToken(String token) {
+        return new ParsedToken(extractAllClaims(token));
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -38,7 +70,35 @@ public class JwtService {
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return buildToken(extraClaims, userDetails, jwtExpiration);
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        if (userDetails instanceof CustomUserDetails) {
+            CustomUserDetails details = (CustomUserDetails) userDetails;
+            if (details.getUserId() != null && details.getRole() != null) {
+                claims.put(CLAIM_USER_ID, details.getUserId());
+                claims.put(CLAIM_ROLE, details.getRole().name());
+                claims.put(CLAIM_TOKEN_VERSION, details.getTokenVersion());
+            }
+        }
+        return buildToken(claims, userDetails, jwtExpiration);
+    }
+
+    /**
+     * Rebuilds the principal from the claims embedded by {@link #generateToken(Map, UserDetails)}.
+     * Returns null for tokens issued without those claims, which must fall back to a user lookup.
+     */
+    public CustomUserDetails extractPrincipal(ParsedToken token) {
+        Object userId = token.getClaim(CLAIM_USER_ID);
+        Object role = token.getClaim(CLAIM_ROLE);
+        Object version = token.getClaim(CLAIM_TOKEN_VERSION);
+        if (!(userId instanceof Number) || !(role instanceof String) || !(version instanceof Number)) {
+            return null;
+        }
+        return new CustomUserDetails(
+                ((Number) userId).longValue(),
+                token.getSubject(),
+                Roles.valueOf((String) role),
+                ((Number) version).intValue()
+        );
     }
 
     public long getExpirationTime() {
@@ -54,6 +114,7 @@ public class JwtService {
                 .builder()
                 .setClaims(extraClaims)
                 .setSubject(userDetails.getUsername())
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
                 .signWith(getSignInKey(), SignatureAlgorithm.HS256)
@@ -61,29 +122,22 @@ public class JwtService {
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return isTokenValid(parseToken(token), userDetails);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public boolean isTokenValid(ParsedToken token, UserDetails userDetails) {
+        return token.getSubject() != null
+                && token.getSubject().equals(userDetails.getUsername())
+                && !token.isExpired();
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts
-                .parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
     private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+        return signInKey;
     }
-}
\ No newline at end of file
+}
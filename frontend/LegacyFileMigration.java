@@ -0,0 +1,143 @@
+package com.Gestion_Note.Note.Services;
+
+import com.Gestion_Note.Note.DTO.BlobDescriptor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves file contents still held in the {@code @Lob} columns that preceded the blob store into
+ * the {@link BlobStore}. Each row is streamed from the result set straight into
+ * {@link BlobService#store}; its hash and size are then written, the blob retained and the old
+ * column cleared in one short transaction. Runs once the application is ready. Migrated rows
+ * no longer match, so a failed row is simply picked up by the next run, and a schema that
+ * never had the old columns is skipped.
+ */
+@Service
+public class LegacyFileMigration {
+
+    private static final List<LegacyColumn> COLUMNS = List.of(
+            new LegacyColumn("assignment", "file_data", "file_hash", "file_size"),
+            new LegacyColumn("assignment", "submitted_file_data", "submitted_file_hash", "submitted_file_size"),
+            new LegacyColumn("student_submission", "answer_file_data", "answer_file_hash", "answer_file_size")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlobService blobService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final LongAdder migrated = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public LegacyFileMigration(JdbcTemplate jdbcTemplate, BlobService blobService, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blobService = blobService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateOnStartup() {
+        migrate();
+    }
+
+    /** Returns the number of rows moved to the blob store by this run. */
+    public int migrate() {
+        int total = 0;
+        for (LegacyColumn column : COLUMNS) {
+            total += migrate(column);
+        }
+        return total;
+    }
+
+    private int migrate(LegacyColumn column) {
+        List<Long> ids;
+        try {
+            ids = jdbcTemplate.queryForList("select id from " + column.table + " where " + column.data
+                    + " is not null and " + column.hash + " is null", Long.class);
+        } catch (BadSqlGrammarException e) {
+            // The column was already dropped, or the schema was created after the blob store
+            return 0;
+        }
+        int done = 0;
+        for (Long id : ids) {
+            try {
+                if (migrateRow(column, id)) {
+                    done++;
+                }
+            } catch (IOException | RuntimeException e) {
+                // The row keeps its old content and is retried by the next run
+                failed.increment();
+            }
+        }
+        migrated.add(done);
+        return done;
+    }
+
+    private boolean migrateRow(LegacyColumn column, Long id) throws IOException {
+        ResultSetExtractor<BlobDescriptor> streamToStore = resultSet -> {
+            if (!resultSet.next()) {
+                return null;
+            }
+            try (InputStream content = resultSet.getBinaryStream(1)) {
+                return content == null ? null : blobService.store(content, Long.MAX_VALUE);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+        BlobDescriptor blob;
+        try {
+            blob = jdbcTemplate.query("select " + column.data + " from " + column.table + " where id = ?",
+                    streamToStore, id);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (blob == null) {
+            return false;
+        }
+        // A row replaced or migrated in the meantime is left alone; the unreferenced blob is collected later
+        Boolean updated = transactionTemplate.execute(status -> {
+            int rows = jdbcTemplate.update("update " + column.table + " set " + column.hash + " = ?, "
+                            + column.size + " = ?, " + column.data + " = null where id = ? and " + column.hash + " is null",
+                    blob.getHash(), blob.getSize(), id);
+            if (rows == 0) {
+                return false;
+            }
+            blobService.retain(blob.getHash());
+            return true;
+        });
+        return Boolean.TRUE.equals(updated);
+    }
+
+    public Map<String, Long> stats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("migrated", migrated.sum());
+        stats.put("failed", failed.sum());
+        return stats;
+    }
+
+    private static final class LegacyColumn {
+        private final String table;
+        private final String data;
+        private final String hash;
+        private final String size;
+
+        private LegacyColumn(String table, String data, String hash, String size) {
+            this.table = table;
+            this.data = data;
+            this.hash = hash;
+            this.size = size;
+        }
+    }
+}
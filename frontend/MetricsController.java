@@ -0,0 +1,73 @@
+package com.Gestion_Note.Note.Controllers;
+
+
+import com.Gestion_Note.Note.Security.AuthRateLimiter;
+import com.Gestion_Note.Note.Security.PasswordHashingExecutor;
+import com.Gestion_Note.Note.Security.TokenRevocationStore;
+import com.Gestion_Note.Note.Security.UserDetailsCache;
+import com.Gestion_Note.Note.Services.BlobService;
+import com.Gestion_Note.Note.Services.GroupWriteRetry;
+import com.Gestion_Note.Note.Services.LegacyFileMigration;
+import com.Gestion_Note.Note.Services.SubjectCatalogCache;
+import com.Gestion_Note.Note.Services.TeacherSubjectsCache;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin/metrics")
+public class MetricsController {
+
+    private final UserDetailsCache userDetailsCache;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final TokenRevocationStore tokenRevocationStore;
+    private final AuthRateLimiter authRateLimiter;
+    private final GroupWriteRetry groupWriteRetry;
+    private final TeacherSubjectsCache teacherSubjectsCache;
+    private final SubjectCatalogCache subjectCatalogCache;
+    private final BlobService blobService;
+    private final LegacyFileMigration legacyFileMigration;
+
+    public MetricsController(
+            UserDetailsCache userDetailsCache,
+            PasswordHashingExecutor passwordHashingExecutor,
+            TokenRevocationStore tokenRevocationStore,
+            AuthRateLimiter authRateLimiter,
+            GroupWriteRetry groupWriteRetry,
+            TeacherSubjectsCache teacherSubjectsCache,
+            SubjectCatalogCache subjectCatalogCache,
+            BlobService blobService,
+            LegacyFileMigration legacyFileMigration
+    ) {
+        this.userDetailsCache = userDetailsCache;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.tokenRevocationStore = tokenRevocationStore;
+        this.authRateLimiter = authRateLimiter;
+        this.groupWriteRetry = groupWriteRetry;
+        this.teacherSubjectsCache = teacherSubjectsCache;
+        this.subjectCatalogCache = subjectCatalogCache;
+        this.blobService = blobService;
+        this.legacyFileMigration = legacyFileMigration;
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("userDetailsCache", userDetailsCache.stats());
+        metrics.put("passwordHashing", passwordHashingExecutor.stats());
+        metrics.put("revokedTokens", tokenRevocationStore.size());
+        metrics.put("authRateLimit", authRateLimiter.stats());
+        metrics.put("groupWrites", groupWriteRetry.stats());
+        metrics.put("teacherSubjectsCache", teacherSubjectsCache.stats());
+        metrics.put("subjectCatalog", subjectCatalogCache.stats());
+        metrics.put("blobs", blobService.stats());
+        metrics.put("legacyFiles", legacyFileMigration.stats());
+        return ResponseEntity.ok(metrics);
+    }
+}
@@ -0,0 +1,52 @@
+package com.Gestion_Note.Note.Services;
+
+import com.Gestion_Note.Note.DTO.CursorPage;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Page sizes shared by the paged listings, and the keyset cursor handling of the ones ordered
+ * by id. A keyset page reads one row more than its limit to know whether another page follows.
+ */
+public final class Paging {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final int limit;
+    private final long after;
+
+    private Paging(int limit, long after) {
+        this.limit = limit;
+        this.after = after;
+    }
+
+    /** The requested size clamped to [1, {@link #MAX_PAGE_SIZE}], {@link #DEFAULT_PAGE_SIZE} when absent. */
+    public static int limit(Integer size) {
+        return size == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    /** Starts after {@code cursor} (exclusive, null for the first page). */
+    public static Paging keyset(Long cursor, Integer size) {
+        return new Paging(limit(size), cursor == null ? 0L : cursor);
+    }
+
+    public long getAfter() {
+        return after;
+    }
+
+    public Pageable getPageable() {
+        return PageRequest.of(0, limit + 1);
+    }
+
+    public <T> CursorPage<T> page(List<T> rows, Function<T, Long> idOf) {
+        if (rows.size() <= limit) {
+            return new CursorPage<>(rows, null, limit);
+        }
+        List<T> items = rows.subList(0, limit);
+        return new CursorPage<>(items, idOf.apply(items.get(limit - 1)), limit);
+    }
+}
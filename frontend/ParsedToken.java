@@ -0,0 +1,63 @@
+package com.Gestion_Note.Note.Security;
+
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable view of a JWT whose signature has already been verified by
+ * {@link com.Gestion_Note.Note.Services.JwtService#parseToken(String)}.
+ * Everything the authentication filter needs is read from here, so a token
+ * is parsed and verified exactly once per request.
+ */
+public final class ParsedToken {
+    private final String id;
+    private final String subject;
+    private final Date issuedAt;
+    private final Date expiration;
+    private final Map<String, Object> claims;
+
+    public ParsedToken(Claims claims) {
+        this.id = claims.getId();
+        this.subject = claims.getSubject();
+        this.issuedAt = copy(claims.getIssuedAt());
+        this.expiration = copy(claims.getExpiration());
+        this.claims = Collections.unmodifiableMap(new HashMap<>(claims));
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public Date getIssuedAt() {
+        return copy(issuedAt);
+    }
+
+    public Date getExpiration() {
+        return copy(expiration);
+    }
+
+    public Map<String, Object> getClaims() {
+        return claims;
+    }
+
+    public Object getClaim(String name) {
+        return claims.get(name);
+    }
+
+    public boolean isExpired() {
+        return expiration != null && expiration.before(new Date());
+    }
+
+    private static Date copy(Date date) {
+        return date == null ? null : new Date(date.getTime());
+    }
+}
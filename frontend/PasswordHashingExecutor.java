@@ -0,0 +1,187 @@
+package com.Gestion_Note.Note.Security;
+
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs bcrypt on a dedicated, core-sized pool with a bounded queue so that login
+ * storms cannot pin every request thread. When the queue is full the caller is
+ * rejected immediately with a {@link TooManyRequestsException}.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    private static final long QUEUE_POLL_MILLIS = 10;
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final long retryAfterSeconds;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder hashes = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    public PasswordHashingExecutor(
+            PasswordEncoder passwordEncoder,
+            @Value("${security.password.hash-threads:0}") int threads,
+            @Value("${security.password.hash-queue-capacity:64}") int queueCapacity,
+            @Value("${security.password.hash-timeout-ms:5000}") long timeoutMillis,
+            @Value("${security.password.retry-after-seconds:1}") long retryAfterSeconds
+    ) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.passwordEncoder = passwordEncoder;
+        this.executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.timeoutMillis = timeoutMillis;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Encodes a batch of passwords on the same pool, with at most one task per pool thread in
+     * flight, so a bulk import neither fills the queue that logins rely on nor needs a pool of
+     * its own. When logins have filled the queue, the batch waits up to the hash timeout for
+     * room instead of failing on the first busy moment.
+     */
+    public List<String> encodeAll(List<String> rawPasswords) {
+        int window = executor.getCorePoolSize();
+        List<String> hashes = new ArrayList<>(rawPasswords.size());
+        for (int from = 0; from < rawPasswords.size(); from += window) {
+            List<Future<String>> futures = new ArrayList<>(window);
+            try {
+                for (String rawPassword : rawPasswords.subList(from, Math.min(from + window, rawPasswords.size()))) {
+                    futures.add(submitWhenFree(() -> passwordEncoder.encode(rawPassword)));
+                }
+                for (Future<String> future : futures) {
+                    hashes.add(await(future, "Password hashing for the bulk registration timed out, please retry"));
+                }
+            } catch (RuntimeException e) {
+                futures.forEach(future -> future.cancel(true));
+                throw e;
+            }
+        }
+        return hashes;
+    }
+
+    public boolean upgradeEncoding(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> task) {
+        return await(submit(task), "Password verification timed out, please retry");
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        try {
+            return executor.submit(() -> timed(task));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new TooManyRequestsException("Too many login attempts in progress, please retry", retryAfterSeconds);
+        }
+    }
+
+    private <T> Future<T> submitWhenFree(Callable<T> task) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (true) {
+            try {
+                return executor.submit(() -> timed(task));
+            } catch (RejectedExecutionException e) {
+                if (System.nanoTime() >= deadline) {
+                    rejected.increment();
+                    throw new TooManyRequestsException(
+                            "Password hashing is busy, the bulk registration could not continue", retryAfterSeconds);
+                }
+            }
+            try {
+                Thread.sleep(QUEUE_POLL_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the hashing pool", e);
+            }
+        }
+    }
+
+    private <T> T await(Future<T> future, String timeoutMessage) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw new TooManyRequestsException(timeoutMessage, retryAfterSeconds);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while verifying password", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Password hashing failed", cause);
+        }
+    }
+
+    private <T> T timed(Callable<T> task) throws Exception {
+        long start = System.nanoTime();
+        try {
+            return task.call();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            hashes.increment();
+            hashNanos.add(elapsed);
+            maxHashNanos.accumulateAndGet(elapsed, Math::max);
+        }
+    }
+
+    public Map<String, Long> stats() {
+        long count = hashes.sum();
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("poolSize", (long) executor.getCorePoolSize());
+        stats.put("active", (long) executor.getActiveCount());
+        stats.put("queueDepth", (long) executor.getQueue().size());
+        stats.put("queueRemainingCapacity", (long) executor.getQueue().remainingCapacity());
+        stats.put("rejected", rejected.sum());
+        stats.put("timedOut", timedOut.sum());
+        stats.put("hashes", count);
+        stats.put("avgHashMicros", count == 0 ? 0 : hashNanos.sum() / count / 1000);
+        stats.put("maxHashMicros", maxHashNanos.get() / 1000);
+        return stats;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
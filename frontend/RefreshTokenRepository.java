@@ -0,0 +1,31 @@
+package com.Gestion_Note.Note.Repository;
+
+import com.Gestion_Note.Note.Entities.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    @Query("select r from RefreshToken r join fetch r.user where r.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHashWithUser(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Query("update RefreshToken r set r.revokedAt = :now where r.user.user_id = :userId and r.revokedAt is null")
+    int revokeAllForUser(@Param("userId") Long userId, @Param("now") Date now);
+
+    // Only one of two concurrent refreshes with the same token gets a row back
+    @Modifying
+    @Query("update RefreshToken r set r.revokedAt = :now where r.id = :id and r.revokedAt is null")
+    int revokeIfActive(@Param("id") Long id, @Param("now") Date now);
+
+    @Modifying
+    @Query("delete from RefreshToken r where r.expiresAt < :now or r.revokedAt < :revokedBefore")
+    int deleteExpiredOrRevokedBefore(@Param("now") Date now, @Param("revokedBefore") Date revokedBefore);
+}
@@ -0,0 +1,120 @@
+package com.Gestion_Note.Note.Services;
+
+import com.Gestion_Note.Note.DTO.AuthResponseDTO;
+import com.Gestion_Note.Note.Entities.RefreshToken;
+import com.Gestion_Note.Note.Entities.User;
+import com.Gestion_Note.Note.Repository.RefreshTokenRepository;
+import com.Gestion_Note.Note.Security.CustomUserDetails;
+import jakarta.transaction.Transactional;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HexFormat;
+
+/**
+ * Issues and rotates opaque refresh tokens. Only the SHA-256 of a token is stored,
+ * so refreshing costs one indexed lookup instead of a bcrypt verification.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final JwtService jwtService;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    @Value("${security.jwt.refresh-expiration-time:2592000000}")
+    private long refreshExpiration;
+
+    // Rotated tokens are kept this long so a replay is still recognized as reuse
+    @Value("${security.jwt.refresh-revoked-retention:604800000}")
+    private long revokedRetention;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, JwtService jwtService) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.jwtService = jwtService;
+    }
+
+    public String issue(User user) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(rawToken));
+        refreshToken.setUser(user);
+        refreshToken.setTokenVersion(user.getTokenVersion());
+        refreshToken.setExpiresAt(new Date(System.currentTimeMillis() + refreshExpiration));
+        refreshTokenRepository.save(refreshToken);
+
+        return rawToken;
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and a new refresh token.
+     * Presenting an already rotated token revokes every refresh token of its user,
+     * since it means the token was stolen or replayed.
+     */
+    @Transactional(dontRollbackOn = IllegalArgumentException.class)
+    public AuthResponseDTO refresh(String rawToken) {
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHashWithUser(hash(rawToken))
+                .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
+        User user = refreshToken.getUser();
+        Date now = new Date();
+
+        if (refreshToken.getRevokedAt() != null) {
+            refreshTokenRepository.revokeAllForUser(user.getUser_id(), now);
+            throw new IllegalArgumentException("Refresh token already used");
+        }
+        if (refreshToken.getExpiresAt().before(now)) {
+            throw new IllegalArgumentException("Refresh token expired");
+        }
+        if (refreshToken.getTokenVersion() < user.getTokenVersion()) {
+            throw new IllegalArgumentException("Refresh token no longer valid");
+        }
+
+        // Conditional so two concurrent refreshes with the same token cannot both rotate it
+        if (refreshTokenRepository.revokeIfActive(refreshToken.getId(), now) == 0) {
+            refreshTokenRepository.revokeAllForUser(user.getUser_id(), now);
+            throw new IllegalArgumentException("Refresh token already used");
+        }
+
+        String accessToken = jwtService.generateToken(new CustomUserDetails(user));
+        return new AuthResponseDTO(accessToken, issue(user));
+    }
+
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHashWithUser(hash(rawToken)).ifPresent(refreshToken -> {
+            if (refreshToken.getRevokedAt() == null) {
+                refreshToken.setRevokedAt(new Date());
+                refreshTokenRepository.save(refreshToken);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.refresh-purge-interval-ms:3600000}",
+            initialDelayString = "${security.jwt.refresh-purge-interval-ms:3600000}")
+    @Transactional
+    public int purge() {
+        Date now = new Date();
+        return refreshTokenRepository.deleteExpiredOrRevokedBefore(now, new Date(now.getTime() - revokedRetention));
+    }
+
+    static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
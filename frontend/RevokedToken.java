@@ -0,0 +1,34 @@
+package com.Gestion_Note.Note.Entities;
+
+import jakarta.persistence.*;
+
+import java.util.Date;
+
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+        @Index(name = "ix_revoked_tokens_expires_at", columnList = "expiresAt")
+})
+public class RevokedToken {
+
+    @Id
+    @Column(length = 36)
+    private String jti;
+
+    // Once the token itself has expired the row is useless and gets pruned
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date expiresAt;
+
+    public RevokedToken() {
+    }
+
+    public RevokedToken(String jti, Date expiresAt) {
+        this.jti = jti;
+        this.expiresAt = expiresAt;
+    }
+
+    public String getJti() { return jti; }
+    public void setJti(String jti) { this.jti = jti; }
+
+    public Date getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Date expiresAt) { this.expiresAt = expiresAt; }
+}
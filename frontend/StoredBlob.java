@@ -0,0 +1,46 @@
+package com.Gestion_Note.Note.Entities;
+
+import jakarta.persistence.*;
+
+import java.util.Date;
+
+@Entity
+@Table(name = "stored_blobs", indexes = {
+        @Index(name = "ix_stored_blobs_ref_count_touched_at", columnList = "refCount, touchedAt")
+})
+public class StoredBlob {
+
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    private long size;
+
+    // Number of assignment and submission columns pointing at this blob
+    private int refCount;
+
+    // Last upload or release; unreferenced blobs are only collected once this is old enough
+    @Temporal(TemporalType.TIMESTAMP)
+    private Date touchedAt;
+
+    public StoredBlob() {
+    }
+
+    public StoredBlob(String hash, long size, Date touchedAt) {
+        this.hash = hash;
+        this.size = size;
+        this.touchedAt = touchedAt;
+    }
+
+    public String getHash() { return hash; }
+    public void setHash(String hash) { this.hash = hash; }
+
+    public long getSize() { return size; }
+    public void setSize(long size) { this.size = size; }
+
+    public int getRefCount() { return refCount; }
+    public void setRefCount(int refCount) { this.refCount = refCount; }
+
+    public Date getTouchedAt() { return touchedAt; }
+    public void setTouchedAt(Date touchedAt) { this.touchedAt = touchedAt; }
+}
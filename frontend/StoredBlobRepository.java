@@ -0,0 +1,37 @@
+package com.Gestion_Note.Note.Repository;
+
+import com.Gestion_Note.Note.Entities.StoredBlob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Date;
+import java.util.List;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlob, String> {
+
+    @Modifying
+    @Query("update StoredBlob b set b.touchedAt = :now where b.hash = :hash")
+    int touch(@Param("hash") String hash, @Param("now") Date now);
+
+    @Modifying
+    @Query("update StoredBlob b set b.refCount = b.refCount + 1 where b.hash = :hash")
+    int retain(@Param("hash") String hash);
+
+    @Modifying
+    @Query("update StoredBlob b set b.refCount = b.refCount - 1, b.touchedAt = :now " +
+            "where b.hash = :hash and b.refCount > 0")
+    int release(@Param("hash") String hash, @Param("now") Date now);
+
+    @Query("select b.hash from StoredBlob b where b.refCount = 0 and b.touchedAt < :cutoff")
+    List<String> findUnreferencedSince(@Param("cutoff") Date cutoff, Pageable pageable);
+
+    // Re-checks the count so that a blob referenced again since it was listed is kept
+    @Modifying
+    @Query("delete from StoredBlob b where b.hash = :hash and b.refCount = 0 and b.touchedAt < :cutoff")
+    int deleteIfUnreferenced(@Param("hash") String hash, @Param("cutoff") Date cutoff);
+}
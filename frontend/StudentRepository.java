@@ -2,11 +2,31 @@ package com.Gestion_Note.Note.Repository;
 
 import com.Gestion_Note.Note.Entities.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface StudentRepository extends JpaRepository<Student, Long> {
 
     Optional<Student> findByEmail(String email);
 
+    // Single statement on the students table; JPQL bulk updates on a JOINED subclass go through temp tables
+    @Modifying
+    @Query(value = "update students set group_id = :groupId where user_id in (:ids)", nativeQuery = true)
+    int assignGroup(@Param("groupId") Long groupId, @Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "update students set group_id = null where group_id = :groupId and user_id in (:ids)", nativeQuery = true)
+    int unassignGroup(@Param("groupId") Long groupId, @Param("ids") Collection<Long> ids);
+
+    @Query("select s.user_id from Student s where s.group.groupId = :groupId and s.username in :usernames")
+    List<Long> findIdsInGroup(@Param("groupId") Long groupId, @Param("usernames") Collection<String> usernames);
+
+    @Query("select s.username from Student s where s.group.groupId = :groupId")
+    List<String> findUsernamesByGroupId(@Param("groupId") Long groupId);
+
 }
@@ -18,8 +18,11 @@ public class StudentSubmission {
     @JoinColumn(name = "assignment_id", nullable = false)
     private Assignment assignment;
 
-    @Lob
-    private byte[] answerFileData;
+    // Content lives in the blob store under this SHA-256
+    @Column(length = 64)
+    private String answerFileHash;
+
+    private Long answerFileSize;
 
     private String answerFileName;
 
@@ -57,12 +60,20 @@ public class StudentSubmission {
         this.assignment = assignment;
     }
 
-    public byte[] getAnswerFileData() {
-        return answerFileData;
+    public String getAnswerFileHash() {
+        return answerFileHash;
+    }
+
+    public void setAnswerFileHash(String answerFileHash) {
+        this.answerFileHash = answerFileHash;
+    }
+
+    public Long getAnswerFileSize() {
+        return answerFileSize;
     }
 
-    public void setAnswerFileData(byte[] answerFileData) {
-        this.answerFileData = answerFileData;
+    public void setAnswerFileSize(Long answerFileSize) {
+        this.answerFileSize = answerFileSize;
     }
 
     public String getAnswerFileName() {
@@ -1,6 +1,9 @@
 package com.Gestion_Note.Note.Controllers;
 
+import com.Gestion_Note.Note.DTO.AssignmentFile;
 import com.Gestion_Note.Note.Services.StudentSubmissionService;
+import com.Gestion_Note.Note.Services.UploadTooLargeException;
+import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
@@ -24,6 +27,8 @@ public class StudentSubmissionController {
         try {
             String message = submissionService.submitAssignment(assignmentId, file);
             return ResponseEntity.ok(message);
+        } catch (UploadTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body("Error: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
@@ -36,6 +41,8 @@ public class StudentSubmissionController {
         try {
             String message = submissionService.updateAssignment(assignmentId, file);
             return ResponseEntity.ok(message);
+        } catch (UploadTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body("Error: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Error: " + e.getMessage());
         }
@@ -52,19 +59,13 @@ public class StudentSubmissionController {
     }
 
     @GetMapping("/download/{assignmentId}")
-    public ResponseEntity<byte[]> downloadAssignment(@PathVariable Long assignmentId) {
+    public ResponseEntity<?> downloadAssignment(@PathVariable Long assignmentId,
+                                                @RequestHeader HttpHeaders headers) {
         try {
-            byte[] fileData = submissionService.getAssignmentFile(assignmentId);
-
-            String filename = "assignment_" + assignmentId + ".pdf";
-            String contentType = "application/pdf";
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + filename);
-            headers.add(HttpHeaders.CONTENT_TYPE, contentType);
-            headers.add(HttpHeaders.CONTENT_LENGTH, String.valueOf(fileData.length));
-
-            return new ResponseEntity<>(fileData, headers, HttpStatus.OK);
+            AssignmentFile file = submissionService.getAssignmentFile(assignmentId);
+            return FileDownloads.respond(file, submissionService.openFile(file), "assignment_" + assignmentId, headers);
+        } catch (EntityNotFoundException e) {
+            return ResponseEntity.notFound().build();
         } catch (IOException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
@@ -1,5 +1,7 @@
 package com.Gestion_Note.Note.Services;
 
+import com.Gestion_Note.Note.DTO.AssignmentFile;
+import com.Gestion_Note.Note.DTO.BlobDescriptor;
 import com.Gestion_Note.Note.Entities.Assignment;
 import com.Gestion_Note.Note.Entities.Status;
 import com.Gestion_Note.Note.Entities.Student;
@@ -7,8 +9,10 @@ import com.Gestion_Note.Note.Repository.AssignmentRepository;
 import com.Gestion_Note.Note.Repository.StudentRepository;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -23,6 +27,15 @@ public class StudentSubmissionService {
     @Autowired
     private StudentRepository studentRepository;
 
+    @Autowired
+    private BlobService blobService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UploadLimits uploadLimits;
+
     public String submitAssignment(Long assignmentId, MultipartFile file) throws Exception {
 
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -33,27 +46,27 @@ public class StudentSubmissionService {
         Assignment assignment = assignmentRepository.findById(assignmentId)
                 .orElseThrow(() -> new EntityNotFoundException("Assignment not found with ID: " + assignmentId));
 
+        String replacedHash = assignment.getSubmittedFileHash();
+        BlobDescriptor blob = blobService.store(file, uploadLimits.checkedLimit(file));
         assignment.setStudent(student);
         assignment.setSubmittedAt(new Date());
-        assignment.setFileData(file.getBytes());
-        assignment.setFileName(file.getOriginalFilename());
-        assignment.setFileType(file.getContentType());
+        attachAnswer(assignment, blob, file);
 
+        String message;
         if (assignment.getUploadedAt() != null) {
             if (assignment.getSubmittedAt().before(assignment.getUploadedAt())) {
                 assignment.setStatus(Status.COMPLETED);
-                assignmentRepository.save(assignment);
-                return "Assignment submitted successfully on time.";
+                message = "Assignment submitted successfully on time.";
             } else {
                 assignment.setStatus(Status.LATE);
-                assignmentRepository.save(assignment);
-                return "Assignment submitted, but it is late.";
+                message = "Assignment submitted, but it is late.";
             }
         } else {
             assignment.setStatus(Status.COMPLETED);
-            assignmentRepository.save(assignment);
-            return "Assignment submitted (upload date not set).";
+            message = "Assignment submitted (upload date not set).";
         }
+        saveWithAnswer(assignment, blob, replacedHash);
+        return message;
     }
 
     public String updateAssignment(Long assignmentId, MultipartFile file) throws Exception {
@@ -70,10 +83,10 @@ public class StudentSubmissionService {
             throw new IllegalStateException("This assignment was not submitted by the logged-in student.");
         }
 
+        String replacedHash = assignment.getSubmittedFileHash();
+        BlobDescriptor blob = blobService.store(file, uploadLimits.checkedLimit(file));
         assignment.setSubmittedAt(new Date());
-        assignment.setFileData(file.getBytes());
-        assignment.setFileName(file.getOriginalFilename());
-        assignment.setFileType(file.getContentType());
+        attachAnswer(assignment, blob, file);
 
         if (assignment.getUploadedAt() != null) {
             if (assignment.getSubmittedAt().before(assignment.getUploadedAt())) {
@@ -85,7 +98,7 @@ public class StudentSubmissionService {
             assignment.setStatus(Status.COMPLETED);
         }
 
-        assignmentRepository.save(assignment);
+        saveWithAnswer(assignment, blob, replacedHash);
         return "Assignment updated successfully.";
     }
 
@@ -103,14 +116,36 @@ public class StudentSubmissionService {
             throw new IllegalStateException("This assignment was not submitted by the logged-in student.");
         }
 
-        assignmentRepository.delete(assignment);
+        transactionTemplate.executeWithoutResult(status -> {
+            assignmentRepository.delete(assignment);
+            blobService.release(assignment.getFileHash());
+            blobService.release(assignment.getSubmittedFileHash());
+        });
         return "Assignment submission deleted successfully.";
     }
 
-    public byte[] getAssignmentFile(Long assignmentId) throws IOException {
-        Assignment assignment = assignmentRepository.findById(assignmentId)
-                .orElseThrow(() -> new EntityNotFoundException("Assignment not found with ID: " + assignmentId));
+    public AssignmentFile getAssignmentFile(Long assignmentId) {
+        return assignmentRepository.findSubmittedFile(assignmentId)
+                .orElseThrow(() -> new EntityNotFoundException("No submitted file for assignment with ID: " + assignmentId));
+    }
+
+    public Resource openFile(AssignmentFile file) throws IOException {
+        return blobService.open(file.getHash());
+    }
 
-        return assignment.getSubmittedFileData();
+    // The answer goes to the submitted* columns; the statement the teacher uploaded is left alone
+    private static void attachAnswer(Assignment assignment, BlobDescriptor blob, MultipartFile file) {
+        assignment.setSubmittedFileHash(blob.getHash());
+        assignment.setSubmittedFileSize(blob.getSize());
+        assignment.setSubmittedFileName(file.getOriginalFilename());
+        assignment.setSubmittedFileType(file.getContentType());
+    }
+
+    private void saveWithAnswer(Assignment assignment, BlobDescriptor blob, String replacedHash) {
+        transactionTemplate.executeWithoutResult(status -> {
+            blobService.retain(blob.getHash());
+            blobService.release(replacedHash);
+            assignmentRepository.save(assignment);
+        });
     }
 }
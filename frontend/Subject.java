@@ -2,9 +2,14 @@ package com.Gestion_Note.Note.Entities;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
-@Table(name = "subjects")
+// Teacher-scoped lookups filter on either column
+@Table(name = "subjects", indexes = {
+        @Index(name = "idx_subjects_teacher_username", columnList = "teacher_username"),
+        @Index(name = "idx_subjects_user_id", columnList = "user_id")
+})
 public class Subject {
 
     @Id
@@ -21,6 +26,11 @@ public class Subject {
     @JsonBackReference
     private User teacher;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     public Subject() {
     }
 
@@ -55,6 +65,14 @@ public class Subject {
         this.teacher = teacher;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getTeacherUsername() {
         return teacherUsername;
     }
@@ -0,0 +1,131 @@
+package com.Gestion_Note.Note.Services;
+
+import com.Gestion_Note.Note.DTO.SubjectSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache of the whole subject catalog as one immutable, versioned snapshot.
+ * Every subject write calls {@link #invalidate()}, which bumps the version; a snapshot is only
+ * served or stored while its version is current, so a load racing with a write is thrown
+ * away instead of caching the old catalog. Concurrent misses share a single load. Sorted views
+ * of a snapshot are built on first use and dropped with it.
+ */
+@Component
+public class SubjectCatalogCache {
+
+    private final long ttlMillis;
+    private final AtomicLong version = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    public SubjectCatalogCache(@Value("${subjects.catalog-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    public List<SubjectSummary> get(Supplier<List<SubjectSummary>> loader) {
+        return current(loader).subjects;
+    }
+
+    /**
+     * The catalog in {@code order}, sorted once per snapshot. {@code view} names the order and
+     * must always be passed with the same comparator.
+     */
+    public List<SubjectSummary> get(Supplier<List<SubjectSummary>> loader, String view, Comparator<SubjectSummary> order) {
+        Snapshot current = current(loader);
+        return current.views.computeIfAbsent(view, key -> {
+            List<SubjectSummary> sorted = new ArrayList<>(current.subjects);
+            sorted.sort(order);
+            return List.copyOf(sorted);
+        });
+    }
+
+    private Snapshot current(Supplier<List<SubjectSummary>> loader) {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            hits.increment();
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (isFresh(current)) {
+                hits.increment();
+                return current;
+            }
+            long loadVersion = version.get();
+            current = new Snapshot(loadVersion, List.copyOf(loader.get()), System.currentTimeMillis() + ttlMillis);
+            loads.increment();
+            if (version.get() == loadVersion) {
+                snapshot = current;
+            }
+            return current;
+        }
+    }
+
+    public void invalidate() {
+        bump();
+        // A read between this call and the commit would reload the old rows under the new version,
+        // so the version is bumped again once the writing transaction has committed
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump();
+                }
+            });
+        }
+    }
+
+    private void bump() {
+        version.incrementAndGet();
+        snapshot = null;
+        invalidations.increment();
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    private boolean isFresh(Snapshot current) {
+        return current != null && current.version == version.get() && current.expiresAt > System.currentTimeMillis();
+    }
+
+    public Map<String, Long> stats() {
+        Snapshot current = snapshot;
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("version", version.get());
+        stats.put("size", isFresh(current) ? (long) current.subjects.size() : 0L);
+        stats.put("hits", hits.sum());
+        stats.put("loads", loads.sum());
+        stats.put("invalidations", invalidations.sum());
+        return stats;
+    }
+
+    private static final class Snapshot {
+        private final long version;
+        private final List<SubjectSummary> subjects;
+        private final long expiresAt;
+        private final Map<String, List<SubjectSummary>> views = new ConcurrentHashMap<>();
+
+        private Snapshot(long version, List<SubjectSummary> subjects, long expiresAt) {
+            this.version = version;
+            this.subjects = subjects;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
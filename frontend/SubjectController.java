@@ -1,10 +1,13 @@
 package com.Gestion_Note.Note.Controllers;
 
 
+import com.Gestion_Note.Note.DTO.BulkSubjectResult;
 import com.Gestion_Note.Note.DTO.SubjectDTO;
+import com.Gestion_Note.Note.DTO.SubjectSummary;
 import com.Gestion_Note.Note.Entities.Subject;
 import com.Gestion_Note.Note.Services.SubjectService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -33,34 +36,31 @@ public class SubjectController {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
-    /*
-    @GetMapping("/get/all")
-    public ResponseEntity<List<Subject>> getAllSubjects() {
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping("/bulk")
+    public ResponseEntity<?> saveSubjects(@RequestBody List<SubjectDTO> subjects) {
         try {
-            List<Subject> subjects = subjectService.getAllSubjects();
-            return ResponseEntity.ok(subjects);
+            BulkSubjectResult result = subjectService.addSubjects(subjects);
+            return ResponseEntity.ok(result);
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Collections.emptyList());
+            return ResponseEntity.badRequest().body("Bulk subject creation failed: " + e.getMessage());
         }
     }
 
-    @GetMapping("/get")
-    public ResponseEntity<List<Subject>> getSubjectByTeacher(@RequestParam String teacherUsername) {
+    @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_TEACHER')")
+    @GetMapping(value = "/get", params = "teacherUsername")
+    public ResponseEntity<List<SubjectSummary>> getSubjectByTeacher(@RequestParam String teacherUsername) {
         try {
-            User teacher = userRepository.findByUsername(teacherUsername)
-                    .orElseThrow(() -> new RuntimeException("Teacher not found with username: " + teacherUsername));
-            List<Subject> subjects = subjectService.getSubjectByTeacher(teacher);
+            List<SubjectSummary> subjects = subjectService.getSubjectsByTeacher(teacherUsername);
             if (subjects.isEmpty()) {
                 return ResponseEntity.noContent().build();
             }
             return ResponseEntity.ok(subjects);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(null);
         }
-    }*/
+    }
 
     @PreAuthorize("permitAll()")
     @PutMapping("/update")
@@ -86,29 +86,30 @@ public class SubjectController {
 
     @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_TEACHER')")
     @GetMapping("/get/all")
-    public ResponseEntity<?> getAllSubjects() {
+    public ResponseEntity<?> getAllSubjects(@RequestParam(required = false) Integer page,
+                                            @RequestParam(required = false) Integer size,
+                                            @RequestParam(required = false) String sort) {
         try {
-            List<Subject> subjects = subjectService.getAllSubjects();
-            List<Map<String, Object>> result = new ArrayList<>();
-            for (Subject subject : subjects) {
-                Map<String, Object> data = new HashMap<>();
-                data.put("subject_Id", subject.getSubject_Id());
-                data.put("name", subject.getName());
-                data.put("teacher_username", subject.getTeacher() != null ? subject.getTeacher().getName() : null);
-                result.add(data);
-            }
-            return ResponseEntity.ok(result);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+            List<SubjectSummary> subjects = subjectService.getSubjectSummaries(page, size, sort);
+            return ResponseEntity.ok(subjects);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
     @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_TEACHER')")
     @GetMapping("/get")
-    public ResponseEntity<?> getSubject(@RequestParam Long subject_Id) {
+    public ResponseEntity<?> getSubject(@RequestParam Long subject_Id,
+                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
             System.out.println("Received request to get subject with ID: " + subject_Id);
 
+            String unchanged = EntityTags.currentIfMatched(ifNoneMatch, "subject", subject_Id,
+                    () -> subjectService.getSubjectVersionTag(subject_Id));
+            if (unchanged != null) {
+                return EntityTags.notModified(unchanged);
+            }
+
             Optional<Subject> subjectOpt = subjectService.getSubject(subject_Id);
 
             if (subjectOpt.isPresent()) {
@@ -119,7 +120,11 @@ public class SubjectController {
                 result.put("name", subject.getName());
                 result.put("teacherName", subject.getTeacher() != null ? subject.getTeacher().getName() : null);
 
-                return ResponseEntity.ok(result);
+                String versionTag = EntityTags.version(subject.getVersion(),
+                        subject.getTeacher() != null ? subject.getTeacher().getVersion() : null);
+                return ResponseEntity.ok()
+                        .eTag(EntityTags.etag("subject", subject_Id, versionTag))
+                        .body(result);
             } else {
                 System.out.println("Subject not found for ID: " + subject_Id);
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Subject not found");
@@ -132,4 +137,4 @@ public class SubjectController {
         }
     }
 
-}
\ No newline at end of file
+}
\ No newline at end of file
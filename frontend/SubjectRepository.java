@@ -2,8 +2,11 @@ package com.Gestion_Note.Note.Repository;
 
 
 import com.Gestion_Note.Note.DTO.SubjectDTO;
+import com.Gestion_Note.Note.DTO.SubjectSummary;
 import com.Gestion_Note.Note.Entities.Subject;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -14,5 +17,19 @@ public interface SubjectRepository extends JpaRepository<Subject, Long> {
 
     List<Subject> findAll();
 
+    // The payload shows the teacher's name, so the teacher's version is part of the tag
+    @Query("select concat(str(coalesce(s.version, 0)), '-', str(coalesce(t.version, 0))) " +
+            "from Subject s left join s.teacher t where s.subject_Id = :id")
+    Optional<String> findVersionTag(@Param("id") Long id);
+
+    // Teacher joined in the same statement instead of one proxy initialization per subject
+    @Query("select new com.Gestion_Note.Note.DTO.SubjectSummary(s.subject_Id, s.name, t.name) " +
+            "from Subject s left join s.teacher t order by s.subject_Id")
+    List<SubjectSummary> findAllSummaries();
+
+    @Query("select new com.Gestion_Note.Note.DTO.SubjectSummary(s.subject_Id, s.name, t.name) " +
+            "from Subject s left join s.teacher t where s.teacherUsername = :username order by s.subject_Id")
+    List<SubjectSummary> findSummariesByTeacherUsername(@Param("username") String username);
+
 
 }
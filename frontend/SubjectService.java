@@ -1,26 +1,46 @@
 package com.Gestion_Note.Note.Services;
 
 
+import com.Gestion_Note.Note.DTO.BulkSubjectResult;
 import com.Gestion_Note.Note.DTO.SubjectDTO;
+import com.Gestion_Note.Note.DTO.SubjectSummary;
 import com.Gestion_Note.Note.Entities.Roles;
 import com.Gestion_Note.Note.Entities.Subject;
 import com.Gestion_Note.Note.Entities.User;
 import com.Gestion_Note.Note.Repository.SubjectRepository;
 import com.Gestion_Note.Note.Repository.UserRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Service
 public class SubjectService {
 
+    private static final int BATCH_SIZE = 500;
+
+    // Sort keys accepted from clients; the subject id breaks ties so pages are stable
+    private static final Map<String, Comparator<SubjectSummary>> SORTABLE = Map.of(
+            "subject_id", Comparator.comparing(SubjectSummary::getSubjectId),
+            "name", Comparator.comparing(SubjectSummary::getName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)),
+            "teacher", Comparator.comparing(SubjectSummary::getTeacherName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+    );
+
     private final SubjectRepository subjectRepository;
     private final UserRepository userRepository;
+    private final TeacherSubjectsCache teacherSubjectsCache;
+    private final SubjectCatalogCache subjectCatalogCache;
+    private final JdbcTemplate jdbcTemplate;
 
-    public SubjectService(SubjectRepository subjectRepository, UserRepository userRepository) {
+    public SubjectService(SubjectRepository subjectRepository, UserRepository userRepository,
+                          TeacherSubjectsCache teacherSubjectsCache, SubjectCatalogCache subjectCatalogCache,
+                          JdbcTemplate jdbcTemplate) {
         this.subjectRepository = subjectRepository;
         this.userRepository = userRepository;
+        this.teacherSubjectsCache = teacherSubjectsCache;
+        this.subjectCatalogCache = subjectCatalogCache;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     public String addSubject(SubjectDTO subjectDTO) {
@@ -34,19 +54,80 @@ public class SubjectService {
         subject.setTeacher(teacher);
         subject.setTeacherUsername(teacher.getUsername());
         subjectRepository.save(subject);
+        teacherSubjectsCache.evict(teacher.getUsername());
+        subjectCatalogCache.invalidate();
 
         return "Subject saved successfully";
     }
-/*
-    public List<Subject> getAllSubjects (){
-        List <Subject> subjects = subjectRepository.findAll();
-        return subjects;
+
+    /**
+     * Creates many subjects in one call: all teachers are resolved with one query and the
+     * rows are inserted with JDBC batches. Invalid rows are reported instead of failing the request.
+     */
+    @Transactional
+    public BulkSubjectResult addSubjects(List<SubjectDTO> subjects) {
+        BulkSubjectResult result = new BulkSubjectResult();
+        result.setReceived(subjects.size());
+
+        Set<String> usernames = new HashSet<>();
+        for (SubjectDTO dto : subjects) {
+            if (dto.getTeacher() != null) {
+                usernames.add(dto.getTeacher());
+            }
+        }
+        Map<String, User> teachers = new HashMap<>();
+        if (!usernames.isEmpty()) {
+            for (User user : userRepository.findByUsernameIn(usernames)) {
+                teachers.put(user.getUsername(), user);
+            }
+        }
+
+        List<Object[]> rows = new ArrayList<>();
+        Set<String> affectedTeachers = new HashSet<>();
+        for (int i = 0; i < subjects.size(); i++) {
+            SubjectDTO dto = subjects.get(i);
+            User teacher = teachers.get(dto.getTeacher());
+            if (dto.getName() == null || dto.getName().isBlank()) {
+                result.addError(i + 1, dto.getName(), "Name is required");
+            } else if (teacher == null) {
+                result.addError(i + 1, dto.getName(), "Teacher not found with username: " + dto.getTeacher());
+            } else if (teacher.getRole() != Roles.TEACHER) {
+                result.addError(i + 1, dto.getName(), "The user does not have the teacher role");
+            } else {
+                rows.add(new Object[]{dto.getName(), teacher.getUsername(), teacher.getUser_id(), 0L});
+                affectedTeachers.add(teacher.getUsername());
+            }
+        }
+
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(
+                    "insert into subjects (name, teacher_username, user_id, version) values (?, ?, ?, ?)",
+                    rows.subList(from, Math.min(from + BATCH_SIZE, rows.size()))
+            );
+        }
+
+        if (!rows.isEmpty()) {
+            affectedTeachers.forEach(teacherSubjectsCache::evict);
+            subjectCatalogCache.invalidate();
+        }
+        result.setCreated(rows.size());
+        return result;
     }
 
-    public List<Subject> getSubjectByTeacher(User teacher) {
-        List<Subject> subjects = subjectRepository.findByTeacherUsername(teacher.getUsername());
-        return subjects;
-    }*/
+    public List<SubjectSummary> getSubjectsByTeacher(String teacherUsername) {
+        return teacherSubjectsCache.get(teacherUsername, username -> {
+            List<SubjectSummary> subjects = subjectRepository.findSummariesByTeacherUsername(username);
+            // Only an empty result needs the lookup that tells "no subjects" from "no such teacher"
+            if (subjects.isEmpty()) {
+                User teacher = userRepository.findByUsername(username)
+                        .orElseThrow(() -> new RuntimeException("Teacher not found with username: " + username));
+                if (teacher.getRole() != Roles.TEACHER) {
+                    throw new RuntimeException("The user does not have the teacher role");
+                }
+            }
+            return subjects;
+        });
+    }
 
 
     public Subject updateSubject(Subject subject) {
@@ -54,9 +135,25 @@ public class SubjectService {
 
         if (existingSubjectOptional.isPresent()) {
             Subject existingSubject = existingSubjectOptional.get();
+            String previousTeacher = existingSubject.getTeacherUsername();
             existingSubject.setName(subject.getName());
-            existingSubject.setTeacherUsername(subject.getTeacherUsername());
-            return subjectRepository.save(existingSubject);
+            String teacherUsername = subject.getTeacherUsername() != null ? subject.getTeacherUsername()
+                    : subject.getTeacher() != null ? subject.getTeacher().getUsername() : null;
+            // The relation and the username column must name the same teacher
+            if (teacherUsername != null && !teacherUsername.equals(previousTeacher)) {
+                User teacher = userRepository.findByUsername(teacherUsername)
+                        .orElseThrow(() -> new RuntimeException("Teacher not found with username: " + teacherUsername));
+                if (teacher.getRole() != Roles.TEACHER) {
+                    throw new RuntimeException("The user does not have the teacher role");
+                }
+                existingSubject.setTeacher(teacher);
+                existingSubject.setTeacherUsername(teacher.getUsername());
+            }
+            Subject saved = subjectRepository.save(existingSubject);
+            teacherSubjectsCache.evict(previousTeacher);
+            teacherSubjectsCache.evict(saved.getTeacherUsername());
+            subjectCatalogCache.invalidate();
+            return saved;
         } else {
             throw new RuntimeException("Subject Not Found");
         }
@@ -65,7 +162,11 @@ public class SubjectService {
 
     public void deleteSubject (Long subject_Id){
         Optional <Subject> existingSubject = subjectRepository.findById(subject_Id);
-        existingSubject.ifPresent(subjectRepository::delete);
+        existingSubject.ifPresent(subject -> {
+            subjectRepository.delete(subject);
+            teacherSubjectsCache.evict(subject.getTeacherUsername());
+            subjectCatalogCache.invalidate();
+        });
     }
 
     public List <Subject> getAllSubjects(){
@@ -73,6 +174,62 @@ public class SubjectService {
         return existingSubject;
     }
 
+    /**
+     * Lists subjects with their teacher's name. {@code sort} is {@code key[,asc|desc]} with key
+     * one of subject_Id, name or teacher; without page and size every subject is returned.
+     * Sorting and paging work on the cached catalog and its sorted views, so no variant of the
+     * listing hits the database or re-sorts while the catalog is current.
+     */
+    public List<SubjectSummary> getSubjectSummaries(Integer page, Integer size, String sort) {
+        String view = viewOf(sort);
+        List<SubjectSummary> subjects = view == null
+                ? subjectCatalogCache.get(subjectRepository::findAllSummaries)
+                : subjectCatalogCache.get(subjectRepository::findAllSummaries, view, comparatorOf(view));
+        if (page == null && size == null) {
+            return subjects;
+        }
+        int limit = Paging.limit(size);
+        long from = (long) (page == null ? 0 : Math.max(0, page)) * limit;
+        if (from >= subjects.size()) {
+            return Collections.emptyList();
+        }
+        return List.copyOf(subjects.subList((int) from, (int) Math.min(from + limit, subjects.size())));
+    }
+
+    // Normalized "key,asc|desc", or null for the catalog's own order (subject id ascending)
+    private static String viewOf(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return null;
+        }
+        String[] parts = sort.split(",");
+        String key = parts[0].trim().toLowerCase(Locale.ROOT);
+        if (!SORTABLE.containsKey(key)) {
+            throw new IllegalArgumentException("Cannot sort subjects by " + key);
+        }
+        boolean descending = parts.length > 1 && parts[1].trim().equalsIgnoreCase("desc");
+        if (parts.length > 1 && !descending && !parts[1].trim().equalsIgnoreCase("asc")) {
+            throw new IllegalArgumentException("Sort direction must be asc or desc");
+        }
+        if (key.equals("subject_id") && !descending) {
+            return null;
+        }
+        return key + (descending ? ",desc" : ",asc");
+    }
+
+    private static Comparator<SubjectSummary> comparatorOf(String view) {
+        String[] parts = view.split(",");
+        Comparator<SubjectSummary> order = SORTABLE.get(parts[0]);
+        boolean descending = parts[1].equals("desc");
+        if (parts[0].equals("subject_id")) {
+            return order.reversed();
+        }
+        return (descending ? order.reversed() : order).thenComparing(SubjectSummary::getSubjectId);
+    }
+
+    public Optional<String> getSubjectVersionTag(Long subject_Id) {
+        return subjectRepository.findVersionTag(subject_Id);
+    }
+
     public Optional<Subject> getSubject(Long subject_Id){
         Optional<Subject> existingSubject = subjectRepository.findById(subject_Id);
         if (existingSubject.isPresent()){
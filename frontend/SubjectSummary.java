@@ -0,0 +1,34 @@
+package com.Gestion_Note.Note.DTO;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Subject listing row. The JSON names are those of the map the listing used to build, so
+ * {@code teacher_username} still carries the teacher's display name.
+ */
+public class SubjectSummary {
+
+    private final Long subjectId;
+    private final String name;
+    private final String teacherName;
+
+    public SubjectSummary(Long subjectId, String name, String teacherName) {
+        this.subjectId = subjectId;
+        this.name = name;
+        this.teacherName = teacherName;
+    }
+
+    @JsonProperty("subject_Id")
+    public Long getSubjectId() {
+        return subjectId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    @JsonProperty("teacher_username")
+    public String getTeacherName() {
+        return teacherName;
+    }
+}
@@ -0,0 +1,50 @@
+package com.Gestion_Note.Note.Services;
+
+import com.Gestion_Note.Note.DTO.SubjectSummary;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Size-bounded, TTL-expiring cache of the subjects of each teacher, keyed by teacher username.
+ * {@link SubjectService} evicts a teacher whenever one of their subjects is added, changed or
+ * removed; the TTL only bounds how long a renamed teacher can show up under the old name.
+ */
+@Component
+public class TeacherSubjectsCache {
+
+    private final BoundedTtlCache<String, List<SubjectSummary>> cache;
+
+    public TeacherSubjectsCache(
+            @Value("${subjects.teacher-cache.max-size:2000}") int maxSize,
+            @Value("${subjects.teacher-cache.ttl-seconds:600}") long ttlSeconds
+    ) {
+        this.cache = new BoundedTtlCache<>(maxSize, ttlSeconds);
+    }
+
+    public List<SubjectSummary> get(String teacherUsername, Function<String, List<SubjectSummary>> loader) {
+        return cache.get(teacherUsername, username -> List.copyOf(loader.apply(username)));
+    }
+
+    public void evict(String teacherUsername) {
+        cache.evict(teacherUsername);
+        // As in SubjectCatalogCache: a read before the commit would cache the old list again
+        if (teacherUsername != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evict(teacherUsername);
+                }
+            });
+        }
+    }
+
+    public Map<String, Long> stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,130 @@
+package com.Gestion_Note.Note.Security;
+
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token-bucket rate limiter keyed by an arbitrary string (email, client IP...).
+ * Each key has its own bucket and lock, so callers only contend when they share a key.
+ * Memory is bounded: once {@code maxEntries} keys are tracked, idle buckets are evicted.
+ */
+public class TokenBucketRateLimiter {
+
+    private final int capacity;
+    private final double tokensPerNano;
+    private final int maxEntries;
+    private final long idleNanos;
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    public TokenBucketRateLimiter(int capacity, int refillPerMinute, int maxEntries, long idleSeconds) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.maxEntries = maxEntries;
+        this.idleNanos = TimeUnit.SECONDS.toNanos(idleSeconds);
+    }
+
+    /**
+     * Takes one token from the bucket of {@code key}.
+     *
+     * @return 0 if the call is allowed, otherwise the number of seconds until a token is available
+     */
+    public long tryAcquire(String key) {
+        long now = System.nanoTime();
+        Bucket bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxEntries) {
+                evictIdle(now);
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new Bucket(capacity, now));
+        }
+
+        long waitNanos = bucket.tryConsume(now, capacity, tokensPerNano);
+        if (waitNanos == 0) {
+            return 0;
+        }
+        rejected.increment();
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+    }
+
+    /** Gives back a token taken by {@link #tryAcquire} for a call that did not go ahead after all. */
+    public void refund(String key) {
+        Bucket bucket = buckets.get(key);
+        if (bucket != null) {
+            bucket.refund(capacity);
+        }
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    public long getEvicted() {
+        return evicted.sum();
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    private void evictIdle(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Iterator<Bucket> iterator = buckets.values().iterator();
+            while (iterator.hasNext()) {
+                if (now - iterator.next().lastSeen > idleNanos) {
+                    iterator.remove();
+                    evicted.increment();
+                }
+            }
+            // Still full of active keys: drop arbitrary ones rather than grow without bound
+            iterator = buckets.values().iterator();
+            while (buckets.size() >= maxEntries && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evicted.increment();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefill;
+        private volatile long lastSeen;
+
+        private Bucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.lastRefill = now;
+            this.lastSeen = now;
+        }
+
+        private synchronized long tryConsume(long now, int capacity, double tokensPerNano) {
+            if (now > lastRefill) {
+                tokens = Math.min(capacity, tokens + (now - lastRefill) * tokensPerNano);
+                lastRefill = now;
+            }
+            lastSeen = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return tokensPerNano > 0 ? (long) Math.ceil((1 - tokens) / tokensPerNano) : Long.MAX_VALUE;
+        }
+
+        private synchronized void refund(int capacity) {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.Gestion_Note.Note.Security;
+
+
+import com.Gestion_Note.Note.Entities.RevokedToken;
+import com.Gestion_Note.Note.Repository.RevokedTokenRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Set of revoked token ids (jti) with their expiry. Lookups are a single map access
+ * and never touch the database; the revoked_tokens table only exists so the set
+ * survives a restart. Entries are dropped once the token would have expired anyway.
+ */
+@Component
+public class TokenRevocationStore {
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final AtomicLong lastPrune = new AtomicLong(System.currentTimeMillis());
+
+    @Value("${security.jwt.revocation-prune-interval-ms:60000}")
+    private long pruneIntervalMillis = 60000;
+
+    public TokenRevocationStore(RevokedTokenRepository revokedTokenRepository) {
+        this.revokedTokenRepository = revokedTokenRepository;
+    }
+
+    @PostConstruct
+    void load() {
+        for (RevokedToken token : revokedTokenRepository.findByExpiresAtAfter(new Date())) {
+            revoked.put(token.getJti(), token.getExpiresAt().getTime());
+        }
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || revoked.isEmpty()) {
+            return false;
+        }
+        Long expiresAt = revoked.get(jti);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt <= System.currentTimeMillis()) {
+            revoked.remove(jti, expiresAt);
+            return false;
+        }
+        return true;
+    }
+
+    public void revoke(String jti, Date expiresAt) {
+        if (jti == null || expiresAt == null || expiresAt.getTime() <= System.currentTimeMillis()) {
+            return;
+        }
+        revokedTokenRepository.save(new RevokedToken(jti, expiresAt));
+        revoked.put(jti, expiresAt.getTime());
+        pruneIfDue();
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    private void pruneIfDue() {
+        long now = System.currentTimeMillis();
+        long last = lastPrune.get();
+        if (now - last < pruneIntervalMillis || !lastPrune.compareAndSet(last, now)) {
+            return;
+        }
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        revokedTokenRepository.deleteExpired(new Date(now));
+    }
+}
@@ -0,0 +1,75 @@
+package com.Gestion_Note.Note.Security;
+
+
+import com.Gestion_Note.Note.Repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory copy of the users' token versions, used to reject claims-based tokens
+ * issued before a role, email or password change without querying the database.
+ * Only users whose version was ever bumped are kept; everyone else is at version 0.
+ * Deletions leave nothing in the database to load, so the first token seen for any
+ * other user after a restart is checked against the users table once, and the
+ * answer is remembered.
+ */
+@Component
+public class TokenVersionStore {
+    static final int DELETED = Integer.MAX_VALUE;
+
+    private final UserRepository userRepository;
+    private final Map<Long, Integer> versions = new ConcurrentHashMap<>();
+    private final Set<Long> existing = ConcurrentHashMap.newKeySet();
+
+    @Value("${security.jwt.version-check:true}")
+    private boolean versionCheckEnabled = true;
+
+    public TokenVersionStore(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @PostConstruct
+    void load() {
+        for (UserRepository.UserTokenVersion row : userRepository.findBumpedTokenVersions()) {
+            versions.put(row.getUserId(), row.getTokenVersion());
+        }
+    }
+
+    public int currentVersion(Long userId) {
+        return versions.getOrDefault(userId, 0);
+    }
+
+    public boolean isFresh(Long userId, int tokenVersion) {
+        if (!versionCheckEnabled) {
+            return true;
+        }
+        Integer version = versions.get(userId);
+        if (version != null) {
+            return version != DELETED && tokenVersion >= version;
+        }
+        if (existing.contains(userId)) {
+            return true;
+        }
+        if (!userRepository.existsById(userId)) {
+            versions.putIfAbsent(userId, DELETED);
+            return false;
+        }
+        existing.add(userId);
+        // A concurrent recordDeleted wins over the check above
+        return !versions.containsKey(userId) || isFresh(userId, tokenVersion);
+    }
+
+    public void recordVersion(Long userId, int version) {
+        versions.merge(userId, version, Math::max);
+    }
+
+    public void recordDeleted(Long userId) {
+        versions.put(userId, DELETED);
+        existing.remove(userId);
+    }
+}
@@ -0,0 +1,19 @@
+package com.Gestion_Note.Note.Security;
+
+
+/**
+ * Thrown when a request is shed instead of being queued; answered with
+ * 429 Too Many Requests and a Retry-After header.
+ */
+public class TooManyRequestsException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,66 @@
+package com.Gestion_Note.Note.Services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Largest file each role may upload. The limit is checked against the declared request
+ * length before the multipart body is parsed, against the part size when it is known, and
+ * again while the content is streamed into the blob store, which also covers chunked
+ * requests and understated lengths.
+ */
+@Component
+public class UploadLimits {
+
+    private final long studentMaxBytes;
+    private final long teacherMaxBytes;
+    private final long defaultMaxBytes;
+
+    public UploadLimits(
+            @Value("${storage.uploads.student-max-bytes:20971520}") long studentMaxBytes,
+            @Value("${storage.uploads.teacher-max-bytes:52428800}") long teacherMaxBytes,
+            @Value("${storage.uploads.default-max-bytes:10485760}") long defaultMaxBytes
+    ) {
+        this.studentMaxBytes = studentMaxBytes;
+        this.teacherMaxBytes = teacherMaxBytes;
+        this.defaultMaxBytes = defaultMaxBytes;
+    }
+
+    public long maxBytesFor(Authentication authentication) {
+        if (authentication == null) {
+            return defaultMaxBytes;
+        }
+        long max = defaultMaxBytes;
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            switch (authority.getAuthority()) {
+                case "ROLE_TEACHER", "ROLE_ADMIN" -> max = Math.max(max, teacherMaxBytes);
+                case "ROLE_STUDENT" -> max = Math.max(max, studentMaxBytes);
+                default -> {
+                }
+            }
+        }
+        return max;
+    }
+
+    /** The limit of the most privileged role, which bounds what the container has to accept at all. */
+    public long largestMaxBytes() {
+        return Math.max(defaultMaxBytes, Math.max(studentMaxBytes, teacherMaxBytes));
+    }
+
+    public long maxBytesForCurrentUser() {
+        return maxBytesFor(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    // Rejects a part that is already known to be too large and returns the limit to enforce while streaming it
+    public long checkedLimit(MultipartFile file) {
+        long max = maxBytesForCurrentUser();
+        if (file.getSize() > max) {
+            throw new UploadTooLargeException(max);
+        }
+        return max;
+    }
+}
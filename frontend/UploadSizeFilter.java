@@ -0,0 +1,59 @@
+package com.Gestion_Note.Note.Config;
+
+import com.Gestion_Note.Note.Services.UploadLimits;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Answers 413 for a multipart request whose declared length is over the sender's upload
+ * limit, before the servlet container reads and spools the body. Registered in the security
+ * chain after the JWT filter so that the sender's role is known; it is deliberately not a
+ * component, which would also register it ahead of authentication.
+ */
+public class UploadSizeFilter extends OncePerRequestFilter {
+
+    // Room for the boundaries, part headers and the other form fields around the file
+    public static final long MULTIPART_OVERHEAD = 64 * 1024;
+
+    private final UploadLimits uploadLimits;
+
+    public UploadSizeFilter(UploadLimits uploadLimits) {
+        this.uploadLimits = uploadLimits;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType == null || !contentType.toLowerCase(Locale.ROOT).startsWith(MediaType.MULTIPART_FORM_DATA_VALUE);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        long declared = request.getContentLengthLong();
+        long max = uploadLimits.maxBytesFor(SecurityContextHolder.getContext().getAuthentication());
+        if (declared > max + MULTIPART_OVERHEAD) {
+            // Written here rather than with sendError, whose ERROR dispatch to /error would go
+            // through security again and could come back as 401 instead of 413
+            response.setStatus(HttpStatus.PAYLOAD_TOO_LARGE.value());
+            response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            response.getWriter().write("File exceeds the upload limit of " + max + " bytes");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
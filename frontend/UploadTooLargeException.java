@@ -0,0 +1,18 @@
+package com.Gestion_Note.Note.Services;
+
+/**
+ * Thrown as soon as an upload is known to exceed the sender's limit, whether from its
+ * declared size or while it is being streamed; answered with 413 Payload Too Large.
+ */
+public class UploadTooLargeException extends RuntimeException {
+    private final long maxBytes;
+
+    public UploadTooLargeException(long maxBytes) {
+        super("File exceeds the upload limit of " + maxBytes + " bytes");
+        this.maxBytes = maxBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+}
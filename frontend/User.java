@@ -1,7 +1,9 @@
 package com.Gestion_Note.Note.Entities;
 
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -30,6 +32,16 @@ public class User implements UserDetails {
     @Enumerated (EnumType.STRING)
     private Roles role;
 
+    // Bumped whenever role, email or password change so previously issued tokens stop being accepted
+    @Column(name = "token_version")
+    private Integer tokenVersion = 0;
+
+    // Optimistic-lock version, also used as the ETag of the user; existing rows start at 0
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
 
     public User(Long user_id, String name, String username, String email, String password, Roles role) {
         this.user_id = user_id;
@@ -117,4 +129,21 @@ public class User implements UserDetails {
     public void setRole(Roles role) {
         this.role = role;
     }
+
+    @JsonIgnore
+    public int getTokenVersion() {
+        return tokenVersion == null ? 0 : tokenVersion;
+    }
+
+    public void setTokenVersion(int tokenVersion) {
+        this.tokenVersion = tokenVersion;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -1,14 +1,26 @@
 package com.Gestion_Note.Note.Controllers;
 
 
+import com.Gestion_Note.Note.DTO.BulkRegistrationResult;
+import com.Gestion_Note.Note.DTO.CursorPage;
+import com.Gestion_Note.Note.DTO.RegisterUserDTO;
+import com.Gestion_Note.Note.DTO.UserSummary;
+import com.Gestion_Note.Note.Entities.Group;
+import com.Gestion_Note.Note.Entities.Roles;
+import com.Gestion_Note.Note.Entities.Student;
 import com.Gestion_Note.Note.Entities.User;
+import com.Gestion_Note.Note.Services.BulkRegistrationService;
+import com.Gestion_Note.Note.Services.UserSearchIndex;
 import com.Gestion_Note.Note.Services.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.Reader;
 import java.util.List;
 
 @RestController
@@ -17,27 +29,43 @@ public class UserController {
 
     @Autowired
     private final UserService userService;
+    private final BulkRegistrationService bulkRegistrationService;
+    private final UserSearchIndex userSearchIndex;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, BulkRegistrationService bulkRegistrationService,
+                          UserSearchIndex userSearchIndex) {
         this.userService = userService;
+        this.bulkRegistrationService = bulkRegistrationService;
+        this.userSearchIndex = userSearchIndex;
     }
 
 
     @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_TEACHER')")
     @GetMapping("/all")
-    public ResponseEntity<?> getAllUsers() {
+    public ResponseEntity<?> getAllUsers(@RequestParam(required = false) Roles role,
+                                         @RequestParam(required = false) Long cursor,
+                                         @RequestParam(required = false) Integer size) {
         try {
-            List<User> users = userService.getAllUsers();
-            if (users.isEmpty()) {
+            CursorPage<UserSummary> page = userService.getUsers(role, cursor, size);
+            if (page.getItems().isEmpty() && cursor == null) {
                 return ResponseEntity.status(HttpStatus.NO_CONTENT).body("No users found");
             }
-            return ResponseEntity.ok(users);
+            return ResponseEntity.ok(page);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Users Not Found");
         }
     }
 
 
+    @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_TEACHER')")
+    @GetMapping("/search")
+    public ResponseEntity<List<UserSummary>> searchUsers(@RequestParam String q,
+                                                         @RequestParam(required = false) Roles role,
+                                                         @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(userSearchIndex.search(q, role, limit));
+    }
+
+
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @PutMapping("/update")
     public ResponseEntity<String> updateUser(@RequestBody User user){
@@ -52,15 +80,53 @@ public class UserController {
 
     @PreAuthorize("hasRole('ROLE_ADMIN') or hasRole('ROLE_TEACHER')")
     @GetMapping("/get")
-    public ResponseEntity<?> getUser (@RequestParam Long user_id){
+    public ResponseEntity<?> getUser (@RequestParam Long user_id,
+                                      @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
         try {
+            String unchanged = EntityTags.currentIfMatched(ifNoneMatch, "user", user_id,
+                    () -> userService.getUserVersionTag(user_id));
+            if (unchanged != null) {
+                return EntityTags.notModified(unchanged);
+            }
             User user = userService.getUser(user_id);
-            return ResponseEntity.ok( user);
+            return ResponseEntity.ok()
+                    .eTag(EntityTags.etag("user", user_id, versionTag(user)))
+                    .body(user);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("User not Found with the ID : " + user_id);
         }
     }
 
+    // Same format as UserRepository.findVersionTag: user version, group id, group version
+    private static String versionTag(User user) {
+        Group group = user instanceof Student student ? student.getGroup() : null;
+        return EntityTags.version(user.getVersion(),
+                group != null ? group.getGroupId() : null,
+                group != null ? group.getVersion() : null);
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> bulkRegister(@RequestBody List<RegisterUserDTO> users) {
+        try {
+            BulkRegistrationResult result = bulkRegistrationService.register(users);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Bulk registration failed: " + e.getMessage());
+        }
+    }
+
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<?> bulkRegisterCsv(Reader csv) {
+        try {
+            BulkRegistrationResult result = bulkRegistrationService.register(bulkRegistrationService.parseCsv(csv));
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Bulk registration failed: " + e.getMessage());
+        }
+    }
+
     @PreAuthorize("hasRole('ROLE_ADMIN')")
     @DeleteMapping("/delete")
     public ResponseEntity<?> deleteUser(@RequestParam Long user_id){
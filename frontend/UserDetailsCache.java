@@ -0,0 +1,43 @@
+package com.Gestion_Note.Note.Security;
+
+
+import com.Gestion_Note.Note.Services.BoundedTtlCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Size-bounded, TTL-expiring cache of {@link CustomUserDetails} keyed by email,
+ * shared by every {@link org.springframework.security.core.userdetails.UserDetailsService}
+ * of the application. Entries are evicted explicitly by the services that mutate users.
+ */
+@Component
+public class UserDetailsCache {
+
+    private final BoundedTtlCache<String, CustomUserDetails> cache;
+
+    public UserDetailsCache(
+            @Value("${security.user-cache.max-size:10000}") int maxSize,
+            @Value("${security.user-cache.ttl-seconds:300}") long ttlSeconds
+    ) {
+        this.cache = new BoundedTtlCache<>(maxSize, ttlSeconds);
+    }
+
+    public CustomUserDetails get(String email, Function<String, CustomUserDetails> loader) {
+        return cache.get(email, loader);
+    }
+
+    public void evict(String email) {
+        cache.evict(email);
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public Map<String, Long> stats() {
+        return cache.stats();
+    }
+}
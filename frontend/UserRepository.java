@@ -1,15 +1,83 @@
 package com.Gestion_Note.Note.Repository;
 
 
+import com.Gestion_Note.Note.DTO.UserSummary;
 import com.Gestion_Note.Note.Entities.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository <User, Long> {
     Optional <User> findByEmail (String email);
     Optional<User> findByUsername(String username);
+    List<User> findByUsernameIn(Collection<String> usernames);
+
+    @Query("select u.user_id as userId, u.tokenVersion as tokenVersion from User u where u.tokenVersion > 0")
+    List<UserTokenVersion> findBumpedTokenVersions();
+
+    @Query("select u.email as email, u.username as username from User u " +
+            "where u.email in :emails or u.username in :usernames")
+    List<UserIdentity> findIdentities(@Param("emails") Collection<String> emails,
+                                      @Param("usernames") Collection<String> usernames);
+
+    // Keyset listings: only root columns are selected, so the role-less query reads the users
+    // table alone and each role query joins just its own subclass table
+    @Query("select new com.Gestion_Note.Note.DTO.UserSummary(u.user_id, u.name, u.username, u.email, u.role) " +
+            "from User u where u.user_id > :after order by u.user_id")
+    List<UserSummary> findSummariesAfter(@Param("after") Long after, Pageable pageable);
+
+    @Query("select new com.Gestion_Note.Note.DTO.UserSummary(s.user_id, s.name, s.username, s.email, s.role) " +
+            "from Student s where s.user_id > :after order by s.user_id")
+    List<UserSummary> findStudentSummariesAfter(@Param("after") Long after, Pageable pageable);
+
+    @Query("select new com.Gestion_Note.Note.DTO.UserSummary(t.user_id, t.name, t.username, t.email, t.role) " +
+            "from Teacher t where t.user_id > :after order by t.user_id")
+    List<UserSummary> findTeacherSummariesAfter(@Param("after") Long after, Pageable pageable);
+
+    @Query("select new com.Gestion_Note.Note.DTO.UserSummary(a.user_id, a.name, a.username, a.email, a.role) " +
+            "from Admin a where a.user_id > :after order by a.user_id")
+    List<UserSummary> findAdminSummariesAfter(@Param("after") Long after, Pageable pageable);
+
+    @Query("select new com.Gestion_Note.Note.DTO.UserSummary(p.user_id, p.name, p.username, p.email, p.role) " +
+            "from Parent p where p.user_id > :after order by p.user_id")
+    List<UserSummary> findParentSummariesAfter(@Param("after") Long after, Pageable pageable);
+
+    // ETag check without loading the row. A student's payload embeds its group, and moving a student
+    // (StudentRepository.assignGroup/unassignGroup) only touches students.group_id, so the group id
+    // and the group's version are part of the tag
+    @Query("select concat(str(coalesce(u.version, 0)), '-', str(coalesce(g.groupId, 0)), '-', " +
+            "str(coalesce(g.version, 0))) from User u left join Student s on s.user_id = u.user_id " +
+            "left join s.group g where u.user_id = :id")
+    Optional<String> findVersionTag(@Param("id") Long id);
+
+    // Exports: must be consumed inside a transaction and closed
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.Gestion_Note.Note.DTO.UserSummary(u.user_id, u.name, u.username, u.email, u.role) " +
+            "from User u order by u.user_id")
+    Stream<UserSummary> streamSummaries();
+
+    interface UserIdentity {
+        String getEmail();
+        String getUsername();
+    }
+
+    interface UserTokenVersion {
+        Long getUserId();
+        Integer getTokenVersion();
+    }
 
 }
@@ -0,0 +1,277 @@
+package com.Gestion_Note.Note.Services;
+
+import com.Gestion_Note.Note.DTO.UserSummary;
+import com.Gestion_Note.Note.Entities.Roles;
+import com.Gestion_Note.Note.Entities.User;
+import com.Gestion_Note.Note.Repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory type-ahead index over username, name and email.
+ * Prefix matches come from a sorted term map; substring matches (3+ characters) from
+ * trigram postings, verified against the indexed fields. Built from the users table at
+ * startup and updated by the services that create, change or delete users; changes made
+ * inside a transaction are applied once it commits, so a rollback leaves the index alone.
+ */
+@Component
+public class UserSearchIndex {
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+    private static final int LOAD_PAGE = 1000;
+
+    private final UserRepository userRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, UserSummary> users = new HashMap<>();
+    private final NavigableMap<String, Postings> terms = new TreeMap<>();
+    private final Map<String, Postings> trigrams = new HashMap<>();
+
+    public UserSearchIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @PostConstruct
+    void load() {
+        long after = 0L;
+        List<UserSummary> page;
+        do {
+            page = userRepository.findSummariesAfter(after, PageRequest.of(0, LOAD_PAGE));
+            lock.writeLock().lock();
+            try {
+                for (UserSummary user : page) {
+                    removeLocked(user.getUser_id());
+                    addLocked(user);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).getUser_id();
+            }
+        } while (page.size() == LOAD_PAGE);
+    }
+
+    public void index(User user) {
+        index(new UserSummary(user.getUser_id(), user.getName(), user.getUsername(), user.getEmail(), user.getRole()));
+    }
+
+    public void index(UserSummary user) {
+        if (user.getUser_id() == null) {
+            return;
+        }
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeLocked(user.getUser_id());
+                addLocked(user);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    public void remove(Long userId) {
+        afterCommit(() -> {
+            lock.writeLock().lock();
+            try {
+                removeLocked(userId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return users.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} users (clamped to [1, {@link #MAX_LIMIT}]) whose username,
+     * name or email starts with {@code query}, followed by those that contain it.
+     */
+    public List<UserSummary> search(String query, Roles role, Integer limit) {
+        String q = normalize(query);
+        if (q.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int max = limit == null ? DEFAULT_LIMIT : Math.max(1, Math.min(limit, MAX_LIMIT));
+
+        lock.readLock().lock();
+        try {
+            Set<Long> hits = new LinkedHashSet<>();
+            for (Postings postings : terms.subMap(q, true, q + Character.MAX_VALUE, false).values()) {
+                for (int i = 0; i < postings.size && hits.size() < max; i++) {
+                    long id = postings.ids[i];
+                    if (role == null || users.get(id).getRole() == role) {
+                        hits.add(id);
+                    }
+                }
+                if (hits.size() >= max) {
+                    break;
+                }
+            }
+
+            if (hits.size() < max && q.length() >= 3) {
+                Postings candidates = smallestPostings(q);
+                for (int i = 0; candidates != null && i < candidates.size && hits.size() < max; i++) {
+                    long id = candidates.ids[i];
+                    UserSummary user = users.get(id);
+                    if ((role == null || user.getRole() == role) && !hits.contains(id) && contains(user, q)) {
+                        hits.add(id);
+                    }
+                }
+            }
+
+            List<UserSummary> result = new ArrayList<>(hits.size());
+            for (Long id : hits) {
+                result.add(users.get(id));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Postings smallestPostings(String q) {
+        Postings smallest = null;
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            Postings postings = trigrams.get(q.substring(i, i + 3));
+            if (postings == null) {
+                return null;
+            }
+            if (smallest == null || postings.size < smallest.size) {
+                smallest = postings;
+            }
+        }
+        return smallest;
+    }
+
+    private void addLocked(UserSummary user) {
+        long id = user.getUser_id();
+        users.put(id, user);
+        for (String term : termsOf(user)) {
+            terms.computeIfAbsent(term, t -> new Postings()).add(id);
+        }
+        for (String trigram : trigramsOf(user)) {
+            trigrams.computeIfAbsent(trigram, t -> new Postings()).add(id);
+        }
+    }
+
+    private void removeLocked(Long userId) {
+        UserSummary previous = users.remove(userId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : termsOf(previous)) {
+            removePosting(terms, term, userId);
+        }
+        for (String trigram : trigramsOf(previous)) {
+            removePosting(trigrams, trigram, userId);
+        }
+    }
+
+    private static void removePosting(Map<String, Postings> map, String key, long id) {
+        Postings postings = map.get(key);
+        if (postings != null && postings.remove(id) && postings.size == 0) {
+            map.remove(key);
+        }
+    }
+
+    // Whole fields plus each word of the name, so "dupont" finds "Jean Dupont"
+    private static Set<String> termsOf(UserSummary user) {
+        Set<String> result = new HashSet<>();
+        addIfPresent(result, normalize(user.getUsername()));
+        addIfPresent(result, normalize(user.getEmail()));
+        String name = normalize(user.getName());
+        addIfPresent(result, name);
+        for (String word : name.split("\\s+")) {
+            addIfPresent(result, word);
+        }
+        return result;
+    }
+
+    // The email domain is left out: it is shared by most users and would only add huge postings
+    private static Set<String> trigramsOf(UserSummary user) {
+        Set<String> result = new HashSet<>();
+        addTrigrams(result, normalize(user.getUsername()));
+        addTrigrams(result, normalize(user.getName()));
+        String email = normalize(user.getEmail());
+        int at = email.indexOf('@');
+        addTrigrams(result, at >= 0 ? email.substring(0, at) : email);
+        return result;
+    }
+
+    private static void addTrigrams(Set<String> result, String value) {
+        for (int i = 0; i + 3 <= value.length(); i++) {
+            result.add(value.substring(i, i + 3));
+        }
+    }
+
+    private static void addIfPresent(Set<String> result, String value) {
+        if (!value.isEmpty()) {
+            result.add(value);
+        }
+    }
+
+    private static boolean contains(UserSummary user, String q) {
+        return normalize(user.getUsername()).contains(q)
+                || normalize(user.getName()).contains(q)
+                || normalize(user.getEmail()).contains(q);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /** Unsorted growable list of user ids; avoids a boxed Long per posting. */
+    private static final class Postings {
+        private long[] ids = new long[4];
+        private int size;
+
+        private void add(long id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        private boolean remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    // Shift rather than swap so prefix results keep insertion (id) order
+                    System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                    size--;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -1,12 +1,20 @@
 package com.Gestion_Note.Note.Services;
 
+import com.Gestion_Note.Note.DTO.CursorPage;
+import com.Gestion_Note.Note.DTO.UserSummary;
+import com.Gestion_Note.Note.Entities.Roles;
 import com.Gestion_Note.Note.Entities.User;
 import com.Gestion_Note.Note.Repository.UserRepository;
+import com.Gestion_Note.Note.Security.TokenVersionStore;
+import com.Gestion_Note.Note.Security.UserDetailsCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
 
 @Service
 public class UserService {
@@ -14,15 +22,44 @@ public class UserService {
     @Autowired
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TokenVersionStore tokenVersionStore;
+    private final UserDetailsCache userDetailsCache;
+    private final UserSearchIndex userSearchIndex;
+    private final GroupMembershipIndex membershipIndex;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       TokenVersionStore tokenVersionStore, UserDetailsCache userDetailsCache,
+                       UserSearchIndex userSearchIndex, GroupMembershipIndex membershipIndex) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.tokenVersionStore = tokenVersionStore;
+        this.userDetailsCache = userDetailsCache;
+        this.userSearchIndex = userSearchIndex;
+        this.membershipIndex = membershipIndex;
     }
 
-    public List<User> getAllUsers(){
-        List <User> users = userRepository.findAll();
-        return users;
+    /**
+     * Lists users ordered by id, starting after {@code cursor} (exclusive, null for the first page).
+     * The size is clamped as described in {@link Paging}.
+     */
+    public CursorPage<UserSummary> getUsers(Roles role, Long cursor, Integer size) {
+        Paging paging = Paging.keyset(cursor, size);
+        long after = paging.getAfter();
+        Pageable pageable = paging.getPageable();
+
+        List<UserSummary> rows;
+        if (role == null) {
+            rows = userRepository.findSummariesAfter(after, pageable);
+        } else {
+            rows = switch (role) {
+                case STUDENT -> userRepository.findStudentSummariesAfter(after, pageable);
+                case TEACHER -> userRepository.findTeacherSummariesAfter(after, pageable);
+                case ADMIN -> userRepository.findAdminSummariesAfter(after, pageable);
+                case PARENT -> userRepository.findParentSummariesAfter(after, pageable);
+            };
+        }
+
+        return paging.page(rows, UserSummary::getUser_id);
     }
 
     public User saveUser (User user){
@@ -34,24 +71,48 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found with ID: " + user_id));
     }
 
+    public Optional<String> getUserVersionTag(Long user_id) {
+        return userRepository.findVersionTag(user_id);
+    }
+
     public void deleteUser(Long user_id){
         User existingUser = userRepository.findById(user_id)
                 .orElseThrow(()-> new RuntimeException("User Not Found With The ID : " + user_id));
         userRepository.delete(existingUser);
+        tokenVersionStore.recordDeleted(user_id);
+        userDetailsCache.evict(existingUser.getEmail());
+        userSearchIndex.remove(user_id);
+        membershipIndex.removeUser(user_id);
     }
 
     public User updateUser(User user) {
         User existingUser = userRepository.findById(user.getUser_id())
                 .orElseThrow(() -> new RuntimeException("User not Found With The Id"));
 
+        String previousEmail = existingUser.getEmail();
+        boolean passwordChanged = user.getPassword() != null && !user.getPassword().isBlank();
+        boolean credentialsChanged = passwordChanged
+                || existingUser.getRole() != user.getRole()
+                || !Objects.equals(existingUser.getEmail(), user.getEmail());
+
         existingUser.setName(user.getName());
         existingUser.setUsername(user.getUsername());
         existingUser.setEmail(user.getEmail());
         existingUser.setRole(user.getRole());
-        if (user.getPassword() != null && !user.getPassword().isBlank()) {
+        if (passwordChanged) {
             existingUser.setPassword(passwordEncoder.encode(user.getPassword()));
         }
-        return userRepository.save(existingUser);
+        if (credentialsChanged) {
+            existingUser.setTokenVersion(existingUser.getTokenVersion() + 1);
+        }
+        User saved = userRepository.save(existingUser);
+        if (credentialsChanged) {
+            tokenVersionStore.recordVersion(saved.getUser_id(), saved.getTokenVersion());
+        }
+        userDetailsCache.evict(previousEmail);
+        userDetailsCache.evict(saved.getEmail());
+        userSearchIndex.index(saved);
+        return saved;
     }
 
 
@@ -0,0 +1,44 @@
+package com.Gestion_Note.Note.DTO;
+
+import com.Gestion_Note.Note.Entities.Roles;
+
+/**
+ * Read-only view of a user for listings: no password hash and no role-specific
+ * associations, so it can be selected straight from the users table.
+ */
+public class UserSummary {
+
+    private final Long user_id;
+    private final String name;
+    private final String username;
+    private final String email;
+    private final Roles role;
+
+    public UserSummary(Long user_id, String name, String username, String email, Roles role) {
+        this.user_id = user_id;
+        this.name = name;
+        this.username = username;
+        this.email = email;
+        this.role = role;
+    }
+
+    public Long getUser_id() {
+        return user_id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Roles getRole() {
+        return role;
+    }
+}